@@ -0,0 +1,90 @@
+package org.portfolio.portfolio.application.discount;
+
+import org.openjdk.jmh.annotations.*;
+import org.portfolio.portfolio.domain.common.CouponType;
+import org.portfolio.portfolio.domain.coupon.CouponDefinition;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기존 DiscountPolicyFactory 경로와 컴파일된 DiscountPlan 의 주문당 할인 계산 비교.
+ * ./gradlew jmh 로 실행하며, gc 프로파일러의 gc.alloc.rate.norm 으로 주문당 할당량도 함께 본다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class DiscountEngineBenchmark {
+
+    private static final int ORDERS = 1024;
+
+    private DiscountPolicyFactory factory;
+    private DiscountPlan couponOnlyPlan;
+    private DiscountPlan stackedPlan;
+
+    private long[] totals;
+    private long[] categoryIds;
+    private boolean[] firstPurchases;
+    private CouponDefinition[] coupons;
+
+    @Setup
+    public void setUp() {
+        factory = new DiscountPolicyFactory(new FixDiscountPolicy(), new RateDiscountPolicy());
+        couponOnlyPlan = DiscountPlan.compile(DiscountEngine.DEFAULT_RULES);
+        stackedPlan = DiscountPlan.compile(List.of(
+                DiscountRule.firstPurchaseRate(5, 10).exclusiveIn(1),
+                DiscountRule.categoryRate(3L, 10, 20).exclusiveIn(1),
+                DiscountRule.coupon(30),
+                DiscountRule.cap(30_000L)));
+
+        CouponDefinition fixed = new CouponDefinition(1L, CouponType.FIXED, 3_000L);
+        CouponDefinition rate = new CouponDefinition(2L, CouponType.RATE, 15L);
+        totals = new long[ORDERS];
+        categoryIds = new long[ORDERS];
+        firstPurchases = new boolean[ORDERS];
+        coupons = new CouponDefinition[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            totals[i] = 1_000L * (1 + (i * 37) % 500);
+            categoryIds[i] = i % 5;
+            firstPurchases[i] = i % 7 == 0;
+            coupons[i] = i % 2 == 0 ? fixed : rate;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public long factoryLookup() {
+        long sum = 0L;
+        for (int i = 0; i < ORDERS; i++) {
+            CouponDefinition coupon = coupons[i];
+            long discount = factory.getPolicy(coupon.type()).calculateDiscount(totals[i], coupon);
+            sum += Math.min(Math.max(0L, discount), totals[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public long compiledCouponOnly() {
+        long sum = 0L;
+        for (int i = 0; i < ORDERS; i++) {
+            CouponDefinition coupon = coupons[i];
+            sum += couponOnlyPlan.evaluate(totals[i], categoryIds[i], firstPurchases[i],
+                    DiscountPlan.couponTypeCode(coupon.type()), coupon.discountValue());
+        }
+        return sum;
+    }
+
+    // 팩토리 경로로는 표현할 수 없는 누적 규칙 (첫 구매/카테고리 배타 + 쿠폰 + 상한)
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public long compiledStacked() {
+        long sum = 0L;
+        for (int i = 0; i < ORDERS; i++) {
+            CouponDefinition coupon = coupons[i];
+            sum += stackedPlan.evaluate(totals[i], categoryIds[i], firstPurchases[i],
+                    DiscountPlan.couponTypeCode(coupon.type()), coupon.discountValue());
+        }
+        return sum;
+    }
+}
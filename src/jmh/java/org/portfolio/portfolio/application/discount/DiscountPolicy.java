@@ -0,0 +1,7 @@
+package org.portfolio.portfolio.application.discount;
+
+import org.portfolio.portfolio.domain.coupon.CouponDefinition;
+
+public interface DiscountPolicy {
+    long calculateDiscount(long originalPrice, CouponDefinition coupon);
+}
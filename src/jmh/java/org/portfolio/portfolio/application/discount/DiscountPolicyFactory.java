@@ -1,16 +1,18 @@
 package org.portfolio.portfolio.application.discount;
 
-import lombok.RequiredArgsConstructor;
 import org.portfolio.portfolio.domain.common.CouponType;
-import org.springframework.stereotype.Component;
 
-@Component
-@RequiredArgsConstructor
+// DiscountEngine 이전의 쿠폰 타입별 정책 선택 경로. DiscountEngineBenchmark 의 비교 기준으로만 남긴다
 public class DiscountPolicyFactory {
 
     private final FixDiscountPolicy fixDiscountPolicy;
     private final RateDiscountPolicy rateDiscountPolicy;
 
+    public DiscountPolicyFactory(FixDiscountPolicy fixDiscountPolicy, RateDiscountPolicy rateDiscountPolicy) {
+        this.fixDiscountPolicy = fixDiscountPolicy;
+        this.rateDiscountPolicy = rateDiscountPolicy;
+    }
+
     public DiscountPolicy getPolicy(CouponType type) {
         if (type == null) throw new IllegalArgumentException("CouponType must not be null");
         return switch (type) {
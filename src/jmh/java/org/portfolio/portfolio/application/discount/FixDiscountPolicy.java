@@ -1,12 +1,10 @@
 package org.portfolio.portfolio.application.discount;
 
-import org.portfolio.portfolio.domain.coupon.Coupon;
-import org.springframework.stereotype.Component;
+import org.portfolio.portfolio.domain.coupon.CouponDefinition;
 
-@Component
 public class FixDiscountPolicy implements DiscountPolicy {
     @Override
-    public long calculateDiscount(long originalPrice, Coupon coupon) {
+    public long calculateDiscount(long originalPrice, CouponDefinition coupon) {
         if (coupon == null) return 0L;
         long discount = coupon.calculateDiscount(originalPrice);
         if (discount < 0) return 0L;
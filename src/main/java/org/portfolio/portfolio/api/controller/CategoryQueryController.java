@@ -3,10 +3,10 @@ package org.portfolio.portfolio.api.controller;
 import lombok.RequiredArgsConstructor;
 import org.portfolio.portfolio.api.dto.common.PageResponse;
 import org.portfolio.portfolio.api.dto.item.ItemResponse;
+import org.portfolio.portfolio.application.category.CategoryQueryService;
 import org.portfolio.portfolio.domain.item.Item;
 import org.portfolio.portfolio.domain.item.ItemRepository;
 import org.portfolio.portfolio.domain.item.ItemSearchCondition;
-import org.portfolio.portfolio.application.category.CategoryQueryService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -16,7 +16,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
@@ -34,12 +33,11 @@ public class CategoryQueryController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size
     ) {
-        List<Long> ids = categoryQueryService.collectDescendantIds(categoryId);
-        ItemSearchCondition condition = ItemSearchCondition.builder()
-                .categoryIds(ids)
-                .build();
+        // 하위 카테고리 조회 방식은 timedeal.category.descendants.mode 로 정한다 (기본: 트리 스냅샷)
+        ItemSearchCondition condition = categoryQueryService.hierarchyCondition(categoryId);
         Pageable pageable = PageRequest.of(page, size);
-        Page<Item> result = itemRepository.search(condition, pageable);
+        // 전체 건수는 하위 트리 count 스캔 대신 카테고리별 상품 수 집계에서 읽는다
+        Page<Item> result = itemRepository.search(condition, pageable, () -> categoryQueryService.countItems(categoryId));
         return new PageResponse<>(
                 result.getContent().stream().map(ItemResponse::from).collect(Collectors.toList()),
                 result.getNumber(),
@@ -0,0 +1,24 @@
+package org.portfolio.portfolio.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.api.dto.coupon.IssueCouponRequest;
+import org.portfolio.portfolio.api.dto.coupon.IssueCouponResponse;
+import org.portfolio.portfolio.application.coupon.CouponIssuanceEngine;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/coupons")
+public class CouponController {
+
+    private final CouponIssuanceEngine couponIssuanceEngine;
+
+    // 선착순 쿠폰 발급: 메모리에서 한도/중복을 확정하고 user_coupon 저장은 곧이어 일괄 반영된다
+    @PostMapping("/{couponId}/issue")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public IssueCouponResponse issue(@PathVariable Long couponId, @Validated @RequestBody IssueCouponRequest req) {
+        return IssueCouponResponse.from(couponIssuanceEngine.issue(couponId, req.getUserId()));
+    }
+}
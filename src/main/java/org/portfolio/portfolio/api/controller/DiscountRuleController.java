@@ -0,0 +1,36 @@
+package org.portfolio.portfolio.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.api.dto.discount.DiscountRuleRequest;
+import org.portfolio.portfolio.api.dto.discount.DiscountRuleResponse;
+import org.portfolio.portfolio.api.dto.discount.DiscountRulesRequest;
+import org.portfolio.portfolio.application.discount.DiscountEngine;
+import org.portfolio.portfolio.application.discount.DiscountPlan;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/discount-rules")
+public class DiscountRuleController {
+
+    private final DiscountEngine discountEngine;
+
+    // 현재 적용 중인 할인 규칙 (적용 순서)
+    @GetMapping
+    public List<DiscountRuleResponse> current() {
+        return toResponses(discountEngine.currentPlan());
+    }
+
+    // 할인 규칙 묶음을 통째로 교체한다. 다음 주문/견적부터 새 규칙이 적용된다
+    @PutMapping
+    public List<DiscountRuleResponse> replace(@Validated @RequestBody DiscountRulesRequest req) {
+        return toResponses(discountEngine.install(req.getRules().stream().map(DiscountRuleRequest::toRule).toList()));
+    }
+
+    private static List<DiscountRuleResponse> toResponses(DiscountPlan plan) {
+        return plan.rules().stream().map(DiscountRuleResponse::from).toList();
+    }
+}
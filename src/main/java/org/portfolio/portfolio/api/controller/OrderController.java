@@ -5,7 +5,22 @@ import org.portfolio.portfolio.api.dto.common.PageResponse;
 import org.portfolio.portfolio.api.dto.order.CreateOrderRequest;
 import org.portfolio.portfolio.api.dto.order.CreateOrderResponse;
 import org.portfolio.portfolio.api.dto.order.OrderDetailResponse;
+import org.portfolio.portfolio.api.dto.order.OrderTicketResponse;
+import org.portfolio.portfolio.api.dto.order.QuoteLineRequest;
+import org.portfolio.portfolio.api.dto.order.QuoteLineResponse;
+import org.portfolio.portfolio.api.dto.order.QuoteRequest;
+import org.portfolio.portfolio.api.dto.order.QuoteResponse;
+import org.portfolio.portfolio.application.idempotency.IdempotencyClaim;
+import org.portfolio.portfolio.application.idempotency.IdempotencyService;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.application.order.OrderCommand;
+import org.portfolio.portfolio.application.order.OrderIntakeService;
+import org.portfolio.portfolio.application.order.OrderReceipt;
 import org.portfolio.portfolio.application.order.OrderService;
+import org.portfolio.portfolio.application.order.OrderTicket;
+import org.portfolio.portfolio.application.order.PriceQuoteService;
+import org.portfolio.portfolio.application.stock.SoldOutRegistry;
+import org.portfolio.portfolio.application.waitingroom.WaitingRoomService;
 import org.portfolio.portfolio.domain.order.Order;
 import org.portfolio.portfolio.domain.order.OrderRepository;
 import org.springframework.data.domain.Page;
@@ -13,9 +28,11 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,19 +43,81 @@ public class OrderController {
 
     private final OrderService orderService;
     private final OrderRepository orderRepository;
+    private final SoldOutRegistry soldOutRegistry;
+    private final WaitingRoomService waitingRoomService;
+    private final IdempotencyService idempotencyService;
+    private final OrderIntakeService orderIntakeService;
+    private final PriceQuoteService priceQuoteService;
 
     // 시나리오 1,2,5: 주문 생성 (비관적 락, 할인 적용, 가상 결제, 금액 위변조 검증)
     @PostMapping("/orders")
     @ResponseStatus(HttpStatus.CREATED)
-    public CreateOrderResponse create(@Validated @RequestBody CreateOrderRequest req) {
-        Long orderId = orderService.createOrder(
-                req.getUserId(), req.getItemId(), req.getQuantity(), req.getUserCouponId(), req.getClientPayAmount()
-        );
+    public CreateOrderResponse create(@Validated @RequestBody CreateOrderRequest req,
+                                      @RequestHeader(value = "X-Waiting-Token", required = false) String waitingToken,
+                                      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        // 같은 멱등 키의 재요청은 처음 응답을 그대로 돌려준다 (품절/대기열 검사보다 먼저 본다)
+        String key = idempotencyKey != null ? idempotencyKey : req.getIdempotencyKey();
+        OrderReceipt receipt = idempotencyService.execute(req.getUserId(), key, req.fingerprint(),
+                claim -> placeOrder(req, waitingToken, claim));
+        return new CreateOrderResponse(receipt.orderId(), receipt.orderStatus(), receipt.paymentStatus());
+    }
+
+    private OrderReceipt placeOrder(CreateOrderRequest req, String waitingToken, IdempotencyClaim claim) {
+        // 품절 상품은 서비스/DB 진입 전에 미리 만들어 둔 409 응답으로 끝낸다
+        soldOutRegistry.ensureNotSoldOut(req.getItemId());
+        // 대기열이 켜진 상품은 입장이 허용된 토큰을 가진 요청만 주문 서비스까지 들어간다
+        Long orderId = waitingRoomService.isEnabled(req.getItemId())
+                ? waitingRoomService.runAdmitted(req.getItemId(), req.getUserId(), waitingToken, () -> createOrder(req, claim))
+                : createOrder(req, claim);
         // fetch-join으로 상세 조회해 상태 응답
         Order order = orderRepository.findByIdWithUserItemPayment(orderId)
                 .orElseThrow();
         String paymentStatus = order.getPayment() != null ? order.getPayment().getStatus().name() : null;
-        return new CreateOrderResponse(order.getId(), order.getStatus().name(), paymentStatus);
+        return new OrderReceipt(order.getId(), order.getStatus().name(), paymentStatus);
+    }
+
+    private Long createOrder(CreateOrderRequest req, IdempotencyClaim claim) {
+        return orderService.createOrder(new OrderCommand(
+                req.getUserId(), req.getItemId(), req.getQuantity(), req.getUserCouponId(), req.getClientPayAmount(), claim
+        ));
+    }
+
+    // 최종 결제 금액 견적: 락/쓰기 없이 계산하며 쿠폰도 사용 처리하지 않는다
+    @PostMapping("/orders/quote")
+    public QuoteResponse quote(@Validated @RequestBody QuoteRequest req) {
+        List<QuoteLineResponse> lines = priceQuoteService.quote(req.getUserId(),
+                        req.getLines().stream().map(QuoteLineRequest::toLine).toList())
+                .stream()
+                .map(QuoteLineResponse::from)
+                .toList();
+        return new QuoteResponse(req.getUserId(), lines);
+    }
+
+    // 비동기 접수: 검증 후 버퍼에 넣고 202 와 티켓을 돌려준다 (버퍼가 가득 차면 503)
+    @PostMapping(value = "/orders", headers = "Prefer=respond-async")
+    public ResponseEntity<OrderTicketResponse> createAsync(@Validated @RequestBody CreateOrderRequest req,
+                                                           @RequestHeader(value = "X-Waiting-Token", required = false) String waitingToken,
+                                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        soldOutRegistry.ensureNotSoldOut(req.getItemId());
+        Long itemId = req.getItemId();
+        boolean waitingRoom = waitingRoomService.isEnabled(itemId);
+        if (waitingRoom) waitingRoomService.acquire(itemId, req.getUserId(), waitingToken);
+
+        String key = idempotencyKey != null ? idempotencyKey : req.getIdempotencyKey();
+        OrderCommand command = new OrderCommand(req.getUserId(), itemId, req.getQuantity(), req.getUserCouponId(), req.getClientPayAmount());
+        OrderTicket ticket = orderIntakeService.submit(command, key, req.fingerprint(),
+                waitingRoom ? ordered -> waitingRoomService.finish(itemId, waitingToken, ordered) : null);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/tickets/" + ticket.getId()))
+                .body(OrderTicketResponse.from(ticket));
+    }
+
+    // 비동기 접수 주문의 진행 상태 조회
+    @GetMapping("/orders/tickets/{ticketId}")
+    public OrderTicketResponse getTicket(@PathVariable String ticketId) {
+        return orderIntakeService.findTicket(ticketId)
+                .map(OrderTicketResponse::from)
+                .orElseThrow(() -> new NotFoundException("주문 티켓을 찾을 수 없습니다. id=" + ticketId));
     }
 
     // 시나리오 4: 주문 단건 상세 조회 (fetch join)
@@ -0,0 +1,41 @@
+package org.portfolio.portfolio.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.api.dto.coupon.CouponWalletRequest;
+import org.portfolio.portfolio.api.dto.coupon.CouponWalletResponse;
+import org.portfolio.portfolio.api.dto.coupon.WalletCouponResponse;
+import org.portfolio.portfolio.domain.usercoupon.UserCouponRepository;
+import org.portfolio.portfolio.domain.usercoupon.WalletCoupon;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/users/{userId}/coupons")
+public class UserCouponQueryController {
+
+    private final UserCouponRepository userCouponRepository;
+
+    // 쿠폰함: User.userCoupons 컬렉션 대신 프로젝션 + 키셋 페이지네이션으로 조회한다
+    @GetMapping
+    public CouponWalletResponse wallet(@PathVariable Long userId, @ModelAttribute CouponWalletRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        int size = request.pageSize();
+        // 한 건 더 읽어 다음 페이지 유무를 판단한다 (count 쿼리 없음)
+        List<WalletCoupon> rows = userCouponRepository.findWallet(userId, request.filter(), request.getCursor(), size + 1, now);
+        boolean hasNext = rows.size() > size;
+        List<WalletCoupon> page = hasNext ? rows.subList(0, size) : rows;
+        Long nextCursor = hasNext ? page.get(page.size() - 1).userCouponId() : null;
+        return new CouponWalletResponse(
+                page.stream().map(c -> WalletCouponResponse.from(c, now)).toList(),
+                nextCursor,
+                hasNext
+        );
+    }
+}
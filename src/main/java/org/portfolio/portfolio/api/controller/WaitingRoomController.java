@@ -0,0 +1,35 @@
+package org.portfolio.portfolio.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.api.dto.waitingroom.WaitingPositionResponse;
+import org.portfolio.portfolio.api.dto.waitingroom.WaitingTokenResponse;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.application.waitingroom.WaitingRoomService;
+import org.portfolio.portfolio.application.waitingroom.WaitingTicket;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/waiting-room/items/{itemId}")
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+
+    // 선착순 딜 대기열 입장: 순번이 붙은 토큰 발급
+    @PostMapping("/tokens")
+    @ResponseStatus(HttpStatus.CREATED)
+    public WaitingTokenResponse issue(@PathVariable Long itemId, @RequestParam Long userId) {
+        WaitingTicket ticket = waitingRoomService.issue(itemId, userId);
+        long position = waitingRoomService.position(itemId, ticket.token());
+        return new WaitingTokenResponse(itemId, ticket.token(), ticket.sequence(), position);
+    }
+
+    // 대기 순번 폴링: position 이 0이 되면 토큰을 X-Waiting-Token 헤더에 담아 주문한다
+    @GetMapping("/tokens/{token}")
+    public WaitingPositionResponse position(@PathVariable Long itemId, @PathVariable String token) {
+        long position = waitingRoomService.position(itemId, token);
+        if (position < 0) throw new NotFoundException("대기열 토큰을 찾을 수 없습니다.");
+        return new WaitingPositionResponse(itemId, position, position == 0);
+    }
+}
@@ -0,0 +1,30 @@
+package org.portfolio.portfolio.api.dto.coupon;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.portfolio.portfolio.domain.usercoupon.WalletFilter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CouponWalletRequest {
+
+    private static final int MAX_SIZE = 100;
+
+    private WalletFilter status = WalletFilter.ALL;
+
+    // 이전 응답의 nextCursor (첫 페이지는 생략)
+    private Long cursor;
+
+    private Integer size = 20;
+
+    public WalletFilter filter() {
+        return status != null ? status : WalletFilter.ALL;
+    }
+
+    public int pageSize() {
+        if (size == null || size <= 0) return 20;
+        return Math.min(size, MAX_SIZE);
+    }
+}
@@ -0,0 +1,14 @@
+package org.portfolio.portfolio.api.dto.coupon;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CouponWalletResponse {
+    private List<WalletCouponResponse> content;
+    private Long nextCursor; // 다음 페이지 요청 시 cursor 로 보낸다 (마지막 페이지면 null)
+    private boolean hasNext;
+}
@@ -0,0 +1,13 @@
+package org.portfolio.portfolio.api.dto.coupon;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+public class IssueCouponRequest {
+
+    @NotNull
+    private Long userId;
+}
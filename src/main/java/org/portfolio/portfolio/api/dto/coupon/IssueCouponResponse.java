@@ -0,0 +1,18 @@
+package org.portfolio.portfolio.api.dto.coupon;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.portfolio.portfolio.application.coupon.CouponIssuance;
+
+@Getter
+@AllArgsConstructor
+public class IssueCouponResponse {
+    private Long couponId;
+    private Long userId;
+    private int issuedCount;   // 이 요청까지 포함한 발급 순번
+    private Integer issueLimit; // 무제한 쿠폰이면 null
+
+    public static IssueCouponResponse from(CouponIssuance issuance) {
+        return new IssueCouponResponse(issuance.couponId(), issuance.userId(), issuance.issuedCount(), issuance.issueLimit());
+    }
+}
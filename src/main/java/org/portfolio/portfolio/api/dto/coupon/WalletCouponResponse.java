@@ -0,0 +1,36 @@
+package org.portfolio.portfolio.api.dto.coupon;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.portfolio.portfolio.domain.usercoupon.UserCoupon;
+import org.portfolio.portfolio.domain.usercoupon.WalletCoupon;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class WalletCouponResponse {
+    private Long userCouponId;
+    private Long couponId;
+    private String name;
+    private String type;
+    private long discountValue;
+    private boolean used;
+    private boolean expired;           // 만료 표시 전이라도 기간이 지났으면 true
+    private LocalDateTime validFrom;   // 기간 제한이 없으면 null
+    private LocalDateTime expiresAt;   // 기간 제한이 없으면 null
+
+    public static WalletCouponResponse from(WalletCoupon c, LocalDateTime now) {
+        return new WalletCouponResponse(
+                c.userCouponId(),
+                c.couponId(),
+                c.name(),
+                c.type().name(),
+                c.discountValue(),
+                c.used(),
+                c.expired() || (!c.used() && !now.isBefore(c.expiresAt())),
+                UserCoupon.NOT_BEFORE_ANY.equals(c.validFrom()) ? null : c.validFrom(),
+                UserCoupon.NO_EXPIRY.equals(c.expiresAt()) ? null : c.expiresAt()
+        );
+    }
+}
@@ -0,0 +1,41 @@
+package org.portfolio.portfolio.api.dto.discount;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.portfolio.portfolio.application.discount.DiscountCondition;
+import org.portfolio.portfolio.application.discount.DiscountRule;
+import org.portfolio.portfolio.application.discount.DiscountRuleType;
+
+@Getter
+@NoArgsConstructor
+public class DiscountRuleRequest {
+
+    private String name;
+
+    @NotNull
+    private DiscountRuleType type;
+
+    // FIXED/CAP 은 금액, RATE 는 퍼센트. COUPON 은 쓰지 않는다
+    @Min(0)
+    private long value;
+
+    @NotNull
+    private DiscountCondition condition;
+
+    // CATEGORY 조건의 카테고리 id
+    private long conditionArg;
+
+    private int priority;
+
+    // 0이면 배타 그룹 없음
+    @Min(0)
+    @Max(63)
+    private int exclusiveGroup;
+
+    public DiscountRule toRule() {
+        return new DiscountRule(name, type, value, condition, conditionArg, priority, exclusiveGroup);
+    }
+}
@@ -0,0 +1,24 @@
+package org.portfolio.portfolio.api.dto.discount;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.portfolio.portfolio.application.discount.DiscountCondition;
+import org.portfolio.portfolio.application.discount.DiscountRule;
+import org.portfolio.portfolio.application.discount.DiscountRuleType;
+
+@Getter
+@AllArgsConstructor
+public class DiscountRuleResponse {
+    private String name;
+    private DiscountRuleType type;
+    private long value;
+    private DiscountCondition condition;
+    private long conditionArg;
+    private int priority;
+    private int exclusiveGroup;
+
+    public static DiscountRuleResponse from(DiscountRule rule) {
+        return new DiscountRuleResponse(rule.name(), rule.type(), rule.value(), rule.condition(),
+                rule.conditionArg(), rule.priority(), rule.exclusiveGroup());
+    }
+}
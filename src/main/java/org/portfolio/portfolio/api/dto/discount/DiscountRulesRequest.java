@@ -0,0 +1,19 @@
+package org.portfolio.portfolio.api.dto.discount;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+public class DiscountRulesRequest {
+
+    // 빈 목록이면 할인을 모두 끈다
+    @NotNull
+    @Size(max = 64)
+    private List<@Valid @NotNull DiscountRuleRequest> rules;
+}
@@ -2,6 +2,7 @@ package org.portfolio.portfolio.api.dto.order;
 
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
@@ -23,4 +24,13 @@ public class CreateOrderRequest {
 
     @Min(0)
     private long clientPayAmount;
+
+    // Idempotency-Key 헤더 대신 본문으로 보낼 수도 있다 (헤더가 우선)
+    @Size(max = 100)
+    private String idempotencyKey;
+
+    // 같은 멱등 키로 다른 주문을 보내는지 가려내기 위한 요청 지문
+    public String fingerprint() {
+        return itemId + ":" + quantity + ":" + userCouponId + ":" + clientPayAmount;
+    }
 }
@@ -0,0 +1,18 @@
+package org.portfolio.portfolio.api.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.portfolio.portfolio.application.order.OrderTicket;
+
+@Getter
+@AllArgsConstructor
+public class OrderTicketResponse {
+    private String ticketId;
+    private String status;
+    private Long orderId;         // COMPLETED 일 때만 채워진다
+    private String failureReason; // FAILED 일 때만 채워진다
+
+    public static OrderTicketResponse from(OrderTicket ticket) {
+        return new OrderTicketResponse(ticket.getId(), ticket.getStatus().name(), ticket.getOrderId(), ticket.getFailureReason());
+    }
+}
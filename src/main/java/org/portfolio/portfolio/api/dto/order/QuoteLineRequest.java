@@ -0,0 +1,25 @@
+package org.portfolio.portfolio.api.dto.order;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.portfolio.portfolio.application.order.QuoteLine;
+
+@Getter
+@NoArgsConstructor
+public class QuoteLineRequest {
+
+    @NotNull
+    private Long itemId;
+
+    @Min(1)
+    private int quantity;
+
+    // 사용하지 않으면 null 허용
+    private Long userCouponId;
+
+    public QuoteLine toLine() {
+        return new QuoteLine(itemId, quantity, userCouponId);
+    }
+}
@@ -0,0 +1,25 @@
+package org.portfolio.portfolio.api.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.portfolio.portfolio.application.order.Quote;
+
+@Getter
+@AllArgsConstructor
+public class QuoteLineResponse {
+    private Long itemId;
+    private int quantity;
+    private Long userCouponId;
+    private Long originalAmount; // 주문할 수 없는 줄이면 금액은 null
+    private Long discountAmount;
+    private Long finalAmount;    // 주문 시 clientPayAmount 로 그대로 보내면 된다
+    private String rejectReason;
+
+    public static QuoteLineResponse from(Quote quote) {
+        if (!quote.isPriced()) {
+            return new QuoteLineResponse(quote.itemId(), quote.quantity(), quote.userCouponId(), null, null, null, quote.rejectReason());
+        }
+        return new QuoteLineResponse(quote.itemId(), quote.quantity(), quote.userCouponId(),
+                quote.originalAmount(), quote.discountAmount(), quote.finalAmount(), null);
+    }
+}
@@ -0,0 +1,21 @@
+package org.portfolio.portfolio.api.dto.order;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+public class QuoteRequest {
+
+    @NotNull
+    private Long userId;
+
+    @NotNull
+    @Size(min = 1, max = 200)
+    private List<@Valid @NotNull QuoteLineRequest> lines;
+}
@@ -0,0 +1,13 @@
+package org.portfolio.portfolio.api.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class QuoteResponse {
+    private Long userId;
+    private List<QuoteLineResponse> lines;
+}
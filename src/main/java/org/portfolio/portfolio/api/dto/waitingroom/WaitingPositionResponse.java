@@ -0,0 +1,12 @@
+package org.portfolio.portfolio.api.dto.waitingroom;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class WaitingPositionResponse {
+    private Long itemId;
+    private long position;
+    private boolean admitted;
+}
@@ -0,0 +1,13 @@
+package org.portfolio.portfolio.api.dto.waitingroom;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class WaitingTokenResponse {
+    private Long itemId;
+    private String token;
+    private long sequence;
+    private long position; // 0이면 바로 주문 가능
+}
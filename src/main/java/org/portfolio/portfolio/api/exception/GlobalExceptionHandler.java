@@ -1,14 +1,19 @@
 package org.portfolio.portfolio.api.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.portfolio.portfolio.api.dto.order.OrderTicketResponse;
 import org.portfolio.portfolio.application.exception.*;
+import org.portfolio.portfolio.application.order.OrderTicketStatus;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.net.URI;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
@@ -26,12 +31,48 @@ public class GlobalExceptionHandler {
                 .body(ErrorResponse.of(400, "Bad Request", e.getMessage(), req.getRequestURI()));
     }
 
-    @ExceptionHandler({InsufficientStockException.class, PaymentFailedException.class})
+    // 예외는 공유 인스턴스라 메시지도 고정이다. 응답 본문만 요청마다 만든다 (path/timestamp)
+    @ExceptionHandler(SoldOutException.class)
+    public ResponseEntity<ErrorResponse> handleSoldOut(HttpServletRequest req) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.of(409, "Conflict", SoldOutException.MESSAGE, req.getRequestURI()));
+    }
+
+    @ExceptionHandler({InsufficientStockException.class, PaymentFailedException.class, OptimisticLockingFailureException.class,
+            DuplicateRequestException.class, CouponIssueRejectedException.class})
     public ResponseEntity<ErrorResponse> handleConflict(RuntimeException e, HttpServletRequest req) {
         return ResponseEntity.status(HttpStatus.CONFLICT)
                 .body(ErrorResponse.of(409, "Conflict", e.getMessage(), req.getRequestURI()));
     }
 
+    // 결과를 기다리다 시간이 초과됐지만 주문은 계속 처리 중이다: 202 와 티켓 위치를 돌려주고 클라이언트는 재주문 대신 티켓을 조회한다
+    @ExceptionHandler(OrderPendingException.class)
+    public ResponseEntity<OrderTicketResponse> handlePending(OrderPendingException e) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/orders/tickets/" + e.getTicketId()))
+                .body(new OrderTicketResponse(e.getTicketId(), OrderTicketStatus.PROCESSING.name(), null, null));
+    }
+
+    @ExceptionHandler(NotAdmittedException.class)
+    public ResponseEntity<ErrorResponse> handleNotAdmitted(NotAdmittedException e, HttpServletRequest req) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(ErrorResponse.of(429, "Too Many Requests", e.getMessage(), req.getRequestURI()));
+    }
+
+    @ExceptionHandler(IntakeQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleIntakeFull(IntakeQueueFullException e, HttpServletRequest req) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(ErrorResponse.of(503, "Service Unavailable", e.getMessage(), req.getRequestURI()));
+    }
+
+    // DB 동시 사용 한도(또는 커넥션 풀) 대기 시간 초과
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleUnavailable(CannotCreateTransactionException e, HttpServletRequest req) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ErrorResponse.of(503, "Service Unavailable", "잠시 후 다시 시도해 주세요.", req.getRequestURI()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException e, HttpServletRequest req) {
         String msg = e.getBindingResult().getFieldErrors().stream()
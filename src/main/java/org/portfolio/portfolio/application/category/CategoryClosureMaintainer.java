@@ -0,0 +1,145 @@
+package org.portfolio.portfolio.application.category;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.portfolio.portfolio.domain.category.Category;
+import org.portfolio.portfolio.domain.category.CategoryPathRepository;
+import org.portfolio.portfolio.domain.category.CategoryRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Objects;
+
+/**
+ * category_path(closure table)를 카테고리 변경과 같은 트랜잭션에서 맞춰 두는 Hibernate 리스너.
+ * - 추가: 부모의 조상 행을 복사해 depth + 1 로 넣고 자기 자신 행(depth 0)을 넣는다.
+ * - 부모 변경(moveTo): 하위 트리와 바깥 조상 사이의 행을 지우고 새 부모의 조상들과 다시 잇는다.
+ * - 삭제: 해당 노드가 들어간 행을 지운다 (자식은 cascade 삭제로 각자 삭제 이벤트를 받는다).
+ * 카테고리 INSERT 는 IDENTITY 로 즉시 실행되므로 부모의 행은 자식보다 먼저 들어가 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryClosureMaintainer implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String INSERT_NODE_SQL =
+            "insert into category_path (ancestor_id, descendant_id, depth) " +
+            "select ancestor_id, ?, depth + 1 from category_path where descendant_id = ? " +
+            "union all select ?, ?, 0";
+    private static final String INSERT_ROOT_SQL =
+            "insert into category_path (ancestor_id, descendant_id, depth) values (?, ?, 0)";
+    // 하위 트리 안쪽끼리의 행은 남기고, 바깥 조상 -> 하위 트리 행만 지운다
+    private static final String DETACH_SUBTREE_SQL =
+            "delete a from category_path a " +
+            "join category_path d on a.descendant_id = d.descendant_id " +
+            "left join category_path x on x.ancestor_id = d.ancestor_id and x.descendant_id = a.ancestor_id " +
+            "where d.ancestor_id = ? and x.ancestor_id is null";
+    private static final String ATTACH_SUBTREE_SQL =
+            "insert into category_path (ancestor_id, descendant_id, depth) " +
+            "select up.ancestor_id, sub.descendant_id, up.depth + sub.depth + 1 " +
+            "from category_path up join category_path sub on sub.ancestor_id = ? " +
+            "where up.descendant_id = ?";
+    private static final String DELETE_NODE_SQL =
+            "delete from category_path where descendant_id = ? or ancestor_id = ?";
+
+    private final CategoryPathRepository categoryPathRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryItemCountMaintainer categoryItemCountMaintainer;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof Category category)) return;
+        Long id = category.getId();
+        Long parentId = category.getParent() != null ? category.getParent().getId() : null;
+        if (parentId == null) {
+            execute(event.getSession(), INSERT_ROOT_SQL, id, id);
+        } else {
+            execute(event.getSession(), INSERT_NODE_SQL, id, parentId, id, id);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Category category)) return;
+        if (!parentChanged(event)) return;
+        Long id = category.getId();
+        // 상품 수 집계는 경로가 바뀌기 전/후의 조상 기준으로 옮긴다
+        categoryItemCountMaintainer.beforeSubtreeDetached(event.getSession(), id);
+        execute(event.getSession(), DETACH_SUBTREE_SQL, id);
+        if (category.getParent() != null) {
+            execute(event.getSession(), ATTACH_SUBTREE_SQL, id, category.getParent().getId());
+            categoryItemCountMaintainer.afterSubtreeAttached(event.getSession(), id);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (!(event.getEntity() instanceof Category)) return;
+        Long id = (Long) event.getId();
+        execute(event.getSession(), DELETE_NODE_SQL, id, id);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // 기존 데이터처럼 closure 행이 parent_id 와 맞지 않으면 다시 만든다.
+    // 자기 자신 행 수(= 카테고리 수)와 전체 행 수(= 노드별 깊이 + 1 의 합)를 함께 비교해 빠지거나 남은 조상 행도 잡는다
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfOutOfSync() {
+        if (categoryPathRepository.countNodes() == categoryRepository.count()
+                && categoryPathRepository.count() == categoryPathRepository.countExpectedPaths()) return;
+        Integer rows = transactionTemplate.execute(status -> {
+            categoryPathRepository.deleteAllPaths();
+            int total = categoryPathRepository.insertSelfPaths();
+            for (int depth = 0; ; depth++) {
+                int inserted = categoryPathRepository.extendPaths(depth);
+                if (inserted == 0) break;
+                total += inserted;
+            }
+            return total;
+        });
+        log.info("카테고리 closure table 재구성: {}행", rows);
+    }
+
+    private static boolean parentChanged(PostUpdateEvent event) {
+        String[] names = event.getPersister().getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (!"parent".equals(names[i])) continue;
+            Object[] oldState = event.getOldState();
+            // 이전 값을 모르면 바뀐 것으로 본다 (다시 이어도 결과는 같다)
+            return oldState == null || !Objects.equals(idOf(oldState[i]), idOf(event.getState()[i]));
+        }
+        return false;
+    }
+
+    private static Long idOf(Object category) {
+        return category instanceof Category c ? c.getId() : null;
+    }
+
+    private static void execute(EventSource session, String sql, Long... params) {
+        session.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    ps.setLong(i + 1, params[i]);
+                }
+                ps.executeUpdate();
+            }
+        });
+    }
+}
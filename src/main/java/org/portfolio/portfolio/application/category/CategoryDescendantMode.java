@@ -0,0 +1,8 @@
+package org.portfolio.portfolio.application.category;
+
+public enum CategoryDescendantMode {
+    SNAPSHOT,       // 메모리 트리 스냅샷 (기본, DB 접근 없음)
+    CLOSURE_TABLE,  // category_path 인덱스 조회 한 번
+    RECURSIVE_CTE,  // MySQL 8 WITH RECURSIVE 네이티브 쿼리 한 번 (캐시/추가 테이블 없음)
+    LEVEL_WALK      // 노드마다 자식 조회 (N 쿼리, 비교 기준)
+}
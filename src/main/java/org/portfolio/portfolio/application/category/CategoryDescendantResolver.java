@@ -0,0 +1,11 @@
+package org.portfolio.portfolio.application.category;
+
+import java.util.List;
+
+public interface CategoryDescendantResolver {
+
+    CategoryDescendantMode mode();
+
+    // 자기 자신을 포함한 하위 트리 전체의 카테고리 ID. 없는 카테고리면 빈 목록
+    List<Long> resolve(Long categoryId);
+}
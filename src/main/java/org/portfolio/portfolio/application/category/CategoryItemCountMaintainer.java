@@ -0,0 +1,159 @@
+package org.portfolio.portfolio.application.category;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.portfolio.portfolio.domain.category.Category;
+import org.portfolio.portfolio.domain.category.CategoryItemCountRepository;
+import org.portfolio.portfolio.domain.item.Item;
+import org.portfolio.portfolio.domain.item.ItemStatus;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Objects;
+
+/**
+ * category_item_count 를 상품 변경과 같은 트랜잭션에서 증감하는 Hibernate 리스너.
+ * 상품 하나는 자기 카테고리와 그 모든 조상(category_path)의 (카테고리, 상태) 행에 1로 더해진다.
+ * - 상품 추가/삭제: 조상 전체에 +1 / -1
+ * - 상태 변경(activate/deactivate), 카테고리 변경: 이전 (카테고리, 상태)에서 빼고 새 값에 더한다
+ * - 카테고리 이동: CategoryClosureMaintainer 가 경로를 바꾸기 전/후에 하위 트리 합계를 옮긴다
+ * 재고만 바뀌는 UPDATE 는 상태 비교에서 걸러져 SQL 을 보내지 않는다.
+ * <p>
+ * JPQL/네이티브 bulk UPDATE 는 이 리스너를 거치지 않는다. 지금의 bulk UPDATE 는 재고만 바꾸므로 집계와 무관하며,
+ * 상태나 카테고리를 bulk 로 바꾸는 코드를 추가하면 같은 트랜잭션에서 rebuild() 를 호출해야 한다.
+ * <p>
+ * 증감은 조상마다 (카테고리, 상태) 행을 갱신하므로, 커밋까지 그 행들의 락을 잡는다.
+ * 같은 최상위 아래의 상품 추가/상태 변경은 최상위 행에서 줄을 서게 되는데, 상품 변경은 관리자 작업이라 빈도가 낮아 그대로 둔다.
+ * 주문/재고 차감은 상태를 바꾸지 않으므로 이 행들을 건드리지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryItemCountMaintainer implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String APPLY_DELTA_SQL =
+            "insert into category_item_count (category_id, status, item_count) " +
+            "select ancestor_id, ?, ? from category_path where descendant_id = ? " +
+            "on duplicate key update item_count = item_count + ?";
+    // 바깥 조상들에서 하위 트리 루트의 합계를 뺀다 (경로를 끊기 전에 호출)
+    private static final String SUBTRACT_SUBTREE_SQL =
+            "update category_item_count a " +
+            "join category_path up on up.ancestor_id = a.category_id " +
+            "join category_item_count s on s.category_id = up.descendant_id and s.status = a.status " +
+            "set a.item_count = a.item_count - s.item_count " +
+            "where up.descendant_id = ? and up.depth > 0";
+    // 새 조상들에 하위 트리 루트의 합계를 더한다 (경로를 다시 이은 뒤 호출)
+    private static final String ADD_SUBTREE_SQL =
+            "insert into category_item_count (category_id, status, item_count) " +
+            "select src.category_id, src.status, src.item_count from (" +
+            "select up.ancestor_id as category_id, s.status, s.item_count from category_path up " +
+            "join category_item_count s on s.category_id = up.descendant_id " +
+            "where up.descendant_id = ? and up.depth > 0) src " +
+            "on duplicate key update item_count = category_item_count.item_count + src.item_count";
+    private static final String DELETE_CATEGORY_SQL =
+            "delete from category_item_count where category_id = ?";
+
+    private final CategoryItemCountRepository categoryItemCountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof Item item)) return;
+        apply(event.getSession(), idOf(item.getCategory()), item.getStatus(), 1);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Item item)) return;
+        Object[] oldState = event.getOldState();
+        if (oldState == null) return;
+        String[] names = event.getPersister().getPropertyNames();
+        Long oldCategoryId = idOf(oldState[indexOf(names, "category")]);
+        ItemStatus oldStatus = (ItemStatus) oldState[indexOf(names, "status")];
+        Long newCategoryId = idOf(item.getCategory());
+        if (Objects.equals(oldCategoryId, newCategoryId) && oldStatus == item.getStatus()) return;
+        apply(event.getSession(), oldCategoryId, oldStatus, -1);
+        apply(event.getSession(), newCategoryId, item.getStatus(), 1);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Category) {
+            execute(event.getSession(), DELETE_CATEGORY_SQL, event.getId());
+            return;
+        }
+        if (!(event.getEntity() instanceof Item)) return;
+        Object[] state = event.getDeletedState();
+        String[] names = event.getPersister().getPropertyNames();
+        apply(event.getSession(), idOf(state[indexOf(names, "category")]), (ItemStatus) state[indexOf(names, "status")], -1);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    void beforeSubtreeDetached(EventSource session, Long categoryId) {
+        execute(session, SUBTRACT_SUBTREE_SQL, categoryId);
+    }
+
+    void afterSubtreeAttached(EventSource session, Long categoryId) {
+        execute(session, ADD_SUBTREE_SQL, categoryId);
+    }
+
+    // closure table 재구성 뒤에 실행한다. 상태별 최상위 카테고리 합계가 상품 수와 다르면 다시 집계한다
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfOutOfSync() {
+        long mismatched = categoryItemCountRepository.countMismatchedRootStatuses();
+        if (mismatched == 0) return;
+        log.info("카테고리별 상품 수가 {}개 상태에서 어긋나 다시 집계합니다.", mismatched);
+        Integer rows = transactionTemplate.execute(status -> rebuild());
+        log.info("카테고리별 상품 수 재집계: {}행", rows);
+    }
+
+    // 집계 테이블을 지우고 item 과 category_path 로 다시 채운다 (호출하는 쪽 트랜잭션에서 실행)
+    public int rebuild() {
+        categoryItemCountRepository.deleteAllCounts();
+        return categoryItemCountRepository.rebuildCounts();
+    }
+
+    private static void apply(EventSource session, Long categoryId, ItemStatus status, int delta) {
+        if (categoryId == null || status == null) return;
+        execute(session, APPLY_DELTA_SQL, status.name(), delta, categoryId, delta);
+    }
+
+    private static int indexOf(String[] names, String property) {
+        for (int i = 0; i < names.length; i++) {
+            if (property.equals(names[i])) return i;
+        }
+        throw new IllegalStateException("Item 에 " + property + " 속성이 없습니다.");
+    }
+
+    private static Long idOf(Object category) {
+        return category instanceof Category c ? c.getId() : null;
+    }
+
+    private static void execute(EventSource session, String sql, Object... params) {
+        session.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    ps.setObject(i + 1, params[i]);
+                }
+                ps.executeUpdate();
+            }
+        });
+    }
+}
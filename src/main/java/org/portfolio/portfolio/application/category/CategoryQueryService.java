@@ -1,36 +1,77 @@
 package org.portfolio.portfolio.application.category;
 
-import lombok.RequiredArgsConstructor;
-import org.portfolio.portfolio.domain.category.Category;
-import org.portfolio.portfolio.domain.category.CategoryRepository;
+import org.portfolio.portfolio.domain.category.CategoryItemCountRepository;
+import org.portfolio.portfolio.domain.item.ItemSearchCondition;
+import org.portfolio.portfolio.domain.item.ItemStatus;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
+/**
+ * 하위 카테고리 조회 방식을 설정(timedeal.category.descendants.mode)으로 고른다.
+ * 기본은 메모리 스냅샷이고, 캐시 없이 DB 에서 바로 읽어야 하면 CLOSURE_TABLE / RECURSIVE_CTE 를 쓴다.
+ */
 @Service
-@RequiredArgsConstructor
 public class CategoryQueryService {
 
-    private final CategoryRepository categoryRepository;
+    private final Map<CategoryDescendantMode, CategoryDescendantResolver> resolvers = new EnumMap<>(CategoryDescendantMode.class);
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryItemCountRepository categoryItemCountRepository;
+    private final CategoryDescendantMode defaultMode;
+
+    public CategoryQueryService(List<CategoryDescendantResolver> resolvers,
+                                CategoryTreeCache categoryTreeCache,
+                                CategoryItemCountRepository categoryItemCountRepository,
+                                @Value("${timedeal.category.descendants.mode:SNAPSHOT}") CategoryDescendantMode defaultMode) {
+        resolvers.forEach(r -> this.resolvers.put(r.mode(), r));
+        this.categoryTreeCache = categoryTreeCache;
+        this.categoryItemCountRepository = categoryItemCountRepository;
+        this.defaultMode = defaultMode;
+    }
+
+    // 트리 스냅샷에서 하위 트리 전체(자기 자신 포함)를 읽는다. DB 접근 없음
+    public long[] descendantIds(long categoryId) {
+        return categoryTreeCache.current().descendantIds(categoryId);
+    }
 
-    @Transactional(readOnly = true)
     public List<Long> collectDescendantIds(Long categoryId) {
-        Set<Long> result = new HashSet<>();
-        collect(categoryId, result);
-        return new ArrayList<>(result);
-    }
-
-    private void collect(Long id, Set<Long> acc) {
-        if (id == null || acc.contains(id)) return;
-        acc.add(id);
-        List<Category> children = categoryRepository.findByParent_Id(id);
-        if (children == null || children.isEmpty()) return;
-        for (Category c : children) {
-            collect(c.getId(), acc);
+        return collectDescendantIds(categoryId, defaultMode);
+    }
+
+    public List<Long> collectDescendantIds(Long categoryId, CategoryDescendantMode mode) {
+        if (categoryId == null) return List.of();
+        return resolvers.get(mode).resolve(categoryId);
+    }
+
+    // 하위 카테고리 상품 검색 조건.
+    // closure table 모드이거나 조회 결과가 비면(스냅샷에 아직 없는 카테고리) category_path 서브쿼리로 거른다
+    public ItemSearchCondition hierarchyCondition(Long categoryId) {
+        if (defaultMode == CategoryDescendantMode.CLOSURE_TABLE) {
+            return ItemSearchCondition.builder().ancestorCategoryId(categoryId).build();
         }
+        List<Long> ids = collectDescendantIds(categoryId);
+        return ids.isEmpty()
+                ? ItemSearchCondition.builder().ancestorCategoryId(categoryId).build()
+                : ItemSearchCondition.builder().categoryIds(ids).build();
+    }
+
+    // 하위 트리 전체의 상태별 상품 수 (category_item_count 행 하나씩, count 스캔 없음)
+    public Map<ItemStatus, Long> itemCounts(Long categoryId) {
+        Map<ItemStatus, Long> counts = new EnumMap<>(ItemStatus.class);
+        for (ItemStatus status : ItemStatus.values()) counts.put(status, 0L);
+        categoryItemCountRepository.findByCategoryId(categoryId)
+                .forEach(c -> counts.put(c.getStatus(), c.getItemCount()));
+        return counts;
+    }
+
+    public long countItems(Long categoryId) {
+        return itemCounts(categoryId).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public CategoryDescendantMode defaultMode() {
+        return defaultMode;
     }
 }
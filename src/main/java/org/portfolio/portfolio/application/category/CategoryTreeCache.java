@@ -0,0 +1,86 @@
+package org.portfolio.portfolio.application.category;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.domain.category.CategoryNode;
+import org.portfolio.portfolio.domain.category.CategoryRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 카테고리 트리 스냅샷 보관소.
+ * 카테고리가 바뀌면 세대만 올려 두고(CategoryTreeListener), 다음 조회가 쿼리 한 번으로 새 스냅샷을 만들어 통째로 바꿔 끼운다.
+ * 다시 만드는 일은 한 스레드만 하고, 그동안 다른 조회는 기다리지 않고 이전 스냅샷을 본다 (첫 적재만 기다린다).
+ * 만드는 도중 변경이 계속 들어오면 MAX_RELOAD_ATTEMPTS 번까지만 다시 읽고, 남은 변경은 다음 조회가 반영한다.
+ */
+@Slf4j
+@Component
+public class CategoryTreeCache {
+
+    static final int MAX_RELOAD_ATTEMPTS = 3;
+
+    private final CategoryRepository categoryRepository;
+    private final AtomicReference<CategoryTreeSnapshot> snapshot = new AtomicReference<>();
+    // 변경 세대. 스냅샷의 version 이 이 값보다 작으면 낡은 것이다
+    private final AtomicLong generation = new AtomicLong(1);
+    // 재적재는 한 스레드만 한다 (DB I/O 를 포함하므로 synchronized 대신 락)
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public CategoryTreeCache(CategoryRepository categoryRepository, MeterRegistry meterRegistry) {
+        this.categoryRepository = categoryRepository;
+        Gauge.builder("category.tree.snapshot.version", this, c -> {
+            CategoryTreeSnapshot s = c.snapshot.get();
+            return s != null ? s.version() : 0;
+        }).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        CategoryTreeSnapshot loaded = current();
+        log.info("카테고리 트리 스냅샷 적재: {}개 (version={})", loaded.size(), loaded.version());
+    }
+
+    public CategoryTreeSnapshot current() {
+        CategoryTreeSnapshot s = snapshot.get();
+        if (s != null && s.version() == generation.get()) return s;
+        if (s == null) {
+            reloadLock.lock();
+        } else if (!reloadLock.tryLock()) {
+            // 다른 스레드가 다시 만드는 중이다
+            return s;
+        }
+        try {
+            return reload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    // reloadLock 을 잡은 채로 호출한다
+    private CategoryTreeSnapshot reload() {
+        CategoryTreeSnapshot built = snapshot.get();
+        for (int attempt = 0; attempt < MAX_RELOAD_ATTEMPTS; attempt++) {
+            long gen = generation.get();
+            if (built != null && built.version() == gen) return built;
+            List<CategoryNode> nodes = categoryRepository.findAllNodes();
+            built = CategoryTreeSnapshot.of(gen, nodes);
+            snapshot.set(built);
+            // 읽는 도중 변경이 있었다면 방금 만든 스냅샷도 낡았으므로 한 번 더 읽는다
+            if (generation.get() == gen) return built;
+        }
+        // 변경이 계속 들어오고 있다: 마지막 스냅샷을 쓰고, 세대가 앞서 있으므로 다음 조회가 다시 만든다
+        log.debug("카테고리 트리 스냅샷 재적재 중 변경이 계속되어 version={} 을 사용합니다.", built.version());
+        return built;
+    }
+}
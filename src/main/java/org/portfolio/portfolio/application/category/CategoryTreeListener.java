@@ -0,0 +1,76 @@
+package org.portfolio.portfolio.application.category;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.portfolio.portfolio.domain.category.Category;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+/**
+ * Category 추가/이동/삭제 시 트리 스냅샷을 낡은 것으로 표시하는 Hibernate 리스너 (HibernateEventListenerConfig 에서 등록한다).
+ * 커밋 전에 다른 스레드가 옛 트리를 다시 읽었을 수 있으므로 트랜잭션이 끝난 뒤 한 번 더 표시한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final CategoryTreeCache categoryTreeCache;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Category) invalidate();
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Category category)) return;
+        // 이름만 바뀐 갱신은 트리 모양과 무관하다. 이전 상태를 모르면 바뀐 것으로 본다
+        Object[] oldState = event.getOldState();
+        if (oldState != null) {
+            Object oldParent = oldState[indexOf(event.getPersister().getPropertyNames(), "parent")];
+            if (Objects.equals(idOf(oldParent), idOf(category.getParent()))) return;
+        }
+        invalidate();
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Category) invalidate();
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void invalidate() {
+        categoryTreeCache.invalidate();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                categoryTreeCache.invalidate();
+            }
+        });
+    }
+
+    private static Long idOf(Object category) {
+        return category instanceof Category c ? c.getId() : null;
+    }
+
+    private static int indexOf(String[] names, String property) {
+        for (int i = 0; i < names.length; i++) {
+            if (property.equals(names[i])) return i;
+        }
+        throw new IllegalStateException("Category 에 " + property + " 속성이 없습니다.");
+    }
+}
@@ -0,0 +1,122 @@
+package org.portfolio.portfolio.application.category;
+
+import org.portfolio.portfolio.domain.category.CategoryNode;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 카테고리 트리 전체의 불변 스냅샷.
+ * 노드 ID 를 정렬된 long[] 로 두고, 노드마다 자기 자신을 포함한 하위 ID 를 정렬된 long[] 로 미리 계산해 둔다.
+ * 조회는 이진 탐색 한 번이며 박싱이나 DB 접근이 없다. 내부 배열은 밖으로 내보내지 않는다.
+ */
+public final class CategoryTreeSnapshot {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final long version;
+    private final long[] ids;
+    private final long[][] subtrees;
+
+    private CategoryTreeSnapshot(long version, long[] ids, long[][] subtrees) {
+        this.version = version;
+        this.ids = ids;
+        this.subtrees = subtrees;
+    }
+
+    public static CategoryTreeSnapshot of(long version, List<CategoryNode> nodes) {
+        int n = nodes.size();
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) ids[i] = nodes.get(i).id();
+        Arrays.sort(ids);
+
+        // 자식 목록을 CSR(offsets + flat 배열) 형태로 만든다. 부모를 못 찾으면 최상위로 본다
+        int[] parent = new int[n];
+        int[] childCount = new int[n + 1];
+        for (CategoryNode node : nodes) {
+            int self = Arrays.binarySearch(ids, node.id());
+            int p = node.parentId() == null ? -1 : Arrays.binarySearch(ids, node.parentId());
+            parent[self] = p < 0 ? -1 : p;
+            if (p >= 0) childCount[p + 1]++;
+        }
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) offsets[i + 1] = offsets[i] + childCount[i + 1];
+        int[] children = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < n; i++) {
+            if (parent[i] >= 0) children[fill[parent[i]]++] = i;
+        }
+
+        // 최상위부터 전위 순회하면 각 하위 트리가 order 의 연속 구간 [enter, exit) 이 된다
+        int[] order = new int[n];
+        int[] enter = new int[n];
+        int[] exit = new int[n];
+        Arrays.fill(enter, -1);
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int visited = 0;
+        for (int root = 0; root < n; root++) {
+            if (parent[root] >= 0) continue;
+            int top = 0;
+            stack[top++] = root;
+            enter[root] = visited;
+            order[visited++] = root;
+            cursor[root] = offsets[root];
+            while (top > 0) {
+                int node = stack[top - 1];
+                if (cursor[node] < offsets[node + 1]) {
+                    int child = children[cursor[node]++];
+                    enter[child] = visited;
+                    order[visited++] = child;
+                    cursor[child] = offsets[child];
+                    stack[top++] = child;
+                } else {
+                    exit[node] = visited;
+                    top--;
+                }
+            }
+        }
+
+        long[][] subtrees = new long[n][];
+        for (int i = 0; i < n; i++) {
+            if (enter[i] < 0) {
+                // 최상위에서 닿지 않는 노드(순환 참조 등)는 자기 자신만 가진다
+                subtrees[i] = new long[]{ids[i]};
+                continue;
+            }
+            long[] subtree = new long[exit[i] - enter[i]];
+            for (int k = 0; k < subtree.length; k++) subtree[k] = ids[order[enter[i] + k]];
+            Arrays.sort(subtree);
+            subtrees[i] = subtree;
+        }
+        return new CategoryTreeSnapshot(version, ids, subtrees);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(long categoryId) {
+        return Arrays.binarySearch(ids, categoryId) >= 0;
+    }
+
+    // 자기 자신을 포함한 하위 ID (정렬됨). 없는 카테고리면 빈 배열
+    public long[] descendantIds(long categoryId) {
+        int index = Arrays.binarySearch(ids, categoryId);
+        return index < 0 ? EMPTY : subtrees[index].clone();
+    }
+
+    public int descendantCount(long categoryId) {
+        int index = Arrays.binarySearch(ids, categoryId);
+        return index < 0 ? 0 : subtrees[index].length;
+    }
+
+    public boolean isDescendant(long ancestorId, long categoryId) {
+        int index = Arrays.binarySearch(ids, ancestorId);
+        return index >= 0 && Arrays.binarySearch(subtrees[index], categoryId) >= 0;
+    }
+}
@@ -0,0 +1,26 @@
+package org.portfolio.portfolio.application.category;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.domain.category.CategoryPathRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ClosureTableCategoryDescendantResolver implements CategoryDescendantResolver {
+
+    private final CategoryPathRepository categoryPathRepository;
+
+    @Override
+    public CategoryDescendantMode mode() {
+        return CategoryDescendantMode.CLOSURE_TABLE;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> resolve(Long categoryId) {
+        return categoryPathRepository.findSubtreeIds(categoryId);
+    }
+}
@@ -0,0 +1,43 @@
+package org.portfolio.portfolio.application.category;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.domain.category.Category;
+import org.portfolio.portfolio.domain.category.CategoryRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class LevelWalkCategoryDescendantResolver implements CategoryDescendantResolver {
+
+    private final CategoryRepository categoryRepository;
+
+    @Override
+    public CategoryDescendantMode mode() {
+        return CategoryDescendantMode.LEVEL_WALK;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> resolve(Long categoryId) {
+        if (!categoryRepository.existsById(categoryId)) return List.of();
+        Set<Long> result = new HashSet<>();
+        collect(categoryId, result);
+        return new ArrayList<>(result);
+    }
+
+    private void collect(Long id, Set<Long> acc) {
+        if (id == null || acc.contains(id)) return;
+        acc.add(id);
+        List<Category> children = categoryRepository.findByParent_Id(id);
+        if (children == null || children.isEmpty()) return;
+        for (Category c : children) {
+            collect(c.getId(), acc);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.portfolio.portfolio.application.category;
+
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.domain.category.CategoryRepository;
+import org.portfolio.portfolio.domain.category.CategorySubtreeRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WITH RECURSIVE 한 번으로 하위 트리를 읽는다.
+ * 경로 문자열로 이미 지나온 노드를 다시 방문하지 않게 하고(순환 참조), max-depth 에서 재귀를 끊는다.
+ * 그보다 깊은 노드가 있으면 결과에서 빠지므로 경고 로그를 남긴다.
+ */
+@Slf4j
+@Component
+public class RecursiveCteCategoryDescendantResolver implements CategoryDescendantResolver {
+
+    private final CategoryRepository categoryRepository;
+    private final int maxDepth;
+
+    public RecursiveCteCategoryDescendantResolver(CategoryRepository categoryRepository,
+                                                  @Value("${timedeal.category.descendants.max-depth:64}") int maxDepth) {
+        this.categoryRepository = categoryRepository;
+        this.maxDepth = maxDepth;
+    }
+
+    @Override
+    public CategoryDescendantMode mode() {
+        return CategoryDescendantMode.RECURSIVE_CTE;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> resolve(Long categoryId) {
+        List<CategorySubtreeRow> rows = categoryRepository.findSubtreeRecursive(categoryId, maxDepth);
+        List<Long> ids = new ArrayList<>(rows.size());
+        int truncated = 0;
+        for (CategorySubtreeRow row : rows) {
+            // 쿼리는 max-depth 보다 한 단계 더 읽는다. 그 단계의 노드가 있으면 하위 트리가 잘린 것이다
+            if (row.getDepth() > maxDepth) {
+                truncated++;
+            } else {
+                ids.add(row.getId());
+            }
+        }
+        if (truncated > 0) {
+            log.warn("카테고리 하위 트리가 max-depth({})보다 깊어 일부가 빠졌습니다. categoryId={}, 잘린 단계의 노드 수={}",
+                    maxDepth, categoryId, truncated);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,24 @@
+package org.portfolio.portfolio.application.category;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class SnapshotCategoryDescendantResolver implements CategoryDescendantResolver {
+
+    private final CategoryTreeCache categoryTreeCache;
+
+    @Override
+    public CategoryDescendantMode mode() {
+        return CategoryDescendantMode.SNAPSHOT;
+    }
+
+    @Override
+    public List<Long> resolve(Long categoryId) {
+        return Arrays.stream(categoryTreeCache.current().descendantIds(categoryId)).boxed().toList();
+    }
+}
@@ -0,0 +1,40 @@
+package org.portfolio.portfolio.application.coupon;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.application.exception.InvalidCouponException;
+import org.portfolio.portfolio.domain.coupon.CouponDefinition;
+import org.portfolio.portfolio.domain.usercoupon.UserCouponRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 경로의 쿠폰 사용 처리.
+ * 조회 후 검증/더티 체킹 대신 조건부 UPDATE 한 번으로 선점하므로, 같은 쿠폰으로 동시에 주문해도 한 건만 성공한다.
+ * 진행 중인 트랜잭션 안에서 호출하며, 주문이 롤백되면 선점도 함께 롤백된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponClaimService {
+
+    private final UserCouponRepository userCouponRepository;
+    private final CouponDefinitionCache couponDefinitionCache;
+
+    // 쿠폰을 선점하고 할인 계산에 쓸 쿠폰 정의를 캐시에서 돌려준다.
+    // 선점은 조건부 UPDATE 한 번이고, 쿠폰 ID 는 이어서 PK 로 한 번 더 읽는다 (MySQL 의 UPDATE 는 행을 돌려주지 않는다).
+    // 두 번째 조회는 같은 트랜잭션이 방금 잠근 행을 읽을 뿐이라 경합 판정에는 관여하지 않는다
+    public CouponDefinition claim(Long userCouponId, Long userId) {
+        if (userCouponRepository.claim(userCouponId, userId, LocalDateTime.now()) == 0) {
+            throw new InvalidCouponException("사용할 수 없는 쿠폰입니다. (없는 쿠폰, 다른 사용자 소유, 이미 사용됨, 유효 기간 아님)");
+        }
+        Long couponId = userCouponRepository.findCouponIdById(userCouponId)
+                .orElseThrow(() -> new InvalidCouponException("사용할 수 없는 쿠폰입니다."));
+        return couponDefinitionCache.get(couponId);
+    }
+
+    // 이미 검증을 끝낸 쿠폰을 선점하고 성공 여부를 돌려준다.
+    // 배치 경로처럼 실패 요청만 건너뛰고 트랜잭션을 이어가는 경우에 쓴다 (예외를 던지지 않으므로 트랜잭션에 롤백 표시가 남지 않는다)
+    public boolean claimValidated(Long userCouponId, Long userId) {
+        return userCouponRepository.claim(userCouponId, userId, LocalDateTime.now()) > 0;
+    }
+}
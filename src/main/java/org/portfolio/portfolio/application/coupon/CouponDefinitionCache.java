@@ -0,0 +1,131 @@
+package org.portfolio.portfolio.application.coupon;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.domain.coupon.Coupon;
+import org.portfolio.portfolio.domain.coupon.CouponDefinition;
+import org.portfolio.portfolio.domain.coupon.CouponRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 쿠폰 정의(유형/할인값)의 read-through 캐시.
+ * - 기동 시 최근 쿠폰을 미리 적재하고, 새 쿠폰은 커밋 직후 적재한다.
+ * - 쿠폰이 수정/삭제되면 커밋 직후 무효화한다 (CouponDefinitionListener).
+ * - 최대 개수를 넘으면 가장 오래 조회되지 않은 항목을 내보낸다(LRU). 적중/미적중 수는 coupon.definition.cache 지표로 노출한다.
+ */
+@Slf4j
+@Component
+public class CouponDefinitionCache {
+
+    private final CouponRepository couponRepository;
+    private final int maxEntries;
+    private final boolean warmUp;
+
+    // 접근 순서 LinkedHashMap. 조회도 순서를 바꾸므로 모든 접근을 definitions 로 동기화한다
+    private final Map<Long, CouponDefinition> definitions;
+    // 무효화 세대. DB 에서 읽는 도중 무효화가 일어나면 읽은 값을 캐시에 넣지 않는다
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CouponDefinitionCache(CouponRepository couponRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${timedeal.coupon.definition-cache.max-entries:10000}") int maxEntries,
+                                 @Value("${timedeal.coupon.definition-cache.warm-up:true}") boolean warmUp) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("쿠폰 캐시 크기는 1 이상이어야 합니다.");
+        this.couponRepository = couponRepository;
+        this.maxEntries = maxEntries;
+        this.warmUp = warmUp;
+        this.definitions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CouponDefinition> eldest) {
+                if (size() <= CouponDefinitionCache.this.maxEntries) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+
+        FunctionCounter.builder("coupon.definition.cache", hits, LongAdder::sum)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("coupon.definition.cache", misses, LongAdder::sum)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("coupon.definition.cache.evictions", evictions, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("coupon.definition.cache.size", this, CouponDefinitionCache::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!warmUp) return;
+        couponRepository.findAll(PageRequest.of(0, maxEntries, Sort.by(Sort.Direction.DESC, "id")))
+                .forEach(this::put);
+        log.info("쿠폰 정의 캐시 적재: {}건", size());
+    }
+
+    public CouponDefinition get(Long couponId) {
+        CouponDefinition cached;
+        synchronized (definitions) {
+            cached = definitions.get(couponId);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long observed = generation.get();
+        CouponDefinition loaded = couponRepository.findById(couponId)
+                .map(Coupon::toDefinition)
+                .orElseThrow(() -> new NotFoundException("쿠폰을 찾을 수 없습니다. id=" + couponId));
+        synchronized (definitions) {
+            // 세대 비교와 적재를 같은 락 안에서 해야 그 사이에 끼어든 무효화를 놓치지 않는다
+            if (generation.get() == observed) definitions.put(loaded.id(), loaded);
+        }
+        return loaded;
+    }
+
+    // 커밋된 쿠폰을 적재한다 (캠페인 생성 직후)
+    public void put(Coupon coupon) {
+        store(coupon.toDefinition());
+    }
+
+    public void invalidate(Long couponId) {
+        synchronized (definitions) {
+            generation.incrementAndGet();
+            definitions.remove(couponId);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (definitions) {
+            generation.incrementAndGet();
+            definitions.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (definitions) {
+            return definitions.size();
+        }
+    }
+
+    private void store(CouponDefinition definition) {
+        synchronized (definitions) {
+            definitions.put(definition.id(), definition);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.portfolio.portfolio.application.coupon;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.portfolio.portfolio.domain.coupon.Coupon;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Coupon 생성/변경을 쿠폰 정의 캐시에 반영하는 Hibernate 리스너 (HibernateEventListenerConfig 에서 등록한다)
+@Component
+@RequiredArgsConstructor
+public class CouponDefinitionListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final CouponDefinitionCache couponDefinitionCache;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof Coupon coupon)) return;
+        // 롤백된 쿠폰이 캐시에 남지 않도록 커밋된 뒤에 적재한다
+        afterCommit(() -> couponDefinitionCache.put(coupon));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Coupon coupon) invalidate(coupon.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Coupon coupon) invalidate(coupon.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void invalidate(Long couponId) {
+        // 지금 지우고, 커밋 전에 다른 스레드가 옛 값을 다시 넣었을 수 있으므로 트랜잭션이 끝난 뒤 한 번 더 지운다
+        couponDefinitionCache.invalidate(couponId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                couponDefinitionCache.invalidate(couponId);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package org.portfolio.portfolio.application.coupon;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.portfolio.portfolio.domain.coupon.Coupon;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// 유효 기간이 있는 쿠폰이 저장되면 커밋 뒤 만료 스윕을 예약하고, 기간이 바뀌면 발급분 반영을 요청하는 Hibernate 리스너
+// (HibernateEventListenerConfig 에서 등록한다)
+@Component
+@RequiredArgsConstructor
+public class CouponExpiryListener implements PostInsertEventListener, PostUpdateEventListener {
+
+    private final CouponExpirySweeper couponExpirySweeper;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof Coupon coupon)) return;
+        Long couponId = coupon.getId();
+        LocalDateTime validUntil = coupon.getValidUntil();
+        if (validUntil == null) return;
+        afterCommit(() -> couponExpirySweeper.schedule(couponId, validUntil));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Coupon coupon)) return;
+        // 발급 수량 등 기간과 무관한 갱신은 무시한다. 이전 상태를 모르면 바뀐 것으로 본다
+        Object[] oldState = event.getOldState();
+        if (oldState != null) {
+            String[] names = event.getPersister().getPropertyNames();
+            if (Objects.equals(oldState[indexOf(names, "validFrom")], coupon.getValidFrom())
+                    && Objects.equals(oldState[indexOf(names, "validUntil")], coupon.getValidUntil())) return;
+        }
+        Long couponId = coupon.getId();
+        afterCommit(() -> couponExpirySweeper.windowChanged(couponId));
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static int indexOf(String[] names, String property) {
+        for (int i = 0; i < names.length; i++) {
+            if (property.equals(names[i])) return i;
+        }
+        throw new IllegalStateException("Coupon 에 " + property + " 속성이 없습니다.");
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
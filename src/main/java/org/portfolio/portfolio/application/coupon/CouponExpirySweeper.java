@@ -0,0 +1,180 @@
+package org.portfolio.portfolio.application.coupon;
+
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.domain.coupon.Coupon;
+import org.portfolio.portfolio.domain.coupon.CouponRepository;
+import org.portfolio.portfolio.domain.usercoupon.UserCoupon;
+import org.portfolio.portfolio.domain.usercoupon.UserCouponRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 쿠폰 유효 기간이 끝나면 발급된 user_coupon 을 일괄 만료 표시한다.
+ * - 쿠폰별 종료 시각을 타이밍 휠에 걸어 두고, 틱마다 마감된 쿠폰만 스윕한다 (전체 테이블을 주기적으로 훑지 않는다).
+ * - 스윕은 LIMIT 을 건 UPDATE 를 짧은 트랜잭션으로 나눠 반복하므로 user_coupon 의 넓은 범위를 오래 잠그지 않는다.
+ * - 쿠폰 유효 기간이 바뀌면 아직 쓰지 않은 발급분의 기간도 같은 방식으로 나눠 바꾸고, 예약을 새 종료 시각으로 옮긴다.
+ *   이미 만료 표시된 발급분은 기간을 늘려도 되살리지 않는다.
+ * 주문 경로는 이 표시를 기다리지 않는다. 쿠폰 선점 UPDATE 가 expires_at 을 직접 비교한다.
+ */
+@Slf4j
+@Component
+public class CouponExpirySweeper {
+
+    private final CouponRepository couponRepository;
+    private final UserCouponRepository userCouponRepository;
+    private final CouponIssuanceEngine couponIssuanceEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long retryDelayMillis;
+    private final int catchUpDays;
+
+    private final HashedTimingWheel<Long> wheel;
+    // 쿠폰별 현재 예약. 다시 예약하면 이전 예약은 취소한다
+    private final Map<Long, HashedTimingWheel.Timeout<Long>> scheduled = new ConcurrentHashMap<>();
+    // 유효 기간이 바뀐 쿠폰 (다음 틱에서 발급분에 반영한다)
+    private final Queue<Long> windowChanges = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock tickLock = new ReentrantLock();
+
+    public CouponExpirySweeper(CouponRepository couponRepository,
+                               UserCouponRepository userCouponRepository,
+                               CouponIssuanceEngine couponIssuanceEngine,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${timedeal.coupon.expiry.tick-ms:1000}") long tickMillis,
+                               @Value("${timedeal.coupon.expiry.wheel-size:512}") int wheelSize,
+                               @Value("${timedeal.coupon.expiry.batch-size:500}") int batchSize,
+                               @Value("${timedeal.coupon.expiry.retry-delay-ms:30000}") long retryDelayMillis,
+                               @Value("${timedeal.coupon.expiry.catch-up-days:7}") int catchUpDays) {
+        this.couponRepository = couponRepository;
+        this.userCouponRepository = userCouponRepository;
+        this.couponIssuanceEngine = couponIssuanceEngine;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retryDelayMillis = retryDelayMillis;
+        this.catchUpDays = catchUpDays;
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    // 기동 시 아직 끝나지 않았거나 최근에 끝난(재기동 동안 스윕을 놓쳤을 수 있는) 쿠폰을 휠에 건다
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        List<Coupon> coupons = couponRepository.findByValidUntilAfter(LocalDateTime.now().minusDays(catchUpDays));
+        coupons.forEach(c -> schedule(c.getId(), c.getValidUntil()));
+        log.info("쿠폰 만료 스윕 예약: {}건", coupons.size());
+    }
+
+    public void schedule(Long couponId, LocalDateTime validUntil) {
+        if (couponId == null) return;
+        if (validUntil == null) {
+            cancel(couponId);
+            return;
+        }
+        arm(couponId, validUntil.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    // 커밋된 유효 기간 변경을 알린다. 발급분 갱신은 DB 트랜잭션 밖의 틱 스레드에서 한다
+    public void windowChanged(Long couponId) {
+        if (couponId != null) windowChanges.add(couponId);
+    }
+
+    @Scheduled(fixedDelayString = "${timedeal.coupon.expiry.tick-ms:1000}")
+    public void tick() {
+        if (!tickLock.tryLock()) return;
+        try {
+            applyWindowChanges();
+            for (Long couponId : wheel.advance(System.currentTimeMillis())) {
+                scheduled.computeIfPresent(couponId, (id, timeout) -> timeout.isExpired() ? null : timeout);
+                sweep(couponId);
+            }
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    // 유효 기간이 바뀐 쿠폰마다 발급 엔진의 기간을 바꾸고, 미사용 발급분을 batchSize 건씩 새 기간으로 옮긴 뒤 다시 예약한다.
+    // 반환값은 옮긴 발급분 수
+    public int applyWindowChanges() {
+        Set<Long> couponIds = new LinkedHashSet<>();
+        Long next;
+        while ((next = windowChanges.poll()) != null) {
+            couponIds.add(next);
+        }
+        int total = 0;
+        for (Long couponId : couponIds) {
+            try {
+                total += applyWindowChange(couponId);
+            } catch (RuntimeException e) {
+                log.warn("쿠폰 유효 기간 반영 실패, 다음 틱에 재시도합니다. couponId={}", couponId, e);
+                windowChanges.add(couponId);
+            }
+        }
+        return total;
+    }
+
+    private int applyWindowChange(Long couponId) {
+        Coupon coupon = couponRepository.findById(couponId).orElse(null);
+        if (coupon == null) {
+            cancel(couponId);
+            return 0;
+        }
+        LocalDateTime validFrom = coupon.getValidFrom();
+        LocalDateTime validUntil = coupon.getValidUntil();
+        couponIssuanceEngine.updateWindow(couponId, validFrom, validUntil);
+        LocalDateTime rowFrom = validFrom != null ? validFrom : UserCoupon.NOT_BEFORE_ANY;
+        LocalDateTime rowUntil = validUntil != null ? validUntil : UserCoupon.NO_EXPIRY;
+        int total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status ->
+                    userCouponRepository.rescheduleBatch(couponId, rowFrom, rowUntil, batchSize));
+            total += updated;
+        } while (updated == batchSize);
+        schedule(couponId, validUntil);
+        log.info("쿠폰 유효 기간 변경 반영: couponId={}, rescheduled={}", couponId, total);
+        return total;
+    }
+
+    private void arm(Long couponId, long deadlineMillis) {
+        HashedTimingWheel.Timeout<Long> previous = scheduled.put(couponId, wheel.schedule(couponId, deadlineMillis));
+        if (previous != null) previous.cancel();
+    }
+
+    private void cancel(Long couponId) {
+        HashedTimingWheel.Timeout<Long> previous = scheduled.remove(couponId);
+        if (previous != null) previous.cancel();
+    }
+
+    // 한 쿠폰의 만료 대상을 batchSize 건씩 나눠 표시한다. 반환값은 표시한 건수
+    public int sweep(Long couponId) {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        try {
+            int updated;
+            do {
+                updated = transactionTemplate.execute(status -> userCouponRepository.expireBatch(couponId, now, batchSize));
+                total += updated;
+            } while (updated == batchSize);
+        } catch (RuntimeException e) {
+            // 남은 건은 잠시 뒤 다시 스윕한다 (이미 표시한 배치는 커밋됐다)
+            log.warn("쿠폰 만료 스윕 실패, 재시도 예약: couponId={}, expired={}", couponId, total, e);
+            arm(couponId, System.currentTimeMillis() + retryDelayMillis);
+            return total;
+        }
+        if (total > 0) log.info("쿠폰 만료 처리: couponId={}, expired={}", couponId, total);
+        return total;
+    }
+}
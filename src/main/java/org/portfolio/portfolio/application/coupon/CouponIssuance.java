@@ -0,0 +1,5 @@
+package org.portfolio.portfolio.application.coupon;
+
+// 메모리에서 발급이 확정된 결과 (user_coupon 행은 write-behind 로 곧 저장된다)
+public record CouponIssuance(Long couponId, Long userId, int issuedCount, Integer issueLimit) {
+}
@@ -0,0 +1,244 @@
+package org.portfolio.portfolio.application.coupon;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.application.exception.CouponIssueRejectedException;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.domain.coupon.Coupon;
+import org.portfolio.portfolio.domain.coupon.CouponRepository;
+import org.portfolio.portfolio.domain.user.UserRepository;
+import org.portfolio.portfolio.domain.usercoupon.UserCoupon;
+import org.portfolio.portfolio.domain.usercoupon.UserCouponRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 선착순 쿠폰 발급 엔진.
+ * - 쿠폰별 발급 수량은 메모리 카운터(CAS)로 한도를 검증하므로 coupon 행 락을 잡지 않는다.
+ * - 사용자별 중복 발급은 쿠폰별 사용자 집합으로 막는다.
+ * - user_coupon 저장과 coupon.issued_count 증가는 모아서 한 트랜잭션으로 반영한다(write-behind).
+ * 카운터는 프로세스 메모리에 있으므로 한 쿠폰의 발급은 한 노드에서 처리해야 한다.
+ * 종료 시에는 새 발급을 막고, 이미 응답한 발급 건을 모두 저장한 뒤 내려간다.
+ */
+@Slf4j
+@Component
+public class CouponIssuanceEngine {
+
+    private final CouponRepository couponRepository;
+    private final UserCouponRepository userCouponRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushBatchSize;
+
+    private final Map<Long, IssueCounter> counters = new ConcurrentHashMap<>();
+    private final Queue<CouponIssuance> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean accepting = true;
+    // 발급 검증 중인 요청 수 (종료 시 이 요청들이 큐에 넣을 때까지 기다린다)
+    private final AtomicInteger issuing = new AtomicInteger();
+
+    public CouponIssuanceEngine(CouponRepository couponRepository,
+                                UserCouponRepository userCouponRepository,
+                                UserRepository userRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${timedeal.coupon.issue.flush-batch-size:1000}") int flushBatchSize) {
+        this.couponRepository = couponRepository;
+        this.userCouponRepository = userCouponRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    public CouponIssuance issue(Long couponId, Long userId) {
+        issuing.incrementAndGet();
+        try {
+            if (!accepting) throw new CouponIssueRejectedException("서버가 종료 중입니다. 잠시 후 다시 시도해 주세요.");
+            return issue(counterOf(couponId), couponId, userId);
+        } finally {
+            issuing.decrementAndGet();
+        }
+    }
+
+    private CouponIssuance issue(IssueCounter counter, Long couponId, Long userId) {
+        if (counter.validUntil != null && !LocalDateTime.now().isBefore(counter.validUntil)) {
+            throw new CouponIssueRejectedException("유효 기간이 지난 쿠폰입니다.");
+        }
+        if (!counter.users.add(userId)) {
+            throw new CouponIssueRejectedException("이미 발급받은 쿠폰입니다.");
+        }
+        int issued = counter.tryIncrement();
+        if (issued < 0) {
+            counter.users.remove(userId);
+            throw new CouponIssueRejectedException("쿠폰이 모두 소진되었습니다.");
+        }
+        CouponIssuance issuance = new CouponIssuance(couponId, userId, issued, counter.limit);
+        pendingWrites.add(issuance);
+        return issuance;
+    }
+
+    // 쿠폰 유효 기간이 바뀌면 적재된 카운터의 기간을 바꾼다.
+    // flushLock 을 잡아 진행 중인 저장이 끝난 뒤에 바꾸므로, 이후 저장되는 발급분은 모두 새 기간을 쓴다
+    public void updateWindow(Long couponId, LocalDateTime validFrom, LocalDateTime validUntil) {
+        flushLock.lock();
+        try {
+            IssueCounter counter = counters.get(couponId);
+            if (counter == null) return;
+            counter.validFrom = validFrom;
+            counter.validUntil = validUntil;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int remaining(Long couponId) {
+        IssueCounter counter = counters.get(couponId);
+        if (counter == null || counter.limit == null) return -1;
+        return Math.max(0, counter.limit - counter.issued.get());
+    }
+
+    // 모인 발급 건을 쿠폰별로 묶어 한 트랜잭션에서 저장한다
+    @Scheduled(fixedDelayString = "${timedeal.coupon.issue.flush-interval-ms:100}")
+    public void flush() {
+        if (!flushLock.tryLock()) return;
+        try {
+            List<CouponIssuance> batch;
+            while (!(batch = drain()).isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // 새 발급을 막고, 진행 중인 발급이 큐에 들어오기를 기다린 뒤 남은 발급 건을 모두 저장한다
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (issuing.get() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        flushLock.lock();
+        try {
+            List<CouponIssuance> batch;
+            while (!(batch = drain()).isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        if (!pendingWrites.isEmpty()) {
+            log.error("종료 시 저장하지 못한 쿠폰 발급 건이 남았습니다. size={}", pendingWrites.size());
+        }
+    }
+
+    private List<CouponIssuance> drain() {
+        List<CouponIssuance> batch = new ArrayList<>(Math.min(flushBatchSize, 64));
+        CouponIssuance next;
+        while (batch.size() < flushBatchSize && (next = pendingWrites.poll()) != null) {
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void write(List<CouponIssuance> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(batch));
+        } catch (RuntimeException e) {
+            // 한 건(없는 사용자 등) 때문에 전체가 실패했을 수 있으므로 건별로 다시 저장하고, 실패한 건은 발급을 취소한다
+            log.warn("쿠폰 발급 일괄 저장 실패, 건별로 재시도합니다. size={}", batch.size(), e);
+            for (CouponIssuance issuance : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(issuance)));
+                } catch (RuntimeException single) {
+                    log.warn("쿠폰 발급 저장 실패로 발급을 취소합니다. couponId={}, userId={}",
+                            issuance.couponId(), issuance.userId(), single);
+                    rollback(issuance);
+                }
+            }
+        }
+    }
+
+    private void persist(List<CouponIssuance> batch) {
+        Map<Long, Integer> perCoupon = new LinkedHashMap<>();
+        List<UserCoupon> rows = new ArrayList<>(batch.size());
+        for (CouponIssuance issuance : batch) {
+            // 쿠폰 프록시를 초기화하지 않도록 유효 기간은 카운터에 적재해 둔 값을 쓴다
+            IssueCounter counter = counters.get(issuance.couponId());
+            rows.add(UserCoupon.issueWithoutLoading(
+                    userRepository.getReferenceById(issuance.userId()),
+                    couponRepository.getReferenceById(issuance.couponId()),
+                    counter != null ? counter.validFrom : null,
+                    counter != null ? counter.validUntil : null));
+            perCoupon.merge(issuance.couponId(), 1, Integer::sum);
+        }
+        userCouponRepository.saveAll(rows);
+        perCoupon.forEach(couponRepository::increaseIssuedCount);
+    }
+
+    private void rollback(CouponIssuance issuance) {
+        IssueCounter counter = counters.get(issuance.couponId());
+        if (counter == null) return;
+        counter.issued.decrementAndGet();
+        counter.users.remove(issuance.userId());
+    }
+
+    // 처음 발급 요청이 올 때 DB 의 발급 현황으로 카운터를 적재한다.
+    // DB 조회는 맵 밖에서 하고 putIfAbsent 로 넣어, 적재 중에 다른 쿠폰의 발급이 같은 맵 버킷에서 막히지 않게 한다
+    private IssueCounter counterOf(Long couponId) {
+        IssueCounter counter = counters.get(couponId);
+        if (counter != null) return counter;
+        IssueCounter loaded = load(couponId);
+        IssueCounter raced = counters.putIfAbsent(couponId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private IssueCounter load(Long couponId) {
+        Coupon coupon = couponRepository.findById(couponId)
+                .orElseThrow(() -> new NotFoundException("쿠폰을 찾을 수 없습니다. id=" + couponId));
+        IssueCounter counter = new IssueCounter(coupon.getIssueLimit(), coupon.getIssuedCount(),
+                coupon.getValidFrom(), coupon.getValidUntil());
+        counter.users.addAll(userCouponRepository.findUserIdsByCouponId(couponId));
+        return counter;
+    }
+
+    private static final class IssueCounter {
+        private final Integer limit;
+        private final AtomicInteger issued;
+        private final Set<Long> users = ConcurrentHashMap.newKeySet();
+        private volatile LocalDateTime validFrom;
+        private volatile LocalDateTime validUntil;
+
+        private IssueCounter(Integer limit, int issued, LocalDateTime validFrom, LocalDateTime validUntil) {
+            this.limit = limit;
+            this.issued = new AtomicInteger(issued);
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+        }
+
+        // 한도 안이면 증가시킨 발급 수량, 한도를 넘으면 -1
+        private int tryIncrement() {
+            if (limit == null) return issued.incrementAndGet();
+            for (;;) {
+                int current = issued.get();
+                if (current >= limit) return -1;
+                if (issued.compareAndSet(current, current + 1)) return current + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.portfolio.portfolio.application.coupon;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 해시드 타이밍 휠. 마감 시각을 틱 단위 슬롯(2의 거듭제곱 개)에 나눠 담고, 휠 한 바퀴보다 먼 작업은 남은 바퀴 수로 센다.
+ * 등록은 어느 스레드에서나 할 수 있고(큐에 쌓였다가 다음 advance 에서 슬롯으로 옮겨진다), advance 는 한 스레드에서만 부른다.
+ * 등록/만료 모두 슬롯 하나만 보므로 작업 수와 관계없이 틱당 비용이 일정하다.
+ * 등록하면 Timeout 을 돌려주며, 취소된 작업은 슬롯을 지날 때 버려진다.
+ */
+final class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<List<Timeout<T>>> slots;
+    private final long startMillis;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+
+    // 다음에 처리할 틱 번호 (advance 를 부르는 스레드만 접근한다)
+    private long tick;
+
+    HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("틱 간격은 1ms 이상이어야 합니다.");
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("휠 크기는 2의 거듭제곱이어야 합니다.");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new LinkedList<>());
+        }
+        this.startMillis = startMillis;
+    }
+
+    Timeout<T> schedule(T task, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(task, deadlineMillis);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    // nowMillis 까지 지난 틱을 모두 처리하고 마감된 작업을 돌려준다
+    List<T> advance(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        transferPending(due);
+        long target = (nowMillis - startMillis) / tickMillis;
+        while (tick <= target) {
+            Iterator<Timeout<T>> it = slots.get((int) (tick & mask)).iterator();
+            while (it.hasNext()) {
+                Timeout<T> timeout = it.next();
+                if (timeout.isCancelled()) {
+                    it.remove();
+                } else if (timeout.rounds <= 0) {
+                    it.remove();
+                    if (timeout.expire()) due.add(timeout.task);
+                } else {
+                    timeout.rounds--;
+                }
+            }
+            tick++;
+        }
+        return due;
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private void transferPending(List<T> due) {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) continue;
+            long offset = timeout.deadlineMillis - startMillis;
+            // 마감 전에 꺼내지 않도록 올림한 틱에 둔다
+            long deadlineTick = offset <= 0 ? 0 : (offset + tickMillis - 1) / tickMillis;
+            if (deadlineTick < tick) {
+                if (timeout.expire()) due.add(timeout.task);
+                continue;
+            }
+            timeout.rounds = (deadlineTick - tick) / slots.size();
+            slots.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    // 등록된 작업 하나. cancel 과 만료 중 먼저 일어난 쪽만 성공한다
+    static final class Timeout<T> {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final T task;
+        private final long deadlineMillis;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        // 남은 바퀴 수 (advance 를 부르는 스레드만 접근한다)
+        private long rounds;
+
+        private Timeout(T task, long deadlineMillis) {
+            this.task = task;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        // 이미 만료됐거나 취소됐으면 false
+        boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+
+        boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private boolean expire() {
+            return state.compareAndSet(PENDING, EXPIRED);
+        }
+    }
+}
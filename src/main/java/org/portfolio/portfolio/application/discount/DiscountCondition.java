@@ -0,0 +1,8 @@
+package org.portfolio.portfolio.application.discount;
+
+public enum DiscountCondition {
+    ALWAYS,
+    FIRST_PURCHASE,  // 취소되지 않은 주문이 없는 사용자
+    CATEGORY,        // 상품 카테고리가 conditionArg 와 같을 때
+    HAS_COUPON       // 쿠폰을 적용한 주문
+}
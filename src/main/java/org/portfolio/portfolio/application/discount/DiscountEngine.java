@@ -0,0 +1,45 @@
+package org.portfolio.portfolio.application.discount;
+
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.domain.coupon.CouponDefinition;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 누적 할인 엔진. 활성 규칙 묶음을 DiscountPlan 으로 컴파일해 두고 주문마다 그대로 평가한다.
+ * install 로 규칙 묶음을 통째로 교체하며(PUT /api/discount-rules), 진행 중인 평가는 교체 전 계획으로 끝난다.
+ * 기본 규칙은 쿠폰 하나로, 쿠폰 정의의 할인 금액을 원금 안으로 자른 값과 같다.
+ */
+@Slf4j
+@Component
+public class DiscountEngine {
+
+    public static final List<DiscountRule> DEFAULT_RULES = List.of(DiscountRule.coupon(0));
+
+    private final AtomicReference<DiscountPlan> plan = new AtomicReference<>(DiscountPlan.compile(DEFAULT_RULES));
+
+    public DiscountPlan install(List<DiscountRule> rules) {
+        DiscountPlan compiled = DiscountPlan.compile(rules);
+        plan.set(compiled);
+        log.info("할인 규칙 교체: {}개", compiled.size());
+        return compiled;
+    }
+
+    public DiscountPlan currentPlan() {
+        return plan.get();
+    }
+
+    public boolean requiresFirstPurchase() {
+        return plan.get().requiresFirstPurchase();
+    }
+
+    public long calculate(long originalTotal, Long categoryId, boolean firstPurchase, CouponDefinition coupon) {
+        int couponType = coupon != null ? DiscountPlan.couponTypeCode(coupon.type()) : DiscountPlan.NO_COUPON;
+        long couponValue = coupon != null ? coupon.discountValue() : 0L;
+        return plan.get().evaluate(originalTotal,
+                categoryId != null ? categoryId : DiscountPlan.NO_CATEGORY,
+                firstPurchase, couponType, couponValue);
+    }
+}
@@ -0,0 +1,144 @@
+package org.portfolio.portfolio.application.discount;
+
+import org.portfolio.portfolio.domain.common.CouponType;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 할인 규칙 묶음을 우선순위 순서의 평탄한 배열로 컴파일한 불변 실행 계획.
+ * 평가는 primitive long 연산만 하고 객체를 만들지 않는다.
+ */
+public final class DiscountPlan {
+
+    private static final byte OP_FIXED = 0;
+    private static final byte OP_RATE = 1;
+    private static final byte OP_COUPON = 2;
+    private static final byte OP_CAP = 3;
+
+    private static final byte IF_ALWAYS = 0;
+    private static final byte IF_FIRST_PURCHASE = 1;
+    private static final byte IF_CATEGORY = 2;
+    private static final byte IF_HAS_COUPON = 3;
+
+    // 쿠폰 유형 코드 (평가 인자로 enum 대신 넘긴다)
+    public static final int NO_COUPON = 0;
+    public static final int COUPON_FIXED = 1;
+    public static final int COUPON_RATE = 2;
+
+    public static final long NO_CATEGORY = -1L;
+
+    private final List<DiscountRule> rules;
+    private final int size;
+    private final byte[] ops;
+    private final long[] values;
+    private final byte[] conditions;
+    private final long[] conditionArgs;
+    private final long[] exclusiveMasks;
+    private final boolean requiresFirstPurchase;
+
+    private DiscountPlan(List<DiscountRule> sorted) {
+        this.rules = sorted;
+        this.size = sorted.size();
+        this.ops = new byte[size];
+        this.values = new long[size];
+        this.conditions = new byte[size];
+        this.conditionArgs = new long[size];
+        this.exclusiveMasks = new long[size];
+        boolean firstPurchase = false;
+        for (int i = 0; i < size; i++) {
+            DiscountRule rule = sorted.get(i);
+            ops[i] = switch (rule.type()) {
+                case FIXED -> OP_FIXED;
+                case RATE -> OP_RATE;
+                case COUPON -> OP_COUPON;
+                case CAP -> OP_CAP;
+            };
+            conditions[i] = switch (rule.condition()) {
+                case ALWAYS -> IF_ALWAYS;
+                case FIRST_PURCHASE -> IF_FIRST_PURCHASE;
+                case CATEGORY -> IF_CATEGORY;
+                case HAS_COUPON -> IF_HAS_COUPON;
+            };
+            values[i] = rule.value();
+            conditionArgs[i] = rule.conditionArg();
+            exclusiveMasks[i] = rule.exclusiveGroup() == 0 ? 0L : 1L << rule.exclusiveGroup();
+            firstPurchase |= rule.condition() == DiscountCondition.FIRST_PURCHASE;
+        }
+        this.requiresFirstPurchase = firstPurchase;
+    }
+
+    public static DiscountPlan compile(List<DiscountRule> rules) {
+        return new DiscountPlan(rules.stream()
+                .sorted(Comparator.comparingInt(DiscountRule::priority))
+                .toList());
+    }
+
+    // 첫 구매 여부를 조회해야 하는 규칙이 있는지 (없으면 호출 측에서 조회를 생략한다)
+    public boolean requiresFirstPurchase() {
+        return requiresFirstPurchase;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 적용 순서대로 정렬된 원본 규칙 (조회용)
+    public List<DiscountRule> rules() {
+        return rules;
+    }
+
+    /**
+     * 총 할인 금액을 계산한다. 결과는 항상 0 ~ originalTotal 사이다.
+     *
+     * @param couponType  NO_COUPON / COUPON_FIXED / COUPON_RATE
+     * @param couponValue 정액이면 금액, 정률이면 퍼센트
+     */
+    public long evaluate(long originalTotal, long categoryId, boolean firstPurchase, int couponType, long couponValue) {
+        if (originalTotal <= 0L) return 0L;
+        long discount = 0L;
+        long usedGroups = 0L;
+        for (int i = 0; i < size; i++) {
+            if (!matches(conditions[i], conditionArgs[i], categoryId, firstPurchase, couponType)) continue;
+            long group = exclusiveMasks[i];
+            if ((usedGroups & group) != 0L) continue;
+
+            long remaining = originalTotal - discount;
+            long amount;
+            switch (ops[i]) {
+                case OP_FIXED -> amount = values[i];
+                case OP_RATE -> amount = rate(remaining, values[i]);
+                case OP_COUPON -> amount = couponType == COUPON_FIXED ? couponValue
+                        : couponType == COUPON_RATE ? rate(remaining, couponValue) : 0L;
+                default -> {
+                    // CAP: 누적 할인을 자르고 다음 규칙으로
+                    if (discount > values[i]) discount = values[i];
+                    continue;
+                }
+            }
+            if (amount <= 0L) continue;
+            discount += Math.min(amount, remaining);
+            usedGroups |= group;
+        }
+        return discount;
+    }
+
+    private static boolean matches(byte condition, long arg, long categoryId, boolean firstPurchase, int couponType) {
+        return switch (condition) {
+            case IF_FIRST_PURCHASE -> firstPurchase;
+            case IF_CATEGORY -> categoryId == arg;
+            case IF_HAS_COUPON -> couponType != NO_COUPON;
+            default -> true;
+        };
+    }
+
+    // 정률 할인. 기존 쿠폰 계산(CouponDefinition.calculateDiscount)과 결과가 같도록 같은 식을 쓴다
+    private static long rate(long base, long percent) {
+        return Math.round(base * (percent / 100.0));
+    }
+
+    public static int couponTypeCode(CouponType type) {
+        if (type == null) return NO_COUPON;
+        return type == CouponType.FIXED ? COUPON_FIXED : COUPON_RATE;
+    }
+}
@@ -0,0 +1,46 @@
+package org.portfolio.portfolio.application.discount;
+
+/**
+ * 할인 규칙 정의. DiscountPlan 으로 컴파일된 뒤에만 평가에 쓰인다.
+ * - priority 가 낮은 규칙부터 적용한다.
+ * - exclusiveGroup(1~63)이 같은 규칙은 먼저 적용된 하나만 쓴다. 0이면 배타 그룹 없음
+ */
+public record DiscountRule(String name,
+                           DiscountRuleType type,
+                           long value,
+                           DiscountCondition condition,
+                           long conditionArg,
+                           int priority,
+                           int exclusiveGroup) {
+
+    public DiscountRule {
+        if (type == null || condition == null) throw new IllegalArgumentException("할인 규칙 유형/조건은 필수입니다.");
+        if (type != DiscountRuleType.COUPON && value < 0) throw new IllegalArgumentException("할인 값은 0 이상이어야 합니다.");
+        if (type == DiscountRuleType.RATE && value > 100) throw new IllegalArgumentException("정률 할인 퍼센트는 0~100 사이여야 합니다.");
+        if (exclusiveGroup < 0 || exclusiveGroup > 63) throw new IllegalArgumentException("배타 그룹은 0~63 사이여야 합니다.");
+    }
+
+    public static DiscountRule coupon(int priority) {
+        return new DiscountRule("coupon", DiscountRuleType.COUPON, 0L, DiscountCondition.HAS_COUPON, 0L, priority, 0);
+    }
+
+    public static DiscountRule firstPurchaseRate(int percent, int priority) {
+        return new DiscountRule("first-purchase", DiscountRuleType.RATE, percent, DiscountCondition.FIRST_PURCHASE, 0L, priority, 0);
+    }
+
+    public static DiscountRule categoryFixed(long categoryId, long amount, int priority) {
+        return new DiscountRule("category-" + categoryId, DiscountRuleType.FIXED, amount, DiscountCondition.CATEGORY, categoryId, priority, 0);
+    }
+
+    public static DiscountRule categoryRate(long categoryId, int percent, int priority) {
+        return new DiscountRule("category-" + categoryId, DiscountRuleType.RATE, percent, DiscountCondition.CATEGORY, categoryId, priority, 0);
+    }
+
+    public static DiscountRule cap(long maxDiscount) {
+        return new DiscountRule("cap", DiscountRuleType.CAP, maxDiscount, DiscountCondition.ALWAYS, 0L, Integer.MAX_VALUE, 0);
+    }
+
+    public DiscountRule exclusiveIn(int group) {
+        return new DiscountRule(name, type, value, condition, conditionArg, priority, group);
+    }
+}
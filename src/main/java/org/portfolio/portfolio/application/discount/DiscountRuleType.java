@@ -0,0 +1,8 @@
+package org.portfolio.portfolio.application.discount;
+
+public enum DiscountRuleType {
+    FIXED,   // 정액 할인 (value = 금액)
+    RATE,    // 정률 할인 (value = 퍼센트, 앞선 할인을 뺀 금액 기준)
+    COUPON,  // 주문에 적용한 쿠폰의 정의대로 할인
+    CAP      // 지금까지 누적된 할인을 value 이하로 자른다
+}
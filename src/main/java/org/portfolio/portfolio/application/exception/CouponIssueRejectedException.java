@@ -0,0 +1,6 @@
+package org.portfolio.portfolio.application.exception;
+
+// 선착순 쿠폰 발급 거절 (한도 소진 또는 이미 발급받은 사용자)
+public class CouponIssueRejectedException extends RuntimeException {
+    public CouponIssueRejectedException(String message) { super(message); }
+}
@@ -0,0 +1,6 @@
+package org.portfolio.portfolio.application.exception;
+
+// 같은 멱등 키의 첫 요청이 제한 시간 안에 끝나지 않은 경우
+public class DuplicateRequestException extends RuntimeException {
+    public DuplicateRequestException(String message) { super(message); }
+}
@@ -2,4 +2,8 @@ package org.portfolio.portfolio.application.exception;
 
 public class InsufficientStockException extends RuntimeException {
     public InsufficientStockException(String message) { super(message); }
+
+    protected InsufficientStockException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
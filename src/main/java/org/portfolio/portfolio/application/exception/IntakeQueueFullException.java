@@ -0,0 +1,6 @@
+package org.portfolio.portfolio.application.exception;
+
+// 비동기 주문 접수 버퍼가 가득 찬 경우 (클라이언트는 잠시 후 다시 시도한다)
+public class IntakeQueueFullException extends RuntimeException {
+    public IntakeQueueFullException(String message) { super(message); }
+}
@@ -0,0 +1,6 @@
+package org.portfolio.portfolio.application.exception;
+
+// 대기열 입장이 허용되지 않은 토큰(또는 토큰 없음)으로 주문한 경우
+public class NotAdmittedException extends RuntimeException {
+    public NotAdmittedException(String message) { super(message); }
+}
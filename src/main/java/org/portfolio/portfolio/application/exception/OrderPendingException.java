@@ -0,0 +1,16 @@
+package org.portfolio.portfolio.application.exception;
+
+// 주문 결과를 제한 시간 안에 받지 못한 경우. 주문은 계속 처리될 수 있으므로 실패가 아니라 티켓으로 결과를 확인하게 한다
+public class OrderPendingException extends RuntimeException {
+
+    private final String ticketId;
+
+    public OrderPendingException(String message, String ticketId) {
+        super(message);
+        this.ticketId = ticketId;
+    }
+
+    public String getTicketId() {
+        return ticketId;
+    }
+}
@@ -0,0 +1,12 @@
+package org.portfolio.portfolio.application.exception;
+
+// 품절 폭주 구간에서 매 요청마다 스택 트레이스를 만들지 않도록 공유하는 stackless 예외
+public class SoldOutException extends InsufficientStockException {
+
+    public static final String MESSAGE = "품절된 상품입니다.";
+    public static final SoldOutException INSTANCE = new SoldOutException();
+
+    private SoldOutException() {
+        super(MESSAGE, false);
+    }
+}
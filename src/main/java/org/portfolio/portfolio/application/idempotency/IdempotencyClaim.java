@@ -0,0 +1,7 @@
+package org.portfolio.portfolio.application.idempotency;
+
+import java.time.LocalDateTime;
+
+// 주문과 같은 트랜잭션에 기록할 멱등 키 (주문이 롤백되면 기록도 함께 사라진다)
+public record IdempotencyClaim(Long userId, String key, String fingerprint, LocalDateTime expiresAt) {
+}
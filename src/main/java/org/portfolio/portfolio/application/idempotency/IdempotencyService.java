@@ -0,0 +1,196 @@
+package org.portfolio.portfolio.application.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.application.exception.DuplicateRequestException;
+import org.portfolio.portfolio.application.order.OrderReceipt;
+import org.portfolio.portfolio.domain.common.OrderStatus;
+import org.portfolio.portfolio.domain.idempotency.IdempotencyRecord;
+import org.portfolio.portfolio.domain.idempotency.IdempotencyRecordRepository;
+import org.portfolio.portfolio.domain.order.Order;
+import org.portfolio.portfolio.domain.order.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 주문 생성 요청의 멱등 키 처리.
+ * - 처리 중인 같은 키의 요청은 새로 실행하지 않고 첫 요청의 결과를 기다린다.
+ * - 키 기록(idempotency_record)은 주문을 만드는 예약 트랜잭션 안에서 함께 쓰고, 주문이 취소되면 취소 트랜잭션에서 지운다.
+ *   그래서 기록이 있으면 살아 있는 주문이 있고, 롤백/취소된 주문의 키는 다시 쓸 수 있다.
+ * - 결과는 메모리에도 남기되(최대 건수는 오래 쓰이지 않은 것부터, TTL), 재요청에는 주문의 현재 상태로 응답한다.
+ */
+@Slf4j
+@Component
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final OrderRepository orderRepository;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final long waitTimeoutMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              OrderRepository orderRepository,
+                              @Value("${timedeal.idempotency.ttl-ms:86400000}") long ttlMs,
+                              @Value("${timedeal.idempotency.max-entries:100000}") int maxEntries,
+                              @Value("${timedeal.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.orderRepository = orderRepository;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    /**
+     * order 는 넘겨받은 claim 을 주문 예약 트랜잭션까지 전달해 record 로 기록해야 한다 (키가 없으면 claim 은 null).
+     */
+    public OrderReceipt execute(Long userId, String key, String fingerprint, Function<IdempotencyClaim, OrderReceipt> order) {
+        if (key == null || key.isBlank()) return order.apply(null);
+        if (key.length() > 100) throw new IllegalArgumentException("Idempotency-Key 는 100자 이하여야 합니다.");
+
+        String cacheKey = userId + ":" + key;
+        Entry mine = new Entry(fingerprint);
+        Entry existing = entries.putIfAbsent(cacheKey, mine);
+        if (existing != null) {
+            if (existing.isExpired()) {
+                entries.remove(cacheKey, existing);
+                return execute(userId, key, fingerprint, order);
+            }
+            ensureSameRequest(existing.fingerprint, fingerprint);
+            existing.lastAccessMillis = System.currentTimeMillis();
+            Optional<OrderReceipt> live = current(await(existing).orderId());
+            if (live.isPresent()) return live.get();
+            // 그 사이 주문이 취소됐다 (대기 주문 복구 등): 키를 비우고 새 요청으로 처리한다
+            entries.remove(cacheKey, existing);
+            return execute(userId, key, fingerprint, order);
+        }
+
+        try {
+            // 다른 노드에서 처리됐거나 재시작 전에 처리된 요청
+            OrderReceipt receipt = replay(userId, key, fingerprint).orElseGet(() -> {
+                IdempotencyClaim claim = new IdempotencyClaim(userId, key, fingerprint,
+                        LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+                try {
+                    return order.apply(claim);
+                } catch (DataIntegrityViolationException e) {
+                    // 다른 노드가 같은 키로 먼저 주문했다. 이 요청의 예약은 롤백됐으므로 먼저 된 주문으로 응답한다
+                    log.warn("멱등 키 기록 충돌: userId={}, key={}", userId, key);
+                    return replay(userId, key, fingerprint).orElseThrow(() -> e);
+                }
+            });
+            mine.complete(receipt, System.currentTimeMillis() + ttlMs);
+            if (entries.size() > maxEntries) evict();
+            return receipt;
+        } catch (RuntimeException e) {
+            // 실패 결과는 남기지 않는다: 기다리던 요청에는 같은 예외를 주고 키는 다시 쓸 수 있게 한다
+            entries.remove(cacheKey, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // 주문을 만든 트랜잭션 안에서 호출한다. 주문이 롤백되면 기록도 남지 않는다
+    public void record(IdempotencyClaim claim, Order order) {
+        if (claim == null) return;
+        String paymentStatus = order.getPayment() != null ? order.getPayment().getStatus().name() : null;
+        idempotencyRecordRepository.save(IdempotencyRecord.of(claim.userId(), claim.key(), claim.fingerprint(),
+                order.getId(), order.getStatus().name(), paymentStatus, claim.expiresAt()));
+    }
+
+    // 주문을 취소하는 트랜잭션 안에서 호출한다
+    public void forget(Long orderId) {
+        idempotencyRecordRepository.deleteByOrderId(orderId);
+    }
+
+    @Scheduled(fixedDelayString = "${timedeal.idempotency.cleanup-interval-ms:60000}")
+    public void cleanUp() {
+        entries.values().removeIf(Entry::isExpired);
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) log.debug("만료된 멱등 키 {}건을 정리했습니다.", deleted);
+    }
+
+    private Optional<OrderReceipt> replay(Long userId, String key, String fingerprint) {
+        return idempotencyRecordRepository.findActive(userId, key, LocalDateTime.now())
+                .flatMap(r -> {
+                    ensureSameRequest(r.getFingerprint(), fingerprint);
+                    return current(r.getOrderId());
+                });
+    }
+
+    // 기록 시점이 아니라 지금의 주문/결제 상태로 응답한다. 취소된 주문은 없는 것으로 본다
+    private Optional<OrderReceipt> current(Long orderId) {
+        return orderRepository.findByIdWithUserItemPayment(orderId)
+                .filter(o -> o.getStatus() != OrderStatus.CANCELLED)
+                .map(o -> new OrderReceipt(o.getId(), o.getStatus().name(),
+                        o.getPayment() != null ? o.getPayment().getStatus().name() : null));
+    }
+
+    // 만료분을 먼저 지우고, 그래도 상한을 넘으면 완료된 키 중 가장 오래 쓰이지 않은 것부터 상한의 90% 까지 줄인다.
+    // 처리 중인 키는 지우지 않는다
+    private synchronized void evict() {
+        entries.values().removeIf(Entry::isExpired);
+        int excess = entries.size() - maxEntries * 9 / 10;
+        if (excess <= 0) return;
+        entries.entrySet().stream()
+                .filter(e -> e.getValue().result.isDone())
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccessMillis))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+
+    private OrderReceipt await(Entry entry) {
+        try {
+            return entry.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new DuplicateRequestException("같은 Idempotency-Key 의 요청이 아직 처리 중입니다.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("멱등 요청 대기 중 인터럽트되었습니다.", e);
+        }
+    }
+
+    private static void ensureSameRequest(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new IllegalArgumentException("같은 Idempotency-Key 로 다른 주문 내용을 보낼 수 없습니다.");
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<OrderReceipt> result = new CompletableFuture<>();
+        private volatile long expiresAtMillis = Long.MAX_VALUE;
+        private volatile long lastAccessMillis = System.currentTimeMillis();
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private void complete(OrderReceipt receipt, long expiresAtMillis) {
+            this.expiresAtMillis = expiresAtMillis;
+            result.complete(receipt);
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+}
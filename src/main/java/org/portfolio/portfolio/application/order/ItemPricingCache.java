@@ -0,0 +1,76 @@
+package org.portfolio.portfolio.application.order;
+
+import org.portfolio.portfolio.domain.item.ItemPricing;
+import org.portfolio.portfolio.domain.item.ItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 견적 계산용 상품 가격/카테고리 캐시.
+ * 없는 항목만 IN 조회 한 번으로 채우고, 상품이 바뀌면 ItemPricingListener 가 커밋 뒤에 내보낸다.
+ * 조회 도중 내보내기가 일어나면 읽은 값은 캐시에 넣지 않는다 (CouponDefinitionCache 와 같은 세대 비교).
+ * 최대 개수를 넘으면 가장 오래 조회되지 않은 상품을 내보낸다(LRU).
+ */
+@Component
+public class ItemPricingCache {
+
+    private final ItemRepository itemRepository;
+    private final int maxEntries;
+    // 접근 순서 LinkedHashMap. 조회도 순서를 바꾸므로 모든 접근을 pricings 로 동기화한다
+    private final Map<Long, ItemPricing> pricings;
+    // 내보내기 세대. DB 에서 읽는 도중 내보내기가 일어나면 읽은 값을 캐시에 넣지 않는다
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemPricingCache(ItemRepository itemRepository,
+                            @Value("${timedeal.order.quote.item-cache-max-entries:10000}") int maxEntries) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("상품 가격 캐시 크기는 1 이상이어야 합니다.");
+        this.itemRepository = itemRepository;
+        this.maxEntries = maxEntries;
+        this.pricings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemPricing> eldest) {
+                return size() > ItemPricingCache.this.maxEntries;
+            }
+        };
+    }
+
+    // 없는 상품은 결과에서 빠진다
+    public Map<Long, ItemPricing> getAll(Collection<Long> itemIds) {
+        Map<Long, ItemPricing> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (pricings) {
+            for (Long itemId : itemIds) {
+                ItemPricing cached = pricings.get(itemId);
+                if (cached != null) result.put(itemId, cached);
+                else missing.add(itemId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long observed = generation.get();
+            List<ItemPricing> loaded = itemRepository.findPricingByIdIn(missing);
+            synchronized (pricings) {
+                boolean fresh = generation.get() == observed;
+                for (ItemPricing pricing : loaded) {
+                    if (fresh) pricings.put(pricing.id(), pricing);
+                    result.put(pricing.id(), pricing);
+                }
+            }
+        }
+        return result;
+    }
+
+    public void evict(Long itemId) {
+        synchronized (pricings) {
+            generation.incrementAndGet();
+            pricings.remove(itemId);
+        }
+    }
+}
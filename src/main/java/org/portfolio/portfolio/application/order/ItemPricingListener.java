@@ -0,0 +1,71 @@
+package org.portfolio.portfolio.application.order;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.portfolio.portfolio.domain.category.Category;
+import org.portfolio.portfolio.domain.item.Item;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+// 상품 가격/카테고리 변경을 견적 캐시에 반영하는 Hibernate 리스너 (HibernateEventListenerConfig 에서 등록한다)
+@Component
+@RequiredArgsConstructor
+public class ItemPricingListener implements PostUpdateEventListener, PostDeleteEventListener {
+
+    private final ItemPricingCache itemPricingCache;
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Item item)) return;
+        // 재고만 바뀐 갱신은 캐시를 건드리지 않는다. 이전 상태를 모르면 내보낸다
+        Object[] oldState = event.getOldState();
+        if (oldState != null) {
+            String[] names = event.getPersister().getPropertyNames();
+            Object oldPrice = oldState[indexOf(names, "price")];
+            Object oldCategory = oldState[indexOf(names, "category")];
+            if (Objects.equals(oldPrice, item.getPrice()) && Objects.equals(idOf(oldCategory), idOf(item.getCategory()))) return;
+        }
+        evict(item.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Item item) evict(item.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void evict(Long itemId) {
+        // 지금 내보내고 세대를 올려, 진행 중인 조회가 옛 값을 넣지 못하게 한다.
+        // 커밋 전에 다른 스레드가 옛 값을 다시 읽어 넣었을 수 있으므로 트랜잭션이 끝난 뒤 한 번 더 내보낸다
+        itemPricingCache.evict(itemId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                itemPricingCache.evict(itemId);
+            }
+        });
+    }
+
+    private static Long idOf(Object category) {
+        return category instanceof Category c ? c.getId() : null;
+    }
+
+    private static int indexOf(String[] names, String property) {
+        for (int i = 0; i < names.length; i++) {
+            if (property.equals(names[i])) return i;
+        }
+        throw new IllegalStateException("Item 에 " + property + " 속성이 없습니다.");
+    }
+}
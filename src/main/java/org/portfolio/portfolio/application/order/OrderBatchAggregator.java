@@ -0,0 +1,171 @@
+package org.portfolio.portfolio.application.order;
+
+import org.portfolio.portfolio.application.exception.OrderPendingException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 인기 상품의 동시 주문을 짧은 시간 창(또는 N건) 단위로 모아 한 트랜잭션으로 처리하는 group-commit 집계기.
+ * 상품별로 하나의 배치만 처리 중이도록 하고, 그동안 들어온 요청은 다음 배치로 모인다.
+ */
+@Component
+public class OrderBatchAggregator {
+
+    private final OrderBatchProcessor orderBatchProcessor;
+    private final OrderTicketRegistry orderTicketRegistry;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long resultTimeoutMs;
+    private final List<Long> preloadItemIds;
+    private final ExecutorService drainExecutor;
+
+    private final Map<Long, ItemQueue> queues = new ConcurrentHashMap<>();
+
+    public OrderBatchAggregator(OrderBatchProcessor orderBatchProcessor,
+                                OrderTicketRegistry orderTicketRegistry,
+                                @Value("${timedeal.order.group-commit.max-batch-size:50}") int maxBatchSize,
+                                @Value("${timedeal.order.group-commit.max-wait-ms:3}") long maxWaitMs,
+                                @Value("${timedeal.order.group-commit.result-timeout-ms:10000}") long resultTimeoutMs,
+                                @Value("${timedeal.order.group-commit.workers:4}") int workers,
+                                @Value("${timedeal.order.group-commit.item-ids:}") List<Long> preloadItemIds) {
+        this.orderBatchProcessor = orderBatchProcessor;
+        this.orderTicketRegistry = orderTicketRegistry;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.resultTimeoutMs = resultTimeoutMs;
+        this.preloadItemIds = preloadItemIds;
+        this.drainExecutor = Executors.newFixedThreadPool(workers);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        preloadItemIds.forEach(this::enable);
+    }
+
+    public void enable(Long itemId) {
+        queues.computeIfAbsent(itemId, id -> new ItemQueue());
+    }
+
+    // 이미 모인 요청은 마저 처리되고, 이후 요청부터 단건 경로를 사용한다
+    public void disable(Long itemId) {
+        queues.remove(itemId);
+    }
+
+    public boolean isEnabled(Long itemId) {
+        return itemId != null && queues.containsKey(itemId);
+    }
+
+    // 요청을 상품별 큐에 넣고 자신의 결과(주문 ID 또는 개별 예외)를 기다린다
+    public Long submitAndWait(OrderCommand command) {
+        ItemQueue queue = queues.get(command.itemId());
+        if (queue == null) {
+            throw new IllegalStateException("group-commit 대상 상품이 아닙니다. id=" + command.itemId());
+        }
+        OrderBatchProcessor.PendingOrder pending = new OrderBatchProcessor.PendingOrder(command);
+        queue.pending.add(pending);
+        if (queue.size.incrementAndGet() >= maxBatchSize) {
+            // 시간 창을 기다리던 drain 을 깨운다
+            CompletableFuture<Void> full = queue.full;
+            if (full != null) full.complete(null);
+        }
+        scheduleDrain(command.itemId(), queue);
+        return await(pending);
+    }
+
+    private void scheduleDrain(Long itemId, ItemQueue queue) {
+        if (queue.draining.compareAndSet(false, true)) {
+            drainExecutor.execute(() -> drain(itemId, queue));
+        }
+    }
+
+    private void drain(Long itemId, ItemQueue queue) {
+        try {
+            while (queue.size.get() > 0) {
+                waitForWindow(queue);
+                List<OrderBatchProcessor.PendingOrder> batch = new ArrayList<>(maxBatchSize);
+                OrderBatchProcessor.PendingOrder next;
+                while (batch.size() < maxBatchSize && (next = queue.pending.poll()) != null) {
+                    batch.add(next);
+                }
+                queue.size.addAndGet(-batch.size());
+                if (!batch.isEmpty()) {
+                    orderBatchProcessor.process(itemId, batch);
+                }
+            }
+        } finally {
+            queue.draining.set(false);
+        }
+        // 플래그를 내리는 사이 들어온 요청이 있으면 다시 처리를 예약한다
+        if (queue.size.get() > 0) {
+            scheduleDrain(itemId, queue);
+        }
+    }
+
+    // 배치가 가득 차거나 시간 창이 끝날 때까지 잠깐 기다려 요청을 더 모은다
+    private void waitForWindow(ItemQueue queue) {
+        CompletableFuture<Void> full = new CompletableFuture<>();
+        queue.full = full;
+        try {
+            // 신호를 걸기 전에 이미 가득 찼다면 기다리지 않는다
+            if (queue.size.get() >= maxBatchSize) return;
+            full.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException ignored) {
+            // 시간 창 종료
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queue.full = null;
+        }
+    }
+
+    // 제한 시간 안에 결과가 없으면 실패로 돌려주지 않는다. 배치는 뒤늦게 커밋될 수 있으므로
+    // 결과를 따라가는 티켓을 만들어 OrderPendingException 으로 알리고, 클라이언트는 티켓으로 결과를 확인한다
+    private Long await(OrderBatchProcessor.PendingOrder pending) {
+        try {
+            return pending.result().get(resultTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw pendingOf(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw pendingOf(pending);
+        }
+    }
+
+    private OrderPendingException pendingOf(OrderBatchProcessor.PendingOrder pending) {
+        OrderTicket ticket = orderTicketRegistry.track(pending.command(), pending.result());
+        return new OrderPendingException("주문을 처리 중입니다. 티켓으로 결과를 확인해 주세요.", ticket.getId());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainExecutor.shutdown();
+    }
+
+    private static class ItemQueue {
+        private final ConcurrentLinkedQueue<OrderBatchProcessor.PendingOrder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // drain 이 시간 창을 기다리는 동안만 걸려 있는 '배치가 찼다' 신호
+        private volatile CompletableFuture<Void> full;
+    }
+}
@@ -0,0 +1,271 @@
+package org.portfolio.portfolio.application.order;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.application.coupon.CouponClaimService;
+import org.portfolio.portfolio.application.coupon.CouponDefinitionCache;
+import org.portfolio.portfolio.application.exception.*;
+import org.portfolio.portfolio.application.idempotency.IdempotencyService;
+import org.portfolio.portfolio.application.payment.PaymentAuthorization;
+import org.portfolio.portfolio.application.payment.PaymentAuthorizationClient;
+import org.portfolio.portfolio.application.payment.PaymentCircuitBreaker;
+import org.portfolio.portfolio.application.payment.PaymentResult;
+import org.portfolio.portfolio.domain.coupon.CouponDefinition;
+import org.portfolio.portfolio.domain.item.Item;
+import org.portfolio.portfolio.domain.item.ItemRepository;
+import org.portfolio.portfolio.domain.order.Order;
+import org.portfolio.portfolio.domain.order.OrderRepository;
+import org.portfolio.portfolio.domain.payment.Payment;
+import org.portfolio.portfolio.domain.user.User;
+import org.portfolio.portfolio.domain.user.UserRepository;
+import org.portfolio.portfolio.domain.usercoupon.UserCoupon;
+import org.portfolio.portfolio.domain.usercoupon.UserCouponRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 같은 상품에 대한 주문 묶음을 처리한다.
+ * 예약 트랜잭션에서 행 락을 한 번만 잡고 성공한 주문 수량의 합만큼 한 번에 차감한 뒤 바로 커밋한다.
+ * PG 승인은 트랜잭션 밖에서 호출하고, 승인 결과는 묶음 전체를 한 트랜잭션에서 확정/보상한다.
+ * 요청별 검증/결제 실패는 해당 요청에만 예외로 돌려주고 나머지 요청은 계속 진행한다.
+ * 예약은 검증 -> 쿠폰 선점 -> 주문 저장 순서로 나눈다. 검증과 선점은 예외 없이 실패를 판정하므로 트랜잭션에 롤백 표시가 남지 않고,
+ * 저장 단계나 예상하지 못한 예외(DB 오류 등)는 묶음 전체를 롤백하고 모든 요청에 같은 예외를 돌려준다.
+ * 승인 결과를 알 수 없는 주문은 확정도 보상도 하지 않고 PENDING 으로 남겨 대기 주문 복구에 맡긴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderBatchProcessor {
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final UserCouponRepository userCouponRepository;
+    private final OrderRepository orderRepository;
+
+    private final PaymentAuthorizationClient paymentAuthorizationClient;
+    private final PaymentCircuitBreaker paymentCircuitBreaker;
+    private final OrderValidator orderValidator;
+    private final CouponClaimService couponClaimService;
+    private final CouponDefinitionCache couponDefinitionCache;
+    private final OrderPaymentSettler orderPaymentSettler;
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
+
+    public void process(Long itemId, List<PendingOrder> batch) {
+        // PG 서킷이 열려 있으면 행 락을 잡기 전에 묶음 전체를 거절한다
+        try {
+            paymentCircuitBreaker.ensureAvailable();
+        } catch (PaymentFailedException e) {
+            batch.forEach(p -> p.result().completeExceptionally(e));
+            return;
+        }
+
+        // 1) 예약 트랜잭션
+        List<PendingOrder> reserved = new ArrayList<>(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> reserveInTransaction(itemId, batch, reserved));
+        } catch (RuntimeException e) {
+            // 커밋 자체가 실패하면 아직 결과를 받지 못한 요청 모두에게 같은 예외를 돌려준다
+            batch.forEach(p -> p.result().completeExceptionally(e));
+            return;
+        }
+
+        // 2) 트랜잭션 밖에서 승인 호출 (묶음 승인이 켜져 있으면 배치 전체를 한 번에 보낸다)
+        authorizeAll(reserved);
+
+        // 3) 확정/보상 트랜잭션
+        try {
+            transactionTemplate.executeWithoutResult(status -> settleInTransaction(itemId, reserved));
+        } catch (RuntimeException e) {
+            // 확정되지 못한 주문은 대기 주문 복구 작업이 보상한다
+            reserved.forEach(p -> p.result().completeExceptionally(e));
+            return;
+        }
+        for (PendingOrder pending : reserved) {
+            if (pending.failure != null) pending.result().completeExceptionally(pending.failure);
+            else pending.result().complete(pending.reserved.orderId());
+        }
+    }
+
+    private void reserveInTransaction(Long itemId, List<PendingOrder> batch, List<PendingOrder> reserved) {
+        // 배치 전체에 대해 행 락은 한 번만 잡는다
+        Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId));
+
+        // 사용자/쿠폰은 IN 조회로 한 번에 가져온다
+        Map<Long, User> users = userRepository.findAllById(distinct(batch, OrderCommand::userId)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, UserCoupon> userCoupons = userCouponRepository.findAllById(distinct(batch, OrderCommand::userCouponId)).stream()
+                .collect(Collectors.toMap(UserCoupon::getId, Function.identity()));
+
+        // 1) 쓰기 없이 검증만 한다. 업무 규칙 위반은 그 요청에만 돌려준다
+        int remaining = item.getStock();
+        List<PendingOrder> validated = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            try {
+                pending.plan = validate(pending.command(), item, remaining, users, userCoupons);
+                remaining -= pending.command().quantity();
+                validated.add(pending);
+            } catch (IllegalArgumentException | NotFoundException | InsufficientStockException
+                     | InvalidCouponException | PriceTamperedException e) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+
+        // 2) 쿠폰 선점. 조건부 UPDATE 는 실패해도 예외 없이 0 을 돌려주므로 그 요청만 빼고, 수량도 되돌린다
+        for (PendingOrder pending : validated) {
+            OrderPlan plan = pending.plan;
+            if (plan.userCouponId() == null || couponClaimService.claimValidated(plan.userCouponId(), plan.user().getId())) {
+                reserved.add(pending);
+            } else {
+                remaining += pending.command().quantity();
+                pending.result().completeExceptionally(new InvalidCouponException("이미 사용됐거나 유효 기간이 지난 쿠폰입니다."));
+            }
+        }
+
+        // 3) 주문 저장. 여기서 나는 예외는 묶음 전체를 롤백한다 (요청 하나만 골라 되돌리지 않는다)
+        for (PendingOrder pending : reserved) {
+            pending.reserved = save(pending.plan, item, pending.command());
+        }
+
+        // 성공한 주문 수량의 합만큼 한 번만 차감한다
+        int decrement = item.getStock() - remaining;
+        if (decrement > 0) item.decreaseStock(decrement);
+    }
+
+    private OrderPlan validate(OrderCommand command, Item item, int remaining,
+                               Map<Long, User> users, Map<Long, UserCoupon> userCoupons) {
+        int quantity = command.quantity();
+        if (quantity <= 0) throw new IllegalArgumentException("수량은 1 이상이어야 합니다.");
+
+        User user = users.get(command.userId());
+        if (user == null) throw new NotFoundException("사용자를 찾을 수 없습니다. id=" + command.userId());
+
+        // 배치 안에서 앞선 요청들이 가져간 수량을 뺀 잔여 재고로 판단한다
+        if (remaining < quantity) throw new InsufficientStockException("재고가 부족합니다.");
+
+        long originalTotal = item.getPrice() * quantity;
+
+        Long userCouponId = null;
+        CouponDefinition coupon = null;
+        if (command.userCouponId() != null) {
+            UserCoupon userCoupon = userCoupons.get(command.userCouponId());
+            if (userCoupon == null) throw new NotFoundException("유저 쿠폰을 찾을 수 없습니다. id=" + command.userCouponId());
+            orderValidator.validateCouponOwnershipAndUsable(user, userCoupon);
+            // 쿠폰 정의는 캐시에서 읽는다 (프록시의 id 접근은 지연 로딩을 일으키지 않는다)
+            coupon = couponDefinitionCache.get(userCoupon.getCoupon().getId());
+            userCouponId = userCoupon.getId();
+        }
+        Long categoryId = item.getCategory() != null ? item.getCategory().getId() : null;
+        long discount = orderValidator.calculateDiscount(originalTotal, user.getId(), categoryId, coupon);
+
+        long finalAmount = orderValidator.computeFinalAmount(originalTotal, discount);
+        orderValidator.validateClientAmount(finalAmount, command.clientPayAmount());
+        return new OrderPlan(user, userCouponId, finalAmount);
+    }
+
+    private ReservedOrder save(OrderPlan plan, Item item, OrderCommand command) {
+        Order order = Order.create(plan.user(), item, command.quantity());
+        if (plan.userCouponId() != null) order.applyCoupon(plan.userCouponId());
+        orderRepository.save(order);
+
+        if (plan.finalAmount() == 0L) {
+            order.markPaid();
+        } else {
+            Payment payment = Payment.prepareFor(order, plan.finalAmount());
+            order.attachPayment(payment);
+            orderRepository.save(order);
+        }
+        idempotencyService.record(command.idempotency(), order);
+        return new ReservedOrder(order.getId(), plan.finalAmount());
+    }
+
+    private void authorizeAll(List<PendingOrder> reserved) {
+        List<PendingOrder> payable = reserved.stream().filter(p -> p.reserved.finalAmount() > 0L).toList();
+        if (payable.isEmpty()) return;
+        List<PaymentResult> results;
+        try {
+            results = paymentAuthorizationClient.authorizeAll(payable.stream()
+                    .map(p -> new PaymentAuthorization(p.reserved.finalAmount(), String.valueOf(p.reserved.orderId())))
+                    .toList());
+        } catch (RuntimeException e) {
+            // 묶음 호출 자체가 실패하면 묶음 안의 주문 모두 보상 대상이다
+            payable.forEach(p -> p.failure = new PaymentFailedException("PG 호출 실패: " + e.getMessage()));
+            return;
+        }
+        for (int i = 0; i < payable.size(); i++) {
+            PendingOrder pending = payable.get(i);
+            if (results.get(i).isUnknown()) pending.unknown = true;
+            else pending.failure = verify(pending.reserved, results.get(i));
+        }
+    }
+
+    // 실패 사유를 돌려준다 (성공이면 null)
+    private PaymentFailedException verify(ReservedOrder reserved, PaymentResult result) {
+        if (!result.isSuccess()) {
+            return new PaymentFailedException(result.getFailureReason() != null ? result.getFailureReason() : "결제 실패");
+        }
+        if (result.getApprovedAmount() != reserved.finalAmount()) {
+            return new PaymentFailedException("승인 금액 불일치");
+        }
+        return null;
+    }
+
+    private void settleInTransaction(Long itemId, List<PendingOrder> reserved) {
+        int restore = 0;
+        for (PendingOrder pending : reserved) {
+            if (pending.reserved.finalAmount() == 0L || pending.unknown) continue;
+            if (pending.failure == null) {
+                try {
+                    orderPaymentSettler.confirm(pending.reserved.orderId());
+                } catch (PaymentFailedException e) {
+                    // 승인 대기 중 복구 작업이 먼저 보상한 주문
+                    pending.failure = e;
+                }
+            } else {
+                restore += orderPaymentSettler.cancel(pending.reserved.orderId());
+            }
+        }
+        // 실패한 주문 수량의 합만큼 한 번만 되돌린다
+        if (restore > 0) {
+            Item item = itemRepository.findByIdForUpdate(itemId)
+                    .orElseThrow(() -> new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId));
+            item.increaseStock(restore);
+        }
+    }
+
+    // 검증을 마친 요청의 저장 계획
+    private record OrderPlan(User user, Long userCouponId, long finalAmount) {
+    }
+
+    private static List<Long> distinct(List<PendingOrder> batch, Function<OrderCommand, Long> key) {
+        return batch.stream().map(p -> key.apply(p.command())).filter(Objects::nonNull).distinct().toList();
+    }
+
+    public static final class PendingOrder {
+        private final OrderCommand command;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        private OrderPlan plan;
+        private ReservedOrder reserved;
+        private PaymentFailedException failure;
+        private boolean unknown;
+
+        public PendingOrder(OrderCommand command) {
+            this.command = command;
+        }
+
+        public OrderCommand command() {
+            return command;
+        }
+
+        public CompletableFuture<Long> result() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.portfolio.portfolio.application.order;
+
+import org.portfolio.portfolio.application.idempotency.IdempotencyClaim;
+
+// 주문 생성 요청 한 건 (배치/비동기 경로에서 요청 단위로 넘겨 다닌다). idempotency 는 멱등 키가 없으면 null
+public record OrderCommand(Long userId, Long itemId, int quantity, Long userCouponId, long clientPayAmount,
+                           IdempotencyClaim idempotency) {
+
+    public OrderCommand(Long userId, Long itemId, int quantity, Long userCouponId, long clientPayAmount) {
+        this(userId, itemId, quantity, userCouponId, clientPayAmount, null);
+    }
+}
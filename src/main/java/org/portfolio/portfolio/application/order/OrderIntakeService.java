@@ -0,0 +1,252 @@
+package org.portfolio.portfolio.application.order;
+
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.application.exception.IntakeQueueFullException;
+import org.portfolio.portfolio.application.exception.OrderPendingException;
+import org.portfolio.portfolio.application.idempotency.IdempotencyClaim;
+import org.portfolio.portfolio.application.idempotency.IdempotencyService;
+import org.portfolio.portfolio.application.stock.StockDecrementMode;
+import org.portfolio.portfolio.application.stock.StockDecrementStrategyResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 비동기 주문 접수 파이프라인.
+ * 요청은 고정 크기 버퍼(원형 배열 큐)에 넣고 바로 티켓을 돌려주며, 버퍼가 가득 차면 즉시 거절한다.
+ * 고정 개수의 작업자가 버퍼를 비우면서 같은 상품 주문끼리 묶어 처리하므로 HTTP 동시성과 DB 동시성이 분리된다.
+ * 단계별 작업자(검증 -> 차감 -> 저장 -> 결제)로 나누지 않고, 작업자 하나가 꺼낸 묶음을 주문 파이프라인 끝까지 처리한다.
+ * 각 단계가 같은 트랜잭션/행 락을 공유해 단계 사이 큐를 두면 락 보유 시간만 늘어나기 때문이다.
+ * 멱등 키가 있는 주문은 동기 주문과 같은 IdempotencyService 를 거치므로, 두 경로에 같은 키를 써도 주문은 하나만 생긴다.
+ * 종료 시에는 새 접수를 막고 버퍼에 남은 티켓을 정해진 시간까지 처리한 뒤, 그래도 남은 티켓은 실패로 마무리한다.
+ */
+@Slf4j
+@Component
+public class OrderIntakeService {
+
+    private final OrderService orderService;
+    private final OrderBatchProcessor orderBatchProcessor;
+    private final StockDecrementStrategyResolver stockDecrementStrategyResolver;
+    private final OrderTicketRegistry orderTicketRegistry;
+    private final IdempotencyService idempotencyService;
+    private final int workerCount;
+    private final int maxBatchSize;
+    private final long shutdownTimeoutMillis;
+
+    private final BlockingQueue<OrderTicket> buffer;
+    // 사용자별 멱등 키 -> 티켓 (같은 키로 다시 접수하면 같은 티켓을 돌려준다)
+    private final Map<String, OrderTicket> ticketsByKey = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+    private volatile boolean running = true;
+    private volatile boolean accepting = true;
+    // 접수 중인 요청 수 (종료 시 이 요청들이 버퍼에 들어갈 때까지 기다린다)
+    private final AtomicInteger submitting = new AtomicInteger();
+
+    public OrderIntakeService(OrderService orderService,
+                              OrderBatchProcessor orderBatchProcessor,
+                              StockDecrementStrategyResolver stockDecrementStrategyResolver,
+                              OrderTicketRegistry orderTicketRegistry,
+                              IdempotencyService idempotencyService,
+                              @Value("${timedeal.order.async-intake.capacity:10000}") int capacity,
+                              @Value("${timedeal.order.async-intake.workers:4}") int workerCount,
+                              @Value("${timedeal.order.async-intake.max-batch-size:50}") int maxBatchSize,
+                              @Value("${timedeal.order.async-intake.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.orderService = orderService;
+        this.orderBatchProcessor = orderBatchProcessor;
+        this.stockDecrementStrategyResolver = stockDecrementStrategyResolver;
+        this.orderTicketRegistry = orderTicketRegistry;
+        this.idempotencyService = idempotencyService;
+        this.workerCount = workerCount;
+        this.maxBatchSize = maxBatchSize;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.workers = Executors.newFixedThreadPool(workerCount);
+    }
+
+    // 빈 생성이 끝난 뒤에 작업자를 띄운다
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::drainLoop);
+        }
+    }
+
+    // fingerprint: 같은 멱등 키로 다른 내용을 보냈는지 가려내기 위한 요청 지문 (멱등 키가 없으면 쓰지 않는다)
+    public OrderTicket submit(OrderCommand command, String idempotencyKey, String fingerprint, Consumer<Boolean> onFinish) {
+        if (command.quantity() <= 0) throw new IllegalArgumentException("수량은 1 이상이어야 합니다.");
+        submitting.incrementAndGet();
+        try {
+            if (!accepting) {
+                if (onFinish != null) onFinish.accept(false);
+                throw new IntakeQueueFullException("서버가 종료 중입니다. 잠시 후 다시 시도해 주세요.");
+            }
+            return enqueue(command, idempotencyKey, fingerprint, onFinish);
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+
+    private OrderTicket enqueue(OrderCommand command, String idempotencyKey, String fingerprint, Consumer<Boolean> onFinish) {
+
+        boolean keyed = idempotencyKey != null && !idempotencyKey.isBlank();
+        OrderTicket ticket = new OrderTicket(UUID.randomUUID().toString(), command,
+                keyed ? idempotencyKey : null, fingerprint, onFinish);
+        String dedupeKey = keyed ? command.userId() + ":" + idempotencyKey : null;
+        if (dedupeKey != null) {
+            // 같은 키의 티켓이 있으면 그 티켓을 돌려준다. 실패한 티켓만 새 티켓으로 바꿔 다시 시도할 수 있게 한다
+            OrderTicket current = ticketsByKey.compute(dedupeKey,
+                    (k, existing) -> existing == null || existing.getStatus() == OrderTicketStatus.FAILED ? ticket : existing);
+            if (current != ticket) {
+                if (onFinish != null) onFinish.accept(false); // 새 티켓은 만들지 않으므로 잡아 둔 자원은 돌려준다
+                return current;
+            }
+        }
+
+        orderTicketRegistry.register(ticket);
+        if (!buffer.offer(ticket)) {
+            orderTicketRegistry.remove(ticket);
+            if (dedupeKey != null) ticketsByKey.remove(dedupeKey, ticket);
+            if (onFinish != null) onFinish.accept(false);
+            throw new IntakeQueueFullException("주문 접수량이 많아 잠시 후 다시 시도해 주세요.");
+        }
+        return ticket;
+    }
+
+    public Optional<OrderTicket> findTicket(String ticketId) {
+        return orderTicketRegistry.find(ticketId);
+    }
+
+    public int queuedCount() {
+        return buffer.size();
+    }
+
+    // 티켓 저장소에서 정리된 티켓의 멱등 키를 지운다
+    @Scheduled(fixedDelayString = "${timedeal.order.async-intake.cleanup-interval-ms:60000}")
+    public void cleanUp() {
+        ticketsByKey.values().removeIf(t -> orderTicketRegistry.find(t.getId()).isEmpty());
+    }
+
+    // 새 접수를 막고, 작업자가 버퍼를 비울 때까지 기다린다. 시간 안에 못 비우면 남은 티켓을 실패로 마무리한다
+    // (이미 202 와 티켓을 받은 클라이언트가 조회 시 최종 상태를 보도록)
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        while (submitting.get() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        List<OrderTicket> left = new ArrayList<>();
+        buffer.drainTo(left);
+        left.forEach(t -> t.fail("서버 종료로 접수한 주문을 처리하지 못했습니다. 다시 주문해 주세요."));
+        if (!left.isEmpty()) {
+            log.warn("종료 시 처리하지 못한 비동기 주문 {}건을 실패로 처리했습니다.", left.size());
+        }
+    }
+
+    private void drainLoop() {
+        List<OrderTicket> chunk = new ArrayList<>(maxBatchSize);
+        // 종료 중에도 버퍼가 빌 때까지 처리한다
+        while (running || !buffer.isEmpty()) {
+            try {
+                OrderTicket first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                chunk.add(first);
+                buffer.drainTo(chunk, maxBatchSize - 1);
+                process(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("비동기 주문 처리 중 예기치 못한 오류", e);
+                chunk.forEach(t -> { if (t.getStatus() == OrderTicketStatus.PROCESSING) t.fail(e.getMessage()); });
+            } finally {
+                chunk.clear();
+            }
+        }
+    }
+
+    // 같은 상품끼리 묶는다. 비관적 락 상품은 락 한 번으로 묶어 처리하고, 그 밖의 전략은 상품 전략대로 한 건씩 처리한다.
+    // 멱등 키가 있는 주문은 IdempotencyService 를 거쳐야 하므로 묶지 않고 한 건씩 처리한다
+    private void process(List<OrderTicket> chunk) {
+        Map<Long, List<OrderTicket>> byItem = new LinkedHashMap<>();
+        List<OrderTicket> keyed = new ArrayList<>();
+        for (OrderTicket ticket : chunk) {
+            ticket.markProcessing();
+            if (ticket.getIdempotencyKey() != null) keyed.add(ticket);
+            else byItem.computeIfAbsent(ticket.getCommand().itemId(), id -> new ArrayList<>()).add(ticket);
+        }
+        keyed.forEach(this::processOne);
+        byItem.forEach((itemId, group) -> {
+            if (group.size() > 1 && stockDecrementStrategyResolver.resolve(itemId).mode() == StockDecrementMode.PESSIMISTIC) {
+                processBatch(itemId, group);
+            } else {
+                group.forEach(this::processOne);
+            }
+        });
+    }
+
+    private void processBatch(Long itemId, List<OrderTicket> group) {
+        List<OrderBatchProcessor.PendingOrder> batch = new ArrayList<>(group.size());
+        for (OrderTicket ticket : group) {
+            OrderBatchProcessor.PendingOrder pending = new OrderBatchProcessor.PendingOrder(ticket.getCommand());
+            pending.result().whenComplete((orderId, error) -> {
+                if (error == null) ticket.complete(orderId);
+                else ticket.fail(error.getMessage());
+            });
+            batch.add(pending);
+        }
+        orderBatchProcessor.process(itemId, batch);
+    }
+
+    private void processOne(OrderTicket ticket) {
+        OrderCommand c = ticket.getCommand();
+        try {
+            if (ticket.getIdempotencyKey() == null) {
+                ticket.complete(orderService.createOrder(c));
+                return;
+            }
+            // 동기 주문과 같은 멱등 저장소를 거친다: 같은 키로 이미 만든 주문이 있으면 그 주문으로 끝난다
+            OrderReceipt receipt = idempotencyService.execute(c.userId(), ticket.getIdempotencyKey(), ticket.getFingerprint(),
+                    claim -> new OrderReceipt(orderService.createOrder(withClaim(c, claim)), null, null));
+            ticket.complete(receipt.orderId());
+        } catch (OrderPendingException e) {
+            // group-commit 결과를 기다리다 시간이 초과됐다: 주문은 계속 처리되므로 그 결과를 따라간다
+            orderTicketRegistry.find(e.getTicketId()).ifPresentOrElse(
+                    pending -> ticket.follow(pending.completion()),
+                    () -> ticket.fail(e.getMessage()));
+        } catch (RuntimeException e) {
+            ticket.fail(e.getMessage());
+        }
+    }
+
+    private static OrderCommand withClaim(OrderCommand c, IdempotencyClaim claim) {
+        return new OrderCommand(c.userId(), c.itemId(), c.quantity(), c.userCouponId(), c.clientPayAmount(), claim);
+    }
+}
@@ -0,0 +1,88 @@
+package org.portfolio.portfolio.application.order;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.application.exception.PaymentFailedException;
+import org.portfolio.portfolio.application.idempotency.IdempotencyService;
+import org.portfolio.portfolio.application.stock.StockDecrementStrategyResolver;
+import org.portfolio.portfolio.domain.common.OrderStatus;
+import org.portfolio.portfolio.domain.order.Order;
+import org.portfolio.portfolio.domain.order.OrderRepository;
+import org.portfolio.portfolio.domain.usercoupon.UserCoupon;
+import org.portfolio.portfolio.domain.usercoupon.UserCouponRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * PG 승인 이후의 확정/보상 단계.
+ * 호출하는 쪽에서 연 트랜잭션 안에서 실행된다 (단건은 주문마다, 배치는 묶음 전체를 한 트랜잭션으로).
+ * 주문 행을 잠근 뒤 상태를 다시 확인하므로 확정과 보상(대기 주문 복구 포함)이 겹쳐도 한쪽만 반영된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderPaymentSettler {
+
+    private final OrderRepository orderRepository;
+    private final UserCouponRepository userCouponRepository;
+    private final StockDecrementStrategyResolver stockDecrementStrategyResolver;
+    private final IdempotencyService idempotencyService;
+
+    // 승인 성공: 결제 성공 처리 (주문도 함께 PAID 로 전이)
+    public void confirm(Long orderId) {
+        Order order = lock(orderId);
+        if (order.getStatus() == OrderStatus.PAID) return; // 이미 확정됨
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            // 대기 주문 복구로 이미 승인 취소/보상된 주문
+            throw new PaymentFailedException("이미 취소된 주문입니다. id=" + orderId);
+        }
+        order.getPayment().markSuccess();
+    }
+
+    // 승인 실패: 결제 실패/주문 취소 후 예약 단계에서 차감한 재고와 사용한 쿠폰을 되돌린다
+    public void compensate(Long orderId) {
+        Order order = lock(orderId);
+        int quantity = cancel(order);
+        if (quantity == 0) return; // 이미 보상됨
+
+        Long itemId = order.getItem().getId();
+        stockDecrementStrategyResolver.resolve(itemId).restore(itemId, quantity);
+    }
+
+    // 주문 취소와 쿠폰 복구까지만 하고, 되돌려야 할 재고 수량을 돌려준다 (재고는 호출하는 쪽에서 한 번에 복구)
+    public int cancel(Long orderId) {
+        return cancel(lock(orderId));
+    }
+
+    // 잠그지 않고 아직 승인 결과가 반영되지 않은 주문인지 본다 (대기 주문 복구의 사전 확인용, 트랜잭션 밖에서 호출)
+    public boolean isPending(Long orderId) {
+        return orderRepository.findStatusById(orderId).orElse(null) == OrderStatus.CREATED;
+    }
+
+    // 주문 행을 잠그고 현재 상태를 돌려준다 (대기 주문 복구용)
+    public OrderStatus lockStatus(Long orderId) {
+        return lock(orderId).getStatus();
+    }
+
+    private int cancel(Order order) {
+        // 이미 취소됐거나, 그 사이 확정된 주문은 되돌리지 않는다
+        if (order.getStatus() != OrderStatus.CREATED) return 0;
+
+        order.getPayment().markFailed();
+        order.cancel();
+        // 취소된 주문의 멱등 키는 같은 트랜잭션에서 지워 같은 키로 다시 주문할 수 있게 한다
+        idempotencyService.forget(order.getId());
+        if (order.getUserCouponId() != null) {
+            userCouponRepository.findById(order.getUserCouponId()).ifPresent(UserCoupon::restore);
+        }
+        return order.getQuantity();
+    }
+
+    public Long itemIdOf(Long orderId) {
+        return orderRepository.findItemIdById(orderId)
+                .orElseThrow(() -> new NotFoundException("주문을 찾을 수 없습니다. id=" + orderId));
+    }
+
+    private Order lock(Long orderId) {
+        return orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new NotFoundException("주문을 찾을 수 없습니다. id=" + orderId));
+    }
+}
@@ -0,0 +1,5 @@
+package org.portfolio.portfolio.application.order;
+
+// 주문 생성 직후의 결과 스냅샷 (멱등 재요청에는 이 값을 그대로 돌려준다)
+public record OrderReceipt(Long orderId, String orderStatus, String paymentStatus) {
+}
@@ -1,67 +1,155 @@
 package org.portfolio.portfolio.application.order;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.application.coupon.CouponClaimService;
 import org.portfolio.portfolio.application.exception.*;
-import org.portfolio.portfolio.application.payment.PaymentGateway;
+import org.portfolio.portfolio.application.idempotency.IdempotencyService;
+import org.portfolio.portfolio.application.payment.PaymentAuthorizationClient;
+import org.portfolio.portfolio.application.payment.PaymentCircuitBreaker;
 import org.portfolio.portfolio.application.payment.PaymentResult;
-import org.portfolio.portfolio.domain.coupon.Coupon;
+import org.portfolio.portfolio.application.stock.SoldOutRegistry;
+import org.portfolio.portfolio.application.stock.StockDecrementStrategy;
+import org.portfolio.portfolio.application.stock.StockDecrementStrategyResolver;
+import org.portfolio.portfolio.domain.common.OrderStatus;
+import org.portfolio.portfolio.domain.coupon.CouponDefinition;
 import org.portfolio.portfolio.domain.item.Item;
-import org.portfolio.portfolio.domain.item.ItemRepository;
 import org.portfolio.portfolio.domain.order.Order;
 import org.portfolio.portfolio.domain.order.OrderRepository;
 import org.portfolio.portfolio.domain.payment.Payment;
 import org.portfolio.portfolio.domain.user.User;
 import org.portfolio.portfolio.domain.user.UserRepository;
-import org.portfolio.portfolio.domain.usercoupon.UserCoupon;
-import org.portfolio.portfolio.domain.usercoupon.UserCouponRepository;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
     private final UserRepository userRepository;
-    private final ItemRepository itemRepository;
-    private final UserCouponRepository userCouponRepository;
     private final OrderRepository orderRepository;
 
-    private final PaymentGateway paymentGateway;
+    private final PaymentAuthorizationClient paymentAuthorizationClient;
+    private final PaymentCircuitBreaker paymentCircuitBreaker;
     private final OrderValidator orderValidator;
+    private final CouponClaimService couponClaimService;
+    private final StockDecrementStrategyResolver stockDecrementStrategyResolver;
+    private final SoldOutRegistry soldOutRegistry;
+    private final OrderBatchAggregator orderBatchAggregator;
+    private final OrderPaymentSettler orderPaymentSettler;
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
     public Long createOrder(Long userId, Long itemId, int quantity, Long userCouponId, long clientPayAmount) {
+        return createOrder(new OrderCommand(userId, itemId, quantity, userCouponId, clientPayAmount));
+    }
+
+    // 멱등 키가 있으면 예약 트랜잭션에서 주문과 함께 기록한다
+    public Long createOrder(OrderCommand command) {
+        Long userId = command.userId();
+        Long itemId = command.itemId();
+        int quantity = command.quantity();
         if (quantity <= 0) throw new IllegalArgumentException("수량은 1 이상이어야 합니다.");
 
-        // 1) 사용자 조회
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("사용자를 찾을 수 없습니다. id=" + userId));
+        // 품절 확정 상품은 트랜잭션을 열거나 커넥션을 잡기 전에 거절한다
+        soldOutRegistry.ensureNotSoldOut(itemId);
+        // PG 서킷이 열려 있으면 재고/쿠폰을 잡기 전에 바로 실패시킨다
+        paymentCircuitBreaker.ensureAvailable();
 
-        // 2) 아이템 비관적 락 조회
-        Item item = itemRepository.findByIdForUpdate(itemId)
-                .orElseThrow(() -> new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId));
+        // group-commit 대상 상품은 같은 상품 주문과 묶여 한 트랜잭션에서 처리된다
+        if (orderBatchAggregator.isEnabled(itemId)) {
+            return orderBatchAggregator.submitAndWait(command);
+        }
 
-        // 3) 재고 검증 및 차감(동일 트랜잭션 내에서 롤백 보장)
-        if (item.getStock() < quantity) throw new InsufficientStockException("재고가 부족합니다.");
-        item.decreaseStock(quantity);
+        // 상품별로 선택된 재고 차감 전략(비관적 락/조건부 UPDATE/낙관적 락/예약 엔진)으로 처리한다
+        StockDecrementStrategy strategy = stockDecrementStrategyResolver.resolve(itemId);
 
-        // 4) 주문 기본 금액 계산
-        long originalTotal = item.getPrice() * quantity;
+        // 1) 예약 트랜잭션: 재고 차감, 쿠폰 사용, 주문/결제(PENDING) 생성까지만 하고 바로 커밋해 락을 놓는다
+        ReservedOrder reserved = strategy.execute(() -> transactionTemplate.execute(status ->
+                reserve(strategy, command)));
+        if (reserved.finalAmount() == 0L) {
+            return reserved.orderId();
+        }
 
-        // 5) 쿠폰 적용 및 할인 계산 (검증 책임 분리)
-        long discount = 0L;
-        if (userCouponId != null) {
-            UserCoupon userCoupon = userCouponRepository.findById(userCouponId)
-                    .orElseThrow(() -> new NotFoundException("유저 쿠폰을 찾을 수 없습니다. id=" + userCouponId));
+        // 2) 커넥션과 행 락을 잡지 않은 상태로 가상 결제 승인 호출
+        PaymentResult result = authorize(reserved);
+
+        // 승인 여부를 알 수 없으면 보상하지 않고 PENDING 으로 남긴다 (대기 주문 복구가 승인 취소 후 보상한다)
+        if (result.isUnknown()) {
+            log.warn("PG 승인 결과를 알 수 없어 주문을 결제 대기로 남깁니다. orderId={}, reason={}", reserved.orderId(), result.getFailureReason());
+            return reserved.orderId();
+        }
 
-            orderValidator.validateCouponOwnershipAndUsable(user, userCoupon);
+        // 3) 승인 결과에 따라 확정 또는 보상(재고/쿠폰 복구) 트랜잭션
+        try {
+            if (!result.isSuccess()) {
+                throw new PaymentFailedException(result.getFailureReason() != null ? result.getFailureReason() : "결제 실패");
+            }
+            // 방어적 체크: 승인 금액 일치
+            orderValidator.validateApprovedAmount(result.getApprovedAmount(), reserved.finalAmount());
+        } catch (PaymentFailedException e) {
+            compensate(reserved.orderId());
+            throw e;
+        }
+        transactionTemplate.executeWithoutResult(status -> orderPaymentSettler.confirm(reserved.orderId()));
+        return reserved.orderId();
+    }
 
-            Coupon coupon = userCoupon.getCoupon();
-            discount = orderValidator.calculateDiscount(originalTotal, coupon);
+    // 보상 트랜잭션: 결제 실패/주문 취소 후 재고와 쿠폰을 되돌린다 (낙관적 락 상품은 충돌 시 재시도)
+    public void compensate(Long orderId) {
+        Long itemId = orderPaymentSettler.itemIdOf(orderId);
+        stockDecrementStrategyResolver.resolve(itemId).execute(() -> transactionTemplate.execute(status -> {
+            orderPaymentSettler.compensate(orderId);
+            return null;
+        }));
+    }
 
-            // 쿠폰 사용 마킹 (결제 실패시 트랜잭션 롤백으로 자동 복구)
-            userCoupon.use();
+    /**
+     * 승인 결과를 모르는 채 남은 주문을 복구한다.
+     * 락 없이 대기 상태인지 본 뒤 트랜잭션/커넥션/행 락 없이 PG 승인을 취소하고,
+     * 취소가 확인되면 짧은 트랜잭션에서 주문 행을 다시 잠가 여전히 대기 중일 때만 보상한다.
+     * 취소를 확인하지 못했거나, 취소하는 사이 늦은 확정이 먼저 반영됐으면 false 를 돌려준다 (수동 정산 대상).
+     */
+    public boolean recoverStale(Long orderId) {
+        if (!orderPaymentSettler.isPending(orderId)) return true; // 그 사이 확정/보상됨
+        if (!paymentAuthorizationClient.voidAuthorization(String.valueOf(orderId))) return false;
+
+        Long itemId = orderPaymentSettler.itemIdOf(orderId);
+        OrderStatus status = stockDecrementStrategyResolver.resolve(itemId).execute(() -> transactionTemplate.execute(tx -> {
+            OrderStatus locked = orderPaymentSettler.lockStatus(orderId);
+            if (locked == OrderStatus.CREATED) orderPaymentSettler.compensate(orderId);
+            return locked;
+        }));
+        if (status == OrderStatus.PAID) {
+            // 승인을 취소하는 사이 확정이 먼저 커밋됐다. 주문은 결제 완료지만 승인은 취소된 상태다
+            log.warn("승인 취소 중 주문이 확정됐습니다. orderId={}", orderId);
+            return false;
         }
+        return true;
+    }
+
+    private ReservedOrder reserve(StockDecrementStrategy strategy, OrderCommand command) {
+        Long userId = command.userId();
+        Long itemId = command.itemId();
+        int quantity = command.quantity();
+        Long userCouponId = command.userCouponId();
+        long clientPayAmount = command.clientPayAmount();
+
+        // 1) 사용자 조회
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("사용자를 찾을 수 없습니다. id=" + userId));
+
+        // 2~3) 재고 검증 및 차감 (이후 단계에서 예외가 나면 예약 트랜잭션이 롤백된다)
+        Item item = strategy.decrease(itemId, quantity);
+
+        // 4) 주문 기본 금액 계산
+        long originalTotal = item.getPrice() * quantity;
+
+        // 5) 쿠폰 선점(조건부 UPDATE 한 번) 및 활성 할인 규칙으로 할인 계산
+        CouponDefinition coupon = userCouponId != null ? couponClaimService.claim(userCouponId, userId) : null;
+        Long categoryId = item.getCategory() != null ? item.getCategory().getId() : null;
+        long discount = orderValidator.calculateDiscount(originalTotal, userId, categoryId, coupon);
 
         long finalAmount = orderValidator.computeFinalAmount(originalTotal, discount);
 
@@ -70,29 +158,34 @@ public class OrderService {
 
         // 7) 주문 생성 및 저장
         Order order = Order.create(user, item, quantity);
+        if (userCouponId != null) {
+            // 결제 실패 시 보상 트랜잭션에서 복구할 쿠폰
+            order.applyCoupon(userCouponId);
+        }
         orderRepository.save(order);
 
         // 무료 결제(최종 금액 0원)인 경우 바로 주문 확정 처리
         if (finalAmount == 0L) {
             order.markPaid();
-            return order.getId();
+            idempotencyService.record(command.idempotency(), order);
+            return new ReservedOrder(order.getId(), 0L);
         }
 
-        // 8) 결제 엔티티 생성 및 부착
+        // 8) 결제 엔티티 생성 및 부착 (승인 전까지 PENDING)
         Payment payment = Payment.prepareFor(order, finalAmount);
         order.attachPayment(payment);
         orderRepository.save(order); // cascade로 payment 저장
+        // 9) 멱등 키 기록 (주문과 같은 트랜잭션)
+        idempotencyService.record(command.idempotency(), order);
+        return new ReservedOrder(order.getId(), finalAmount);
+    }
 
-        // 9) 가상 결제 승인 호출
-        PaymentResult result = paymentGateway.authorize(finalAmount, String.valueOf(order.getId()));
-        if (result.isSuccess()) {
-            // 방어적 체크: 승인 금액 일치
-            orderValidator.validateApprovedAmount(result.getApprovedAmount(), finalAmount);
-            payment.markSuccess();
-            return order.getId();
-        } else {
-            payment.markFailed();
-            throw new PaymentFailedException(result.getFailureReason() != null ? result.getFailureReason() : "결제 실패");
+    // PG 호출 자체가 실패해도 보상 흐름을 타도록 실패 결과로 바꿔 돌려준다
+    private PaymentResult authorize(ReservedOrder reserved) {
+        try {
+            return paymentAuthorizationClient.authorize(reserved.finalAmount(), String.valueOf(reserved.orderId()));
+        } catch (RuntimeException e) {
+            return PaymentResult.failure("PG 호출 실패: " + e.getMessage());
         }
     }
 }
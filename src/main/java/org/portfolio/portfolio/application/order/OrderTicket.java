@@ -0,0 +1,112 @@
+package org.portfolio.portfolio.application.order;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+// 비동기 접수된 주문 한 건의 진행 상태
+public class OrderTicket {
+
+    private final String id;
+    private final OrderCommand command;
+    private final long acceptedAtMillis;
+    // 멱등 키와 요청 지문 (키 없이 접수됐으면 null)
+    private final String idempotencyKey;
+    private final String fingerprint;
+    // 처리가 끝나면 성공 여부와 함께 호출된다 (대기열 토큰 소진/반납 등)
+    private final Consumer<Boolean> onFinish;
+
+    private volatile OrderTicketStatus status = OrderTicketStatus.QUEUED;
+    private volatile Long orderId;
+    private volatile String failureReason;
+    private volatile long finishedAtMillis;
+    // 끝나면 주문 ID(또는 실패)로 완료된다
+    private final CompletableFuture<Long> completion = new CompletableFuture<>();
+
+    OrderTicket(String id, OrderCommand command, Consumer<Boolean> onFinish) {
+        this(id, command, null, null, onFinish);
+    }
+
+    OrderTicket(String id, OrderCommand command, String idempotencyKey, String fingerprint, Consumer<Boolean> onFinish) {
+        this.id = id;
+        this.command = command;
+        this.idempotencyKey = idempotencyKey;
+        this.fingerprint = fingerprint;
+        this.onFinish = onFinish;
+        this.acceptedAtMillis = System.currentTimeMillis();
+    }
+
+    void markProcessing() {
+        this.status = OrderTicketStatus.PROCESSING;
+    }
+
+    void complete(Long orderId) {
+        this.orderId = orderId;
+        finish(OrderTicketStatus.COMPLETED);
+    }
+
+    void fail(String failureReason) {
+        this.failureReason = failureReason;
+        finish(OrderTicketStatus.FAILED);
+    }
+
+    private void finish(OrderTicketStatus status) {
+        this.finishedAtMillis = System.currentTimeMillis();
+        this.status = status;
+        if (onFinish != null) onFinish.accept(status == OrderTicketStatus.COMPLETED);
+        if (status == OrderTicketStatus.COMPLETED) completion.complete(orderId);
+        else completion.completeExceptionally(new IllegalStateException(failureReason));
+    }
+
+    // 다른 곳에서 진행 중인 주문 결과를 이 티켓의 결과로 삼는다
+    void follow(CompletableFuture<Long> result) {
+        result.whenComplete((id, error) -> {
+            if (error == null) complete(id);
+            else fail(unwrap(error).getMessage());
+        });
+    }
+
+    CompletableFuture<Long> completion() {
+        return completion;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    boolean isFinishedBefore(long millis) {
+        return finishedAtMillis != 0 && finishedAtMillis < millis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public OrderCommand getCommand() {
+        return command;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getAcceptedAtMillis() {
+        return acceptedAtMillis;
+    }
+
+    public OrderTicketStatus getStatus() {
+        return status;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+}
@@ -0,0 +1,54 @@
+package org.portfolio.portfolio.application.order;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 결과를 나중에 조회하는 주문 티켓 저장소.
+ * 비동기 접수 주문과, 동기 요청이 기다리다 시간 초과된 주문이 같은 티켓 조회 API 로 결과를 확인한다.
+ */
+@Component
+public class OrderTicketRegistry {
+
+    private final long ticketTtlMs;
+    private final Map<String, OrderTicket> tickets = new ConcurrentHashMap<>();
+
+    public OrderTicketRegistry(@Value("${timedeal.order.async-intake.ticket-ttl-ms:600000}") long ticketTtlMs) {
+        this.ticketTtlMs = ticketTtlMs;
+    }
+
+    void register(OrderTicket ticket) {
+        tickets.put(ticket.getId(), ticket);
+    }
+
+    void remove(OrderTicket ticket) {
+        tickets.remove(ticket.getId(), ticket);
+    }
+
+    // 이미 진행 중인 주문 결과를 따라가는 티켓을 만든다
+    OrderTicket track(OrderCommand command, CompletableFuture<Long> result) {
+        OrderTicket ticket = new OrderTicket(UUID.randomUUID().toString(), command, null);
+        ticket.markProcessing();
+        register(ticket);
+        ticket.follow(result);
+        return ticket;
+    }
+
+    public Optional<OrderTicket> find(String ticketId) {
+        return Optional.ofNullable(tickets.get(ticketId));
+    }
+
+    // 끝난 지 오래된 티켓을 정리한다
+    @Scheduled(fixedDelayString = "${timedeal.order.async-intake.cleanup-interval-ms:60000}")
+    public void cleanUp() {
+        long before = System.currentTimeMillis() - ticketTtlMs;
+        tickets.values().removeIf(t -> t.isFinishedBefore(before));
+    }
+}
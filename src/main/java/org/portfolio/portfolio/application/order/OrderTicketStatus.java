@@ -0,0 +1,8 @@
+package org.portfolio.portfolio.application.order;
+
+public enum OrderTicketStatus {
+    QUEUED,      // 접수되어 처리 대기 중
+    PROCESSING,  // 작업자가 재고/할인/저장/결제 단계를 진행 중
+    COMPLETED,   // 주문 생성 완료 (orderId 확인 가능)
+    FAILED       // 재고 부족, 결제 실패 등으로 주문이 만들어지지 않음
+}
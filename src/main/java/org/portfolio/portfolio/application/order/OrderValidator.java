@@ -1,22 +1,24 @@
 package org.portfolio.portfolio.application.order;
 
 import lombok.RequiredArgsConstructor;
-import org.portfolio.portfolio.application.discount.DiscountPolicy;
-import org.portfolio.portfolio.application.discount.DiscountPolicyFactory;
+import org.portfolio.portfolio.application.discount.DiscountEngine;
 import org.portfolio.portfolio.application.exception.InvalidCouponException;
 import org.portfolio.portfolio.application.exception.PaymentFailedException;
 import org.portfolio.portfolio.application.exception.PriceTamperedException;
-import org.portfolio.portfolio.domain.common.CouponType;
-import org.portfolio.portfolio.domain.coupon.Coupon;
+import org.portfolio.portfolio.domain.coupon.CouponDefinition;
+import org.portfolio.portfolio.domain.order.OrderRepository;
 import org.portfolio.portfolio.domain.user.User;
 import org.portfolio.portfolio.domain.usercoupon.UserCoupon;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+
 @Component
 @RequiredArgsConstructor
 public class OrderValidator {
 
-    private final DiscountPolicyFactory discountPolicyFactory;
+    private final DiscountEngine discountEngine;
+    private final OrderRepository orderRepository;
 
     public void validateCouponOwnershipAndUsable(User user, UserCoupon userCoupon) {
         if (userCoupon == null) return;
@@ -26,17 +28,27 @@ public class OrderValidator {
         if (userCoupon.isUsed()) {
             throw new InvalidCouponException("이미 사용된 쿠폰입니다.");
         }
+        if (!userCoupon.isWithinValidity(LocalDateTime.now())) {
+            throw new InvalidCouponException("유효 기간이 아닌 쿠폰입니다.");
+        }
+    }
+
+    // 활성 할인 규칙(첫 구매/카테고리/쿠폰/상한)을 누적 적용한다. 쿠폰 정의는 CouponDefinitionCache 에서 가져온다 (coupon 은 null 가능)
+    public long calculateDiscount(long originalTotal, Long userId, Long categoryId, CouponDefinition coupon) {
+        return calculateDiscount(originalTotal, isFirstPurchase(userId), categoryId, coupon);
     }
 
-    public long calculateDiscount(long originalTotal, Coupon coupon) {
-        if (coupon == null) return 0L;
-        CouponType type = coupon.getType();
-        DiscountPolicy policy = discountPolicyFactory.getPolicy(type);
-        long discount = policy.calculateDiscount(originalTotal, coupon);
+    public long calculateDiscount(long originalTotal, boolean firstPurchase, Long categoryId, CouponDefinition coupon) {
+        long discount = discountEngine.calculate(originalTotal, categoryId, firstPurchase, coupon);
         if (discount < 0) return 0L;
         return Math.min(discount, originalTotal);
     }
 
+    // 첫 구매 규칙이 없으면 주문 이력 조회를 생략한다
+    public boolean isFirstPurchase(Long userId) {
+        return discountEngine.requiresFirstPurchase() && !orderRepository.existsActiveOrderByUserId(userId);
+    }
+
     public long computeFinalAmount(long originalTotal, long discount) {
         long d = Math.max(0L, discount);
         return Math.max(0L, originalTotal - d);
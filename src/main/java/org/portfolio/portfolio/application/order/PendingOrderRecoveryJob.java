@@ -0,0 +1,46 @@
+package org.portfolio.portfolio.application.order;
+
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.domain.order.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 예약 후 확정/보상까지 가지 못한 주문(프로세스 중단 등)을 일정 시간이 지나면 PG 승인을 취소하고 보상 처리한다.
+// 승인 취소를 확인하지 못한 주문은 돈이 빠져나갔을 수 있으므로 보상하지 않고 남겨 수동 정산 대상으로 로그를 남긴다
+@Slf4j
+@Component
+public class PendingOrderRecoveryJob {
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final long pendingTimeoutSeconds;
+
+    public PendingOrderRecoveryJob(OrderRepository orderRepository,
+                                   OrderService orderService,
+                                   @Value("${timedeal.order.pending-timeout-seconds:300}") long pendingTimeoutSeconds) {
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.pendingTimeoutSeconds = pendingTimeoutSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${timedeal.order.pending-recovery-interval-ms:60000}")
+    public void recover() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(pendingTimeoutSeconds);
+        List<Long> orderIds = orderRepository.findStalePendingOrderIds(cutoff);
+        for (Long orderId : orderIds) {
+            try {
+                if (orderService.recoverStale(orderId)) {
+                    log.info("승인 대기 시간이 지난 주문을 보상 처리했습니다. orderId={}", orderId);
+                } else {
+                    log.warn("PG 승인 취소를 확인하지 못했거나 취소 중 확정된 주문입니다. 수동 정산이 필요합니다. orderId={}", orderId);
+                }
+            } catch (RuntimeException e) {
+                log.warn("대기 주문 보상 실패: orderId={}", orderId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.portfolio.portfolio.application.order;
+
+import org.portfolio.portfolio.application.coupon.CouponDefinitionCache;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.domain.coupon.CouponDefinition;
+import org.portfolio.portfolio.domain.item.ItemPricing;
+import org.portfolio.portfolio.domain.user.UserRepository;
+import org.portfolio.portfolio.domain.usercoupon.UserCouponRepository;
+import org.portfolio.portfolio.domain.usercoupon.UserCouponView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 여러 상품/수량/쿠폰 조합의 최종 결제 금액 견적.
+ * 주문과 같은 할인 엔진으로 계산하지만 락/쓰기 없이 캐시와 조회 전용 쿼리만 쓰고, 쿠폰도 사용 처리하지 않는다.
+ * 필요한 데이터를 먼저 한 번에 모은 뒤 계산은 CPU 작업만 남으므로 줄 수가 많으면 병렬로 평가한다.
+ */
+@Service
+public class PriceQuoteService {
+
+    private final UserRepository userRepository;
+    private final UserCouponRepository userCouponRepository;
+    private final ItemPricingCache itemPricingCache;
+    private final CouponDefinitionCache couponDefinitionCache;
+    private final OrderValidator orderValidator;
+    private final int parallelThreshold;
+
+    public PriceQuoteService(UserRepository userRepository,
+                             UserCouponRepository userCouponRepository,
+                             ItemPricingCache itemPricingCache,
+                             CouponDefinitionCache couponDefinitionCache,
+                             OrderValidator orderValidator,
+                             @Value("${timedeal.order.quote.parallel-threshold:64}") int parallelThreshold) {
+        this.userRepository = userRepository;
+        this.userCouponRepository = userCouponRepository;
+        this.itemPricingCache = itemPricingCache;
+        this.couponDefinitionCache = couponDefinitionCache;
+        this.orderValidator = orderValidator;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public List<Quote> quote(Long userId, List<QuoteLine> lines) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("사용자를 찾을 수 없습니다. id=" + userId);
+        }
+
+        // 1) 상품 가격은 캐시에서, 없는 것만 IN 조회 한 번으로 채운다
+        Map<Long, ItemPricing> items = itemPricingCache.getAll(distinct(lines, QuoteLine::itemId));
+
+        // 2) 유저 쿠폰은 소유자/사용 여부만 IN 조회로 확인하고, 쿠폰 정의는 캐시에서 읽는다
+        List<Long> userCouponIds = distinct(lines, QuoteLine::userCouponId);
+        Map<Long, UserCouponView> userCoupons = userCouponIds.isEmpty() ? Map.of()
+                : userCouponRepository.findViewsByIdIn(userCouponIds).stream()
+                        .collect(Collectors.toMap(UserCouponView::id, Function.identity()));
+        Map<Long, CouponDefinition> coupons = new HashMap<>();
+        userCoupons.values().forEach(uc -> coupons.computeIfAbsent(uc.couponId(), couponDefinitionCache::get));
+
+        boolean firstPurchase = orderValidator.isFirstPurchase(userId);
+        LocalDateTime now = LocalDateTime.now();
+
+        // 3) 남은 계산은 메모리 연산뿐이다
+        Stream<QuoteLine> stream = lines.size() >= parallelThreshold ? lines.parallelStream() : lines.stream();
+        return stream.map(line -> quoteOne(userId, line, items, userCoupons, coupons, firstPurchase, now)).toList();
+    }
+
+    private Quote quoteOne(Long userId, QuoteLine line, Map<Long, ItemPricing> items,
+                           Map<Long, UserCouponView> userCoupons, Map<Long, CouponDefinition> coupons,
+                           boolean firstPurchase, LocalDateTime now) {
+        if (line.quantity() <= 0) return Quote.rejected(line, "수량은 1 이상이어야 합니다.");
+        ItemPricing item = items.get(line.itemId());
+        if (item == null) return Quote.rejected(line, "상품을 찾을 수 없습니다. id=" + line.itemId());
+
+        CouponDefinition coupon = null;
+        if (line.userCouponId() != null) {
+            UserCouponView userCoupon = userCoupons.get(line.userCouponId());
+            if (userCoupon == null || !userCoupon.userId().equals(userId)) {
+                return Quote.rejected(line, "해당 사용자 소유의 쿠폰이 아닙니다.");
+            }
+            if (userCoupon.used()) return Quote.rejected(line, "이미 사용된 쿠폰입니다.");
+            if (!userCoupon.isWithinValidity(now)) return Quote.rejected(line, "유효 기간이 아닌 쿠폰입니다.");
+            coupon = coupons.get(userCoupon.couponId());
+        }
+
+        long originalTotal = item.price() * line.quantity();
+        long discount = orderValidator.calculateDiscount(originalTotal, firstPurchase, item.categoryId(), coupon);
+        long finalAmount = orderValidator.computeFinalAmount(originalTotal, discount);
+        return Quote.priced(line, originalTotal, originalTotal - finalAmount, finalAmount);
+    }
+
+    private static List<Long> distinct(List<QuoteLine> lines, Function<QuoteLine, Long> key) {
+        return lines.stream().map(key).filter(Objects::nonNull).distinct().toList();
+    }
+}
@@ -0,0 +1,19 @@
+package org.portfolio.portfolio.application.order;
+
+// 견적 결과 한 줄. 주문할 수 없는 줄은 금액 대신 rejectReason 이 채워진다
+public record Quote(Long itemId, int quantity, Long userCouponId,
+                    long originalAmount, long discountAmount, long finalAmount,
+                    String rejectReason) {
+
+    static Quote priced(QuoteLine line, long originalAmount, long discountAmount, long finalAmount) {
+        return new Quote(line.itemId(), line.quantity(), line.userCouponId(), originalAmount, discountAmount, finalAmount, null);
+    }
+
+    static Quote rejected(QuoteLine line, String reason) {
+        return new Quote(line.itemId(), line.quantity(), line.userCouponId(), 0L, 0L, 0L, reason);
+    }
+
+    public boolean isPriced() {
+        return rejectReason == null;
+    }
+}
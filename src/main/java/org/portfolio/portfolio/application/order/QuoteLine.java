@@ -0,0 +1,5 @@
+package org.portfolio.portfolio.application.order;
+
+// 견적 요청 한 줄 (userCouponId 는 null 가능)
+public record QuoteLine(Long itemId, int quantity, Long userCouponId) {
+}
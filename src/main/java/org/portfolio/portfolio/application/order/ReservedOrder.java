@@ -0,0 +1,5 @@
+package org.portfolio.portfolio.application.order;
+
+// 예약 트랜잭션이 커밋된 주문 (finalAmount 가 0이면 이미 결제 완료 상태)
+public record ReservedOrder(Long orderId, long finalAmount) {
+}
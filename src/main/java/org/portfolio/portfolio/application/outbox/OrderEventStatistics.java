@@ -0,0 +1,38 @@
+package org.portfolio.portfolio.application.outbox;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+// 이벤트 타입별 발생 건수를 누적하는 통계 구독자 (orders 테이블을 다시 세지 않고 증분으로 갱신한다)
+@Component
+public class OrderEventStatistics implements OutboxSubscriber {
+
+    // 재전달된 이벤트를 두 번 세지 않도록 최근에 반영한 이벤트 id 를 이만큼 기억한다
+    private static final int SEEN_CAPACITY = 10_000;
+
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final Set<Long> seen = ConcurrentHashMap.newKeySet();
+    private final Queue<Long> seenOrder = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void handle(OutboxMessage message) {
+        if (!seen.add(message.id())) return;
+        seenOrder.add(message.id());
+        while (seenOrder.size() > SEEN_CAPACITY) {
+            Long oldest = seenOrder.poll();
+            if (oldest != null) seen.remove(oldest);
+        }
+        counts.computeIfAbsent(message.eventType(), t -> new LongAdder()).increment();
+    }
+
+    public long count(String eventType) {
+        LongAdder adder = counts.get(eventType);
+        return adder != null ? adder.sum() : 0L;
+    }
+}
@@ -0,0 +1,101 @@
+package org.portfolio.portfolio.application.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.portfolio.portfolio.domain.order.Order;
+import org.portfolio.portfolio.domain.payment.Payment;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Order/Payment 의 status 변경을 감지해 같은 트랜잭션 안에서 outbox_event 에 기록하는 Hibernate 리스너.
+ * 커밋 직전(BeforeTransactionCompletionProcess)에 JDBC 로 넣으므로 상태 변경과 이벤트가 함께 커밋되거나 함께 롤백된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusChangeRecorder implements PostUpdateEventListener {
+
+    static final String AGGREGATE_ORDER = "ORDER";
+    private static final String INSERT_SQL = "insert into outbox_event " +
+            "(aggregate_type, aggregate_id, event_type, payload, created_at, attempts) values (?, ?, ?, ?, ?, 0)";
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (!(entity instanceof Order) && !(entity instanceof Payment)) return;
+        if (!statusChanged(event)) return;
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        Long orderId;
+        String eventType;
+        if (entity instanceof Order order) {
+            orderId = order.getId();
+            eventType = "ORDER_" + order.getStatus().name();
+            payload.put("orderId", orderId);
+            payload.put("userId", order.getUser().getId());
+            payload.put("itemId", order.getItem().getId());
+            payload.put("quantity", order.getQuantity());
+            payload.put("totalPrice", order.getTotalPrice());
+            payload.put("status", order.getStatus().name());
+        } else {
+            Payment payment = (Payment) entity;
+            orderId = payment.getOrder().getId();
+            eventType = "PAYMENT_" + payment.getStatus().name();
+            payload.put("paymentId", payment.getId());
+            payload.put("orderId", orderId);
+            payload.put("amount", payment.getAmount());
+            payload.put("status", payment.getStatus().name());
+        }
+
+        String json = toJson(payload);
+        LocalDateTime now = LocalDateTime.now();
+        event.getSession().getActionQueue().registerProcess((BeforeTransactionCompletionProcess) session ->
+                session.doWork(connection -> {
+                    try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+                        ps.setString(1, AGGREGATE_ORDER);
+                        ps.setLong(2, orderId);
+                        ps.setString(3, eventType);
+                        ps.setString(4, json);
+                        ps.setTimestamp(5, Timestamp.valueOf(now));
+                        ps.executeUpdate();
+                    }
+                }));
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static boolean statusChanged(PostUpdateEvent event) {
+        String[] names = event.getPersister().getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (!"status".equals(names[i])) continue;
+            Object[] oldState = event.getOldState();
+            // 분리 상태에서 merge 된 경우처럼 이전 값을 모르면 변경으로 본다
+            return oldState == null || !Objects.equals(oldState[i], event.getState()[i]);
+        }
+        return false;
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("아웃박스 이벤트 직렬화 실패", e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.portfolio.portfolio.application.outbox;
+
+import java.time.LocalDateTime;
+
+// 구독자에게 전달되는 아웃박스 이벤트 (같은 이벤트가 두 번 이상 전달될 수 있으므로 id 로 중복을 거른다)
+public record OutboxMessage(Long id, String aggregateType, Long aggregateId, String eventType,
+                            String payload, LocalDateTime createdAt) {
+}
@@ -0,0 +1,121 @@
+package org.portfolio.portfolio.application.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.domain.outbox.OutboxEvent;
+import org.portfolio.portfolio.domain.outbox.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * outbox_event 를 id 순으로 묶어 읽어 구독자들에게 발행한다.
+ * 모든 구독자가 처리한 이벤트만 발행 완료로 표시하고(at-least-once),
+ * 구독자가 실패한 주문은 이번 주기의 남은 이벤트를 건너뛰어 주문 단위 순서를 지킨다.
+ * 실패한 이벤트는 시도 횟수에 따라 지수적으로 늘어나는 시간만큼 미루고(그동안 같은 주문의 뒤 이벤트도 조회에서 빠진다),
+ * max-attempts 번 실패하면 dead_at 을 채워 더 발행하지 않는다.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSubscriber> subscribers;
+    private final int batchSize;
+    private final long retentionHours;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long maxBackoffMillis;
+    private final ReentrantLock relayLock = new ReentrantLock();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxSubscriber> subscribers,
+                       @Value("${timedeal.outbox.batch-size:200}") int batchSize,
+                       @Value("${timedeal.outbox.retention-hours:72}") long retentionHours,
+                       @Value("${timedeal.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${timedeal.outbox.retry-backoff-ms:1000}") long retryBackoffMillis,
+                       @Value("${timedeal.outbox.max-backoff-ms:300000}") long maxBackoffMillis) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.subscribers = subscribers;
+        this.batchSize = batchSize;
+        this.retentionHours = retentionHours;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    // 발행한 건수를 돌려준다
+    @Scheduled(fixedDelayString = "${timedeal.outbox.relay-interval-ms:200}")
+    public int relay() {
+        if (!relayLock.tryLock()) return 0;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = outboxEventRepository.findUnpublished(now, PageRequest.of(0, batchSize));
+            if (events.isEmpty()) return 0;
+
+            List<Long> published = new ArrayList<>(events.size());
+            Set<Long> blocked = new HashSet<>();
+            for (OutboxEvent event : events) {
+                if (blocked.contains(event.getAggregateId())) continue;
+                if (dispatch(event)) {
+                    published.add(event.getId());
+                } else {
+                    blocked.add(event.getAggregateId());
+                    recordFailure(event, now);
+                }
+            }
+            if (!published.isEmpty()) {
+                outboxEventRepository.markPublished(published, now);
+            }
+            return published.size();
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${timedeal.outbox.cleanup-interval-ms:3600000}")
+    public void purgePublished() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) log.debug("발행된 아웃박스 이벤트 {}건을 정리했습니다.", deleted);
+    }
+
+    private void recordFailure(OutboxEvent event, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            log.error("아웃박스 이벤트를 {}번 처리하지 못해 발행을 포기합니다. id={}, type={}, aggregateId={}",
+                    attempts, event.getId(), event.getEventType(), event.getAggregateId());
+            outboxEventRepository.recordFailure(event.getId(), null, now);
+            return;
+        }
+        outboxEventRepository.recordFailure(event.getId(), now.plus(backoff(attempts), ChronoUnit.MILLIS), null);
+    }
+
+    // 1, 2, 4, ... 배씩 늘리고 max-backoff-ms 에서 멈춘다
+    long backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        return Math.min(maxBackoffMillis, retryBackoffMillis << shift);
+    }
+
+    private boolean dispatch(OutboxEvent event) {
+        OutboxMessage message = new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+        for (OutboxSubscriber subscriber : subscribers) {
+            try {
+                subscriber.handle(message);
+            } catch (RuntimeException e) {
+                log.warn("아웃박스 이벤트 처리 실패: id={}, type={}, subscriber={}",
+                        event.getId(), event.getEventType(), subscriber.getClass().getSimpleName(), e);
+                return false;
+            }
+        }
+        return true;
+    }
+}
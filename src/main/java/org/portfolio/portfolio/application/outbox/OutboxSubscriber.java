@@ -0,0 +1,12 @@
+package org.portfolio.portfolio.application.outbox;
+
+/**
+ * 아웃박스 릴레이가 발행하는 주문/결제 이벤트 구독자 (캐시, 읽기 모델, 통계 등).
+ * 최소 한 번(at-least-once) 전달이며 같은 주문의 이벤트는 기록 순서대로 온다.
+ * 예외를 던지면 재시도 간격(시도마다 두 배)이 지난 뒤 해당 주문의 이후 이벤트와 함께 다시 전달되고,
+ * timedeal.outbox.max-attempts 번 실패한 이벤트는 더 전달되지 않는다 (dead_at, 수동 처리 대상).
+ */
+public interface OutboxSubscriber {
+
+    void handle(OutboxMessage message);
+}
@@ -0,0 +1,5 @@
+package org.portfolio.portfolio.application.payment;
+
+// 묶음 승인 요청 한 건
+public record PaymentAuthorization(long amount, String orderId) {
+}
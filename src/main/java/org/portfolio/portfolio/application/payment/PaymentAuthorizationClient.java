@@ -0,0 +1,351 @@
+package org.portfolio.portfolio.application.payment;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * PG 승인 클라이언트.
+ * - 단건 승인은 authorizeAsync 로 보내고 호출마다 데드라인을 둔다. 데드라인이 지나면 승인됐을 수도 있으므로 결과를 모름(unknown)으로 끝낸다.
+ * - 게이트웨이가 멱등 재시도를 지원하고 헤지가 켜져 있으면, 응답이 늦을 때 같은 orderId 로 추가 요청을 보내 먼저 온 응답을 쓴다.
+ * - 모든 호출은 서킷 브레이커/bulkhead 권한을 얻은 뒤에 보낸다. 거절되면 게이트웨이를 부르지 않고 실패 결과를 돌려준다.
+ * - 마이크로 배칭이 켜져 있으면 동시에 들어온 요청을 N건 또는 짧은 시간 창 단위로 모아 authorizeBatch 한 번으로 보내고,
+ *   결과를 요청 순서대로 각 호출자에게 돌려준다.
+ * - 묶음 경로도 단건과 같은 호출 데드라인(deadline-ms 와 result-timeout-ms 중 작은 값)만 기다린다.
+ *   데드라인이 지나면 아직 묶음에 실리지 않은 요청은 빼고, 이미 보낸 요청은 결과를 모르는 채로(unknown) 끝낸다.
+ */
+@Slf4j
+@Component
+public class PaymentAuthorizationClient {
+
+    static final String TIMEOUT_REASON = "PG 응답 시간 초과";
+    static final String REJECTED_REASON = "PG 호출 차단(서킷 브레이커/동시 호출 제한)";
+    static final String RESULT_TIMEOUT_REASON = "PG 승인 결과 대기 시간 초과";
+
+    private final PaymentGateway paymentGateway;
+    private final PaymentCircuitBreaker circuitBreaker;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long resultTimeoutMs;
+    private final ExecutorService drainExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService callExecutor;
+    // 블로킹 게이트웨이의 단건 호출용. bulkhead 크기만큼만 스레드를 두고, 넘치는 호출은 실패한 시도로 처리한다
+    private final ThreadPoolExecutor asyncExecutor;
+    private final ScheduledExecutorService hedgeTimer = Executors.newSingleThreadScheduledExecutor();
+    private final long deadlineMs;
+    // 묶음 경로의 호출 데드라인. 단건 경로의 데드라인보다 길게 기다리지 않는다
+    private final long batchDeadlineMs;
+    private final boolean hedging;
+    private final long hedgeDelayMs;
+    private final int hedgeMaxAttempts;
+
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean batching;
+
+    public PaymentAuthorizationClient(PaymentGateway paymentGateway,
+                                      PaymentCircuitBreaker circuitBreaker,
+                                      @Value("${timedeal.payment.batch.enabled:false}") boolean batching,
+                                      @Value("${timedeal.payment.batch.max-batch-size:50}") int maxBatchSize,
+                                      @Value("${timedeal.payment.batch.max-wait-ms:2}") long maxWaitMs,
+                                      @Value("${timedeal.payment.batch.concurrency:4}") int concurrency,
+                                      @Value("${timedeal.payment.batch.result-timeout-ms:10000}") long resultTimeoutMs,
+                                      @Value("${timedeal.payment.deadline-ms:3000}") long deadlineMs,
+                                      @Value("${timedeal.payment.hedge.enabled:false}") boolean hedging,
+                                      @Value("${timedeal.payment.hedge.delay-ms:200}") long hedgeDelayMs,
+                                      @Value("${timedeal.payment.hedge.max-attempts:2}") int hedgeMaxAttempts,
+                                      @Value("${timedeal.payment.bulkhead.max-concurrent:200}") int maxConcurrent) {
+        this.paymentGateway = paymentGateway;
+        this.circuitBreaker = circuitBreaker;
+        this.batching = batching;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.resultTimeoutMs = resultTimeoutMs;
+        this.callExecutor = Executors.newFixedThreadPool(concurrency);
+        this.deadlineMs = deadlineMs;
+        this.batchDeadlineMs = Math.min(deadlineMs, resultTimeoutMs);
+        this.hedging = hedging;
+        this.hedgeDelayMs = hedgeDelayMs;
+        this.hedgeMaxAttempts = Math.max(1, hedgeMaxAttempts);
+        int asyncThreads = Math.max(1, maxConcurrent);
+        this.asyncExecutor = new ThreadPoolExecutor(asyncThreads, asyncThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(asyncThreads), r -> {
+                    Thread t = new Thread(r, "payment-async");
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.asyncExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    public void setBatching(boolean batching) {
+        this.batching = batching;
+    }
+
+    public boolean isBatching() {
+        return batching;
+    }
+
+    // 한 건 승인. 배칭 중이면 다른 요청과 묶여 전송되고 자신의 결과만 받는다
+    public PaymentResult authorize(long amount, String orderId) {
+        if (!batching) {
+            return await(authorizeAsync(amount, orderId), resultTimeoutMs, PaymentResult.unknown(RESULT_TIMEOUT_REASON));
+        }
+        Pending p = new Pending(new PaymentAuthorization(amount, orderId));
+        pending.add(p);
+        size.incrementAndGet();
+        scheduleDrain();
+        return await(p.result, batchDeadlineMs, PaymentResult.unknown(TIMEOUT_REASON));
+    }
+
+    /**
+     * 데드라인과 헤지를 적용한 비동기 승인.
+     * 데드라인 안에 응답이 없으면 결과를 모름(unknown)으로 완료한다. 늦게 도착한 승인은 버려지고, 대기 주문 복구가 망취소로 정리한다.
+     */
+    public CompletableFuture<PaymentResult> authorizeAsync(long amount, String orderId) {
+        PaymentCircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            return CompletableFuture.completedFuture(PaymentResult.failure(REJECTED_REASON));
+        }
+        Call call = new Call(amount, orderId, permit, hedging && paymentGateway.supportsIdempotentRetry() ? hedgeMaxAttempts : 1);
+        attempt(call);
+        for (int i = 1; i < call.attempts; i++) {
+            // 앞선 시도가 hedge delay 안에 끝나지 않으면 같은 orderId 로 한 번 더 보낸다
+            ScheduledFuture<?> hedge = hedgeTimer.schedule(() -> attempt(call), hedgeDelayMs * i, TimeUnit.MILLISECONDS);
+            call.result.whenComplete((r, e) -> hedge.cancel(false));
+        }
+        ScheduledFuture<?> deadline = hedgeTimer.schedule(
+                () -> call.result.complete(PaymentResult.unknown(TIMEOUT_REASON)), deadlineMs, TimeUnit.MILLISECONDS);
+        call.result.whenComplete((r, e) -> deadline.cancel(false));
+        return call.result;
+    }
+
+    // 먼저 도착한 응답(승인/거절)이 결과가 된다. 예외는 모든 시도가 실패했을 때만 전달한다
+    private void attempt(Call call) {
+        // 결과가 정해진 뒤에는 새 시도를 보내지 않는다 (확인 전에 먼저 세어 권한 반납과 엇갈리지 않게 한다)
+        call.outstanding.incrementAndGet();
+        if (call.result.isDone()) {
+            call.attemptFinished();
+            return;
+        }
+        CompletableFuture<PaymentResult> future;
+        try {
+            future = paymentGateway.authorizeAsync(call.amount, call.orderId, asyncExecutor);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((r, e) -> {
+            if (e == null) call.result.complete(r);
+            else if (call.failures.incrementAndGet() >= call.attempts) {
+                call.result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+            call.attemptFinished();
+        });
+    }
+
+    // 승인 취소. 게이트웨이 오류는 취소를 확인하지 못한 것으로 본다
+    public boolean voidAuthorization(String orderId) {
+        try {
+            return paymentGateway.voidAuthorization(orderId);
+        } catch (RuntimeException e) {
+            log.warn("PG 승인 취소 실패: orderId={}", orderId, e);
+            return false;
+        }
+    }
+
+    // 이미 묶여 있는 요청(group-commit 배치 등)은 큐를 거치지 않고 바로 한 번에 보낸다
+    public List<PaymentResult> authorizeAll(List<PaymentAuthorization> authorizations) {
+        if (authorizations.isEmpty()) return List.of();
+        if (!batching) {
+            // 건별 비동기 호출을 한꺼번에 보내고 각자의 데드라인 안에서 결과를 모은다
+            List<CompletableFuture<PaymentResult>> calls = authorizations.stream()
+                    .map(a -> authorizeAsync(a.amount(), a.orderId())
+                            .exceptionally(e -> PaymentResult.failure("PG 호출 실패: " + e.getMessage())))
+                    .toList();
+            List<PaymentResult> results = new ArrayList<>(calls.size());
+            for (CompletableFuture<PaymentResult> call : calls) {
+                results.add(await(call, resultTimeoutMs, PaymentResult.unknown(RESULT_TIMEOUT_REASON)));
+            }
+            return results;
+        }
+        // 묶음 호출은 별도 스레드에서 보내고 호출 데드라인까지만 기다린다. 멈춘 PG 에 호출자가 묶이지 않는다
+        CompletableFuture<List<PaymentResult>> result = new CompletableFuture<>();
+        callExecutor.execute(() -> {
+            // 기다리던 호출자가 이미 포기했으면 보내지 않는다
+            if (result.isDone()) return;
+            try {
+                result.complete(callBatch(authorizations));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        List<PaymentResult> unknown = authorizations.stream().map(a -> PaymentResult.unknown(TIMEOUT_REASON)).toList();
+        return await(result, batchDeadlineMs, unknown);
+    }
+
+    // 묶음 한 번을 호출 한 건으로 보고 브레이커 권한을 얻는다. 거절되면 묶음 전체를 실패 결과로 돌려준다
+    private List<PaymentResult> callBatch(List<PaymentAuthorization> authorizations) {
+        PaymentCircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            return authorizations.stream().map(a -> PaymentResult.failure(REJECTED_REASON)).toList();
+        }
+        boolean failed = true;
+        try {
+            List<PaymentResult> results = paymentGateway.authorizeBatch(authorizations);
+            if (results == null || results.size() != authorizations.size()) {
+                log.warn("PG 묶음 승인 결과 불일치: requested={}, returned={}", authorizations.size(), results == null ? null : results.size());
+                throw new IllegalStateException("묶음 승인 결과 수가 요청 수와 다릅니다.");
+            }
+            failed = false;
+            return results;
+        } finally {
+            circuitBreaker.release(permit, failed);
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            drainExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (size.get() > 0) {
+                waitForWindow();
+                List<Pending> batch = new ArrayList<>(maxBatchSize);
+                Pending next;
+                while (batch.size() < maxBatchSize && (next = pending.poll()) != null) {
+                    batch.add(next);
+                }
+                size.addAndGet(-batch.size());
+                // 묶음 호출은 별도 스레드에서 보내고 바로 다음 묶음을 모은다
+                if (!batch.isEmpty()) callExecutor.execute(() -> dispatch(batch));
+            }
+        } finally {
+            draining.set(false);
+        }
+        // 플래그를 내리는 사이 들어온 요청이 있으면 다시 처리를 예약한다
+        if (size.get() > 0) {
+            scheduleDrain();
+        }
+    }
+
+    // 묶음이 가득 차거나 시간 창이 끝날 때까지 잠깐 기다려 요청을 더 모은다
+    private void waitForWindow() {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (size.get() < maxBatchSize && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(100_000L);
+        }
+    }
+
+    private void dispatch(List<Pending> queued) {
+        // 기다리던 호출자가 이미 포기한 요청은 보내지 않는다
+        List<Pending> batch = queued.stream().filter(p -> !p.result.isDone()).toList();
+        if (batch.isEmpty()) return;
+        List<PaymentResult> results;
+        try {
+            results = callBatch(batch.stream().map(p -> p.authorization).toList());
+        } catch (RuntimeException e) {
+            batch.forEach(p -> p.result.completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result.complete(results.get(i));
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> result, long timeoutMs, T unknown) {
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            return giveUp(result, timeoutMs, unknown);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return giveUp(result, timeoutMs, unknown);
+        }
+    }
+
+    // 결과 대기를 포기한다. 이미 보내졌을 수 있으므로 실패가 아니라 결과를 모름으로 끝낸다
+    private <T> T giveUp(CompletableFuture<T> result, long timeoutMs, T unknown) {
+        // 그 사이 결과가 도착했으면 그 결과를 쓴다 (완료된 future 는 기다리지 않는다)
+        return result.complete(unknown) ? unknown : await(result, timeoutMs, unknown);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainExecutor.shutdown();
+        callExecutor.shutdown();
+        asyncExecutor.shutdown();
+        hedgeTimer.shutdownNow();
+    }
+
+    /**
+     * 단건 승인 한 번(헤지 시도 포함). 브레이커 권한은 데드라인이 아니라 실제로 보낸 시도가 모두 끝났을 때 반납한다.
+     * 데드라인이 지난 뒤 끝난 시도까지 bulkhead 자리를 차지하므로, 멈춘 PG 로 호출이 무한히 쌓이지 않는다.
+     */
+    private final class Call {
+        private final long amount;
+        private final String orderId;
+        private final PaymentCircuitBreaker.Permit permit;
+        private final int attempts;
+        private final CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Call(long amount, String orderId, PaymentCircuitBreaker.Permit permit, int attempts) {
+            this.amount = amount;
+            this.orderId = orderId;
+            this.permit = permit;
+            this.attempts = attempts;
+            // 시도 없이 끝나는 경우(모든 헤지 취소 등)에도 반납되도록 결과 완료 시점에도 확인한다
+            result.whenComplete((r, e) -> releaseIfSettled());
+        }
+
+        private void attemptFinished() {
+            outstanding.decrementAndGet();
+            releaseIfSettled();
+        }
+
+        // 결과가 정해졌고 보낸 시도가 모두 끝났으면 한 번만 반납한다.
+        // 모든 시도의 예외와 데드라인 초과(unknown)만 브레이커 실패로 센다 (승인 거절은 PG 가 정상 응답한 것)
+        private void releaseIfSettled() {
+            if (!result.isDone() || outstanding.get() > 0) return;
+            if (released.compareAndSet(false, true)) {
+                circuitBreaker.release(permit, result.isCompletedExceptionally() || result.join().isUnknown());
+            }
+        }
+    }
+
+    private static final class Pending {
+        private final PaymentAuthorization authorization;
+        private final CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+
+        private Pending(PaymentAuthorization authorization) {
+            this.authorization = authorization;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package org.portfolio.portfolio.application.payment;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.application.exception.PaymentFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PG 호출 앞단의 서킷 브레이커 + 동시 호출 bulkhead.
+ * - CLOSED: 최근 N건 중 실패(예외/시간 초과) 비율이 임계치를 넘으면 OPEN 으로 바꾼다. 승인 거절은 실패로 세지 않는다.
+ * - OPEN: open-duration 동안 호출을 보내지 않고, 주문은 재고를 잡기 전에 바로 거절한다.
+ * - HALF_OPEN: 시험 호출 몇 건만 보내 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN.
+ * 권한(Permit)에는 얻을 때의 상태 세대가 붙는다. 상태가 바뀐 뒤 도착한 이전 세대 호출의 결과는 bulkhead 만 돌려주고 집계하지 않는다.
+ * 상태와 거절 수는 payment.circuit.* 지표로 노출한다.
+ */
+@Slf4j
+@Component
+public class PaymentCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    // PG 호출 권한. probe 는 HALF_OPEN 시험 호출 자리를 차지한 권한이다
+    public static final class Permit {
+        private final long generation;
+        private final boolean probe;
+
+        private Permit(long generation, boolean probe) {
+            this.generation = generation;
+            this.probe = probe;
+        }
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenPermits;
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // 최근 호출 결과 링 버퍼 (true = 실패)
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private volatile State state = State.CLOSED;
+    // 상태가 바뀔 때마다 증가한다
+    private volatile long generation;
+    private volatile long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    private final LongAdder rejectedOpen = new LongAdder();
+    private final LongAdder rejectedBulkhead = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    public PaymentCircuitBreaker(MeterRegistry meterRegistry,
+                                 @Value("${timedeal.payment.circuit.window-size:20}") int windowSize,
+                                 @Value("${timedeal.payment.circuit.minimum-calls:10}") int minimumCalls,
+                                 @Value("${timedeal.payment.circuit.failure-rate-threshold:0.5}") double failureRateThreshold,
+                                 @Value("${timedeal.payment.circuit.open-duration-ms:5000}") long openDurationMs,
+                                 @Value("${timedeal.payment.circuit.half-open-permits:3}") int halfOpenPermits,
+                                 @Value("${timedeal.payment.bulkhead.max-concurrent:200}") int maxConcurrent,
+                                 @Value("${timedeal.payment.bulkhead.max-wait-ms:1000}") long bulkheadWaitMs) {
+        if (windowSize <= 0) throw new IllegalArgumentException("서킷 브레이커 윈도 크기는 1 이상이어야 합니다.");
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(Math.max(1, minimumCalls), windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.halfOpenPermits = Math.max(1, halfOpenPermits);
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.bulkheadWaitMs = bulkheadWaitMs;
+        this.outcomes = new boolean[windowSize];
+
+        Gauge.builder("payment.circuit.state", this, b -> b.state.ordinal())
+                .description("0=CLOSED, 1=OPEN, 2=HALF_OPEN").register(meterRegistry);
+        FunctionCounter.builder("payment.circuit.rejected", rejectedOpen, LongAdder::sum)
+                .tag("reason", "open").register(meterRegistry);
+        FunctionCounter.builder("payment.circuit.rejected", rejectedBulkhead, LongAdder::sum)
+                .tag("reason", "bulkhead").register(meterRegistry);
+        FunctionCounter.builder("payment.circuit.opened", opened, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("payment.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .register(meterRegistry);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // 주문 진입 시점의 빠른 거절. 시험 호출 자리를 차지하지 않는다
+    public void ensureAvailable() {
+        if (state == State.OPEN && System.nanoTime() - openedAt < openDurationNanos) {
+            rejectedOpen.increment();
+            throw new PaymentFailedException("결제 시스템 장애로 잠시 주문을 받을 수 없습니다.");
+        }
+    }
+
+    /**
+     * PG 호출 권한을 얻는다. 거절되면 null 을 돌려주고, 얻었으면 실제 호출이 모두 끝난 뒤 반드시 release 를 부른다.
+     */
+    public Permit tryAcquire() {
+        Permit permit = tryAcquireCircuit();
+        if (permit == null) {
+            rejectedOpen.increment();
+            return null;
+        }
+        boolean acquired;
+        try {
+            acquired = bulkheadWaitMs > 0
+                    ? bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS)
+                    : bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedBulkhead.increment();
+            returnProbe(permit);
+            return null;
+        }
+        return permit;
+    }
+
+    // failed: 예외나 시간 초과처럼 PG 상태를 의심할 결과인지
+    public void release(Permit permit, boolean failed) {
+        bulkhead.release();
+        lock.lock();
+        try {
+            // 권한을 얻은 뒤 상태가 바뀌었으면 (CLOSED 때 시작된 호출이 HALF_OPEN 에 끝나는 등) 집계하지 않는다
+            if (permit.generation != generation) return;
+            switch (state) {
+                case CLOSED -> {
+                    if (!permit.probe) record(failed);
+                }
+                case HALF_OPEN -> {
+                    if (!permit.probe) return;
+                    halfOpenInFlight--;
+                    if (failed) {
+                        open();
+                    } else if (++halfOpenSucceeded >= halfOpenPermits) {
+                        close();
+                    }
+                }
+                case OPEN -> { }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Permit tryAcquireCircuit() {
+        // 세대를 먼저 읽는다. 읽은 뒤 상태가 바뀌면 이 권한은 이전 세대로 남아 집계되지 않는다
+        long current = generation;
+        if (state == State.CLOSED) return new Permit(current, false);
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openDurationNanos) return null;
+                transitionTo(State.HALF_OPEN);
+                halfOpenInFlight = 0;
+                halfOpenSucceeded = 0;
+                log.info("PG 서킷 브레이커 HALF_OPEN: 시험 호출 {}건", halfOpenPermits);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenInFlight + halfOpenSucceeded >= halfOpenPermits) return null;
+                halfOpenInFlight++;
+                return new Permit(generation, true);
+            }
+            return new Permit(generation, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void returnProbe(Permit permit) {
+        if (!permit.probe) return;
+        lock.lock();
+        try {
+            if (permit.generation == generation && halfOpenInFlight > 0) halfOpenInFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // lock 을 잡은 상태에서만 부른다
+    private void transitionTo(State next) {
+        generation++;
+        state = next;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == windowSize) {
+            if (outcomes[next]) failures--;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) failures++;
+        next = (next + 1) % windowSize;
+
+        if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        transitionTo(State.OPEN);
+        openedAt = System.nanoTime();
+        opened.increment();
+        log.warn("PG 서킷 브레이커 OPEN: failures={}/{}", failures, recorded);
+    }
+
+    private void close() {
+        transitionTo(State.CLOSED);
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        log.info("PG 서킷 브레이커 CLOSED");
+    }
+}
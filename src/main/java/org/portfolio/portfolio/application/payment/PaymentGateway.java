@@ -1,5 +1,43 @@
 package org.portfolio.portfolio.application.payment;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 public interface PaymentGateway {
     PaymentResult authorize(long amount, String orderId);
+
+    /**
+     * 여러 건을 한 번의 호출로 승인한다. 결과는 요청과 같은 순서로 돌려준다.
+     * 묶음 승인을 지원하지 않는 게이트웨이는 기본 구현대로 한 건씩 호출한다.
+     */
+    default List<PaymentResult> authorizeBatch(List<PaymentAuthorization> authorizations) {
+        List<PaymentResult> results = new ArrayList<>(authorizations.size());
+        for (PaymentAuthorization authorization : authorizations) {
+            results.add(authorize(authorization.amount(), authorization.orderId()));
+        }
+        return results;
+    }
+
+    /**
+     * 비동기 승인. 기본 구현은 블로킹 authorize 를 주어진 executor 에서 실행한다.
+     * 응답을 스레드 없이 기다릴 수 있는 게이트웨이는 재정의해서 호출 스레드를 점유하지 않게 한다.
+     */
+    default CompletableFuture<PaymentResult> authorizeAsync(long amount, String orderId, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> authorize(amount, orderId), executor);
+    }
+
+    /**
+     * 주문의 승인을 취소(망취소)한다. 승인된 적이 없으면 아무 일도 하지 않고 true 를 돌려준다.
+     * 승인이 남아 있지 않음을 확인할 수 없으면 false — 호출하는 쪽은 주문을 그대로 두고 수동 정산에 맡긴다.
+     */
+    default boolean voidAuthorization(String orderId) {
+        return false;
+    }
+
+    // 같은 orderId 로 다시 보내도 한 번만 승인되는지 (헤지 요청은 이 경우에만 보낸다)
+    default boolean supportsIdempotentRetry() {
+        return false;
+    }
 }
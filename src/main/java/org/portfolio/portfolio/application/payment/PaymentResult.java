@@ -10,12 +10,18 @@ public class PaymentResult {
     private final String transactionId;
     private final long approvedAmount;
     private final String failureReason;
+    // 응답을 받지 못해 승인 여부를 알 수 없음. 실패로 보고 보상하면 안 되고, 대기 주문 복구가 승인 취소 후 정리한다
+    private final boolean unknown;
 
     public static PaymentResult success(String transactionId, long approvedAmount) {
-        return new PaymentResult(true, transactionId, approvedAmount, null);
+        return new PaymentResult(true, transactionId, approvedAmount, null, false);
     }
 
     public static PaymentResult failure(String reason) {
-        return new PaymentResult(false, null, 0L, reason);
+        return new PaymentResult(false, null, 0L, reason, false);
+    }
+
+    public static PaymentResult unknown(String reason) {
+        return new PaymentResult(false, null, 0L, reason, true);
     }
 }
@@ -0,0 +1,45 @@
+package org.portfolio.portfolio.application.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.application.exception.InsufficientStockException;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.domain.item.Item;
+import org.portfolio.portfolio.domain.item.ItemRepository;
+import org.springframework.stereotype.Component;
+
+// 조건부 UPDATE 한 문장으로 검증과 차감을 끝낸다. 행 락은 UPDATE 실행 동안만 잡힌다
+@Component
+@RequiredArgsConstructor
+public class AtomicUpdateStockDecrementStrategy implements StockDecrementStrategy {
+
+    private final ItemRepository itemRepository;
+    private final SoldOutRegistry soldOutRegistry;
+
+    @Override
+    public StockDecrementMode mode() {
+        return StockDecrementMode.ATOMIC_UPDATE;
+    }
+
+    @Override
+    public Item decrease(Long itemId, int quantity) {
+        if (itemRepository.decreaseStockIfAvailable(itemId, quantity) == 0) {
+            int stock = itemRepository.findStockById(itemId)
+                    .orElseThrow(() -> new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId));
+            if (stock == 0) soldOutRegistry.markSoldOut(itemId);
+            throw new InsufficientStockException("재고가 부족합니다.");
+        }
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId));
+        // 벌크 UPDATE 는 엔티티 리스너를 거치지 않으므로 품절 표시를 직접 예약한다
+        if (item.getStock() == 0) soldOutRegistry.markSoldOutAfterCommit(itemId);
+        return item;
+    }
+
+    @Override
+    public void restore(Long itemId, int quantity) {
+        if (itemRepository.applyStockDelta(itemId, -quantity) == 0) {
+            throw new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId);
+        }
+        soldOutRegistry.clear(itemId);
+    }
+}
@@ -0,0 +1,33 @@
+package org.portfolio.portfolio.application.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.portfolio.portfolio.domain.item.Item;
+import org.springframework.stereotype.Component;
+
+// Item 재고 변경을 품절 목록에 반영하는 Hibernate 리스너 (HibernateEventListenerConfig 에서 등록한다)
+@Component
+@RequiredArgsConstructor
+public class ItemStockListener implements PostUpdateEventListener {
+
+    private final SoldOutRegistry soldOutRegistry;
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Item item)) return;
+        Long itemId = item.getId();
+        // 재입고(increaseStock 등)로 재고가 생기면 즉시 품절 표시를 해제한다
+        if (item.getStock() > 0) {
+            soldOutRegistry.clear(itemId);
+            return;
+        }
+        soldOutRegistry.markSoldOutAfterCommit(itemId);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package org.portfolio.portfolio.application.stock;
+
+import org.portfolio.portfolio.application.exception.InsufficientStockException;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.domain.item.Item;
+import org.portfolio.portfolio.domain.item.ItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// @Version 으로 충돌을 감지하고, 충돌 시 지터를 준 지수 백오프 후 트랜잭션 전체를 재시도한다
+@Component
+public class OptimisticStockDecrementStrategy implements StockDecrementStrategy {
+
+    private final ItemRepository itemRepository;
+    private final SoldOutRegistry soldOutRegistry;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticStockDecrementStrategy(ItemRepository itemRepository,
+                                            SoldOutRegistry soldOutRegistry,
+                                            @Value("${timedeal.stock.optimistic.max-attempts:5}") int maxAttempts,
+                                            @Value("${timedeal.stock.optimistic.base-backoff-ms:5}") long baseBackoffMs,
+                                            @Value("${timedeal.stock.optimistic.max-backoff-ms:100}") long maxBackoffMs) {
+        this.itemRepository = itemRepository;
+        this.soldOutRegistry = soldOutRegistry;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Override
+    public StockDecrementMode mode() {
+        return StockDecrementMode.OPTIMISTIC;
+    }
+
+    @Override
+    public Item decrease(Long itemId, int quantity) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId));
+        if (item.getStock() < quantity) {
+            if (item.getStock() == 0) soldOutRegistry.markSoldOut(itemId);
+            throw new InsufficientStockException("재고가 부족합니다.");
+        }
+        item.decreaseStock(quantity);
+        // 결제 단계까지 가기 전에 버전 충돌을 드러내도록 즉시 flush 한다
+        itemRepository.flush();
+        return item;
+    }
+
+    @Override
+    public void restore(Long itemId, int quantity) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId));
+        item.increaseStock(quantity);
+        itemRepository.flush();
+    }
+
+    @Override
+    public <T> T execute(Supplier<T> transaction) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) throw e;
+                backoff(attempt);
+            }
+        }
+    }
+
+    // full jitter: [0, min(max, base * 2^attempt)) 사이에서 무작위로 쉰다
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt, 20));
+        long sleepMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            TimeUnit.MILLISECONDS.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 대기 중 인터럽트되었습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.portfolio.portfolio.application.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.application.exception.InsufficientStockException;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.domain.item.Item;
+import org.portfolio.portfolio.domain.item.ItemRepository;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PessimisticStockDecrementStrategy implements StockDecrementStrategy {
+
+    private final ItemRepository itemRepository;
+    private final SoldOutRegistry soldOutRegistry;
+
+    @Override
+    public StockDecrementMode mode() {
+        return StockDecrementMode.PESSIMISTIC;
+    }
+
+    @Override
+    public Item decrease(Long itemId, int quantity) {
+        Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId));
+        if (item.getStock() < quantity) {
+            // 락을 잡고 읽은 값이 0이면 커밋된 품절 상태이므로 이후 요청은 DB 까지 오지 않게 한다
+            if (item.getStock() == 0) soldOutRegistry.markSoldOut(itemId);
+            throw new InsufficientStockException("재고가 부족합니다.");
+        }
+        item.decreaseStock(quantity);
+        return item;
+    }
+
+    @Override
+    public void restore(Long itemId, int quantity) {
+        Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId));
+        item.increaseStock(quantity);
+    }
+}
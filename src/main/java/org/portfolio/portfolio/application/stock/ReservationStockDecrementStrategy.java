@@ -0,0 +1,33 @@
+package org.portfolio.portfolio.application.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.domain.item.Item;
+import org.portfolio.portfolio.domain.item.ItemRepository;
+import org.springframework.stereotype.Component;
+
+// 메모리 예약 엔진에서 재고를 선점하고, item 은 가격 계산용으로만 락 없이 읽는다
+@Component
+@RequiredArgsConstructor
+public class ReservationStockDecrementStrategy implements StockDecrementStrategy {
+
+    private final StockReservationEngine stockReservationEngine;
+    private final ItemRepository itemRepository;
+
+    @Override
+    public StockDecrementMode mode() {
+        return StockDecrementMode.RESERVATION;
+    }
+
+    @Override
+    public Item decrease(Long itemId, int quantity) {
+        stockReservationEngine.reserve(itemId, quantity);
+        return itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId));
+    }
+
+    @Override
+    public void restore(Long itemId, int quantity) {
+        stockReservationEngine.restore(itemId, quantity);
+    }
+}
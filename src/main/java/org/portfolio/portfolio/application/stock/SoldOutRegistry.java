@@ -0,0 +1,49 @@
+package org.portfolio.portfolio.application.stock;
+
+import org.portfolio.portfolio.application.exception.SoldOutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 품절이 확정된 상품 ID 목록.
+ * 주문 요청은 트랜잭션/커넥션을 잡기 전에 이 목록을 먼저 확인하고, 재입고되면 목록에서 빠진다.
+ */
+@Component
+public class SoldOutRegistry {
+
+    private final Set<Long> soldOutItemIds = ConcurrentHashMap.newKeySet();
+
+    public void markSoldOut(Long itemId) {
+        if (itemId != null) soldOutItemIds.add(itemId);
+    }
+
+    // 결제 실패 롤백 시 재고가 되살아나므로, 트랜잭션 안에서는 커밋이 확정된 뒤에만 품절로 표시한다
+    public void markSoldOutAfterCommit(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markSoldOut(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markSoldOut(itemId);
+            }
+        });
+    }
+
+    public void clear(Long itemId) {
+        if (itemId != null) soldOutItemIds.remove(itemId);
+    }
+
+    public boolean isSoldOut(Long itemId) {
+        return itemId != null && soldOutItemIds.contains(itemId);
+    }
+
+    public void ensureNotSoldOut(Long itemId) {
+        if (isSoldOut(itemId)) throw SoldOutException.INSTANCE;
+    }
+}
@@ -0,0 +1,8 @@
+package org.portfolio.portfolio.application.stock;
+
+public enum StockDecrementMode {
+    PESSIMISTIC,    // SELECT ... FOR UPDATE 후 엔티티 차감 (기본)
+    ATOMIC_UPDATE,  // update ... where stock >= ? 조건부 단일 UPDATE
+    OPTIMISTIC,     // @Version 충돌 감지 + 제한된 재시도
+    RESERVATION     // 메모리 재고 예약 엔진 + write-behind
+}
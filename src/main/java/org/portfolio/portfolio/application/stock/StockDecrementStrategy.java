@@ -0,0 +1,21 @@
+package org.portfolio.portfolio.application.stock;
+
+import org.portfolio.portfolio.domain.item.Item;
+
+import java.util.function.Supplier;
+
+public interface StockDecrementStrategy {
+
+    StockDecrementMode mode();
+
+    // 진행 중인 트랜잭션 안에서 재고를 차감하고, 가격 계산에 사용할 Item 을 돌려준다
+    Item decrease(Long itemId, int quantity);
+
+    // 결제 실패 보상: 진행 중인 트랜잭션 안에서 decrease 로 차감한 수량을 되돌린다
+    void restore(Long itemId, int quantity);
+
+    // 주문 트랜잭션 전체를 감싸 실행한다 (낙관적 락 전략은 버전 충돌 시 트랜잭션을 다시 시도한다)
+    default <T> T execute(Supplier<T> transaction) {
+        return transaction.get();
+    }
+}
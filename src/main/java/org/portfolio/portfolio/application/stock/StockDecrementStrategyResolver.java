@@ -0,0 +1,58 @@
+package org.portfolio.portfolio.application.stock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상품(= 타임딜)별 재고 차감 전략을 고른다.
+ * 개별 지정이 없으면 예약 엔진 등록 여부, 그다음 기본 모드 순으로 결정한다.
+ */
+@Component
+public class StockDecrementStrategyResolver {
+
+    private final Map<StockDecrementMode, StockDecrementStrategy> strategies = new EnumMap<>(StockDecrementMode.class);
+    private final Map<Long, StockDecrementMode> itemModes = new ConcurrentHashMap<>();
+    private final StockReservationEngine stockReservationEngine;
+    private final StockDecrementMode defaultMode;
+
+    public StockDecrementStrategyResolver(List<StockDecrementStrategy> strategies,
+                                          StockReservationEngine stockReservationEngine,
+                                          @Value("${timedeal.stock.default-mode:PESSIMISTIC}") StockDecrementMode defaultMode) {
+        strategies.forEach(s -> this.strategies.put(s.mode(), s));
+        this.stockReservationEngine = stockReservationEngine;
+        this.defaultMode = defaultMode;
+    }
+
+    public StockDecrementStrategy resolve(Long itemId) {
+        StockDecrementMode mode = itemModes.get(itemId);
+        if (mode == null) {
+            mode = stockReservationEngine.isEnabled(itemId) ? StockDecrementMode.RESERVATION : defaultMode;
+        }
+        return strategies.get(mode);
+    }
+
+    // 예약 엔진 모드는 카운터 적재가 필요하므로 엔진 등록/해제를 함께 처리한다
+    public void select(Long itemId, StockDecrementMode mode) {
+        if (mode == StockDecrementMode.RESERVATION) {
+            stockReservationEngine.enable(itemId);
+        } else if (stockReservationEngine.isEnabled(itemId)) {
+            stockReservationEngine.disable(itemId);
+        }
+        itemModes.put(itemId, mode);
+    }
+
+    // 한 딜에 묶인 상품들을 같은 모드로 전환한다
+    public void selectForDeal(Collection<Long> itemIds, StockDecrementMode mode) {
+        itemIds.forEach(itemId -> select(itemId, mode));
+    }
+
+    public void reset(Long itemId) {
+        itemModes.remove(itemId);
+    }
+}
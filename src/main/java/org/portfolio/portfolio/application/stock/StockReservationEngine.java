@@ -0,0 +1,216 @@
+package org.portfolio.portfolio.application.stock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.portfolio.portfolio.application.exception.InsufficientStockException;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.domain.item.ItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 타임딜 상품의 재고를 메모리에서 선점하는 예약 엔진 (opt-in).
+ * - 등록된 상품은 item 행 락 없이 스트라이프 카운터에서 예약/거절한다.
+ * - 커밋된 차감분은 주기적으로 item 테이블에 일괄 반영(write-behind)한다.
+ * - 정산(reconcile) 주기마다 DB 재고와 비교해 카운터의 오차를 바로잡는다.
+ */
+@Slf4j
+@Component
+public class StockReservationEngine {
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SoldOutRegistry soldOutRegistry;
+    private final int stripes;
+    private final List<Long> preloadItemIds;
+
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    // 등록 해제됐지만 아직 반영할 차감분이나 진행 중인 예약이 남은 카운터
+    private final Map<Long, StripedStockCounter> retired = new ConcurrentHashMap<>();
+    // 직전 정산에서 관측한 상품별 오차
+    private final Map<Long, Long> observedDrift = new ConcurrentHashMap<>();
+    // flush 는 트랜잭션(DB I/O)을 포함하므로 synchronized 대신 락을 써서 가상 스레드가 고정되지 않게 한다
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public StockReservationEngine(ItemRepository itemRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  SoldOutRegistry soldOutRegistry,
+                                  @Value("${timedeal.stock.reservation.stripes:8}") int stripes,
+                                  @Value("${timedeal.stock.reservation.item-ids:}") List<Long> preloadItemIds) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.soldOutRegistry = soldOutRegistry;
+        this.stripes = stripes;
+        this.preloadItemIds = preloadItemIds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        for (Long itemId : preloadItemIds) {
+            enable(itemId);
+        }
+    }
+
+    // item.stock 값으로 카운터를 적재하고 이후 주문부터 예약 엔진 경로를 사용한다
+    public void enable(Long itemId) {
+        int stock = itemRepository.findStockById(itemId)
+                .orElseThrow(() -> new NotFoundException("상품을 찾을 수 없습니다. id=" + itemId));
+        counters.computeIfAbsent(itemId, id -> new StripedStockCounter(stripes, stock));
+    }
+
+    // 비관적 락 경로로 되돌린다. 남은 차감분은 다음 flush 에서 반영된다
+    public void disable(Long itemId) {
+        StripedStockCounter counter = counters.remove(itemId);
+        if (counter != null) {
+            retired.merge(itemId, counter, (prev, next) -> prev);
+        }
+        flush();
+    }
+
+    public boolean isEnabled(Long itemId) {
+        return itemId != null && counters.containsKey(itemId);
+    }
+
+    // 진행 중인 트랜잭션 안에서 호출한다. 커밋되면 write-behind 대상이 되고, 롤백되면 가용 재고로 돌아간다
+    public void reserve(Long itemId, int quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("재고 예약은 트랜잭션 안에서만 호출할 수 있습니다.");
+        }
+        StripedStockCounter counter = counters.get(itemId);
+        if (counter == null) {
+            throw new IllegalStateException("예약 엔진에 등록되지 않은 상품입니다. id=" + itemId);
+        }
+        if (!counter.tryReserve(quantity)) {
+            if (counter.available() == 0 && counter.inFlight() == 0) soldOutRegistry.markSoldOut(itemId);
+            throw new InsufficientStockException("재고가 부족합니다.");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    counter.confirm(quantity);
+                } else {
+                    counter.release(quantity);
+                }
+            }
+        });
+    }
+
+    // 커밋된 예약을 되돌린다. 엔진에서 빠진 상품이면 item 테이블에 바로 반영한다
+    public void restore(Long itemId, int quantity) {
+        StripedStockCounter counter = counters.get(itemId);
+        if (counter == null) {
+            itemRepository.applyStockDelta(itemId, -quantity);
+            soldOutRegistry.clear(itemId);
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.restock(quantity);
+            soldOutRegistry.clear(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.restock(quantity);
+                soldOutRegistry.clear(itemId);
+            }
+        });
+    }
+
+    public long available(Long itemId) {
+        StripedStockCounter counter = counters.get(itemId);
+        return counter != null ? counter.available() : -1L;
+    }
+
+    // 커밋된 차감분을 상품별로 합쳐 한 트랜잭션에서 반영한다
+    @Scheduled(fixedDelayString = "${timedeal.stock.reservation.flush-interval-ms:50}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        Map<Long, StripedStockCounter> targets = new HashMap<>(retired);
+        targets.putAll(counters);
+
+        Map<Long, Long> batch = new HashMap<>();
+        targets.forEach((itemId, counter) -> {
+            long delta = counter.drainPendingWrite();
+            // 음수는 보상(재고 복구)이 차감보다 많았던 경우
+            if (delta != 0) batch.put(itemId, delta);
+        });
+
+        if (!batch.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        batch.forEach((itemId, delta) -> itemRepository.applyStockDelta(itemId, Math.toIntExact(delta))));
+            } catch (RuntimeException e) {
+                // 실패한 배치는 다음 주기에 다시 반영되도록 되돌려 둔다
+                batch.forEach((itemId, delta) -> targets.get(itemId).restorePendingWrite(delta));
+                log.warn("재고 write-behind 반영 실패: items={}", batch.keySet(), e);
+            }
+        }
+
+        retired.entrySet().removeIf(e -> e.getValue().inFlight() == 0 && e.getValue().pendingWrite() == 0);
+    }
+
+    // DB 재고 - 미반영 차감 - 진행 중 예약 = 가용 재고 가 되도록 보정한다
+    @Scheduled(fixedDelayString = "${timedeal.stock.reservation.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        // flush 가 미반영 차감분을 비운 뒤 DB 에 반영하기 전 사이를 읽지 않도록 같은 락 안에서 정산한다
+        flushLock.lock();
+        try {
+            flushLocked();
+            reconcileLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void reconcileLocked() {
+        counters.forEach((itemId, counter) -> {
+            long pending = counter.pendingWrite();
+            int inFlight = counter.inFlight();
+            long available = counter.available();
+            Integer dbStock = itemRepository.findStockById(itemId).orElse(null);
+            if (dbStock == null) {
+                counters.remove(itemId);
+                observedDrift.remove(itemId);
+                return;
+            }
+            // 스냅샷을 읽는 사이 예약/확정이 진행됐다면 이번 주기는 건너뛴다
+            if (counter.pendingWrite() != pending || counter.inFlight() != inFlight) {
+                observedDrift.remove(itemId);
+                return;
+            }
+
+            // 가용/진행 중 값은 한 번에 읽히지 않으므로 연산 도중의 값이 섞일 수 있다.
+            // 같은 오차가 두 번 연속 관측될 때만 실제 오차로 보고 보정한다
+            long drift = (dbStock - pending - inFlight) - available;
+            if (drift == 0) {
+                observedDrift.remove(itemId);
+            } else if (Long.valueOf(drift).equals(observedDrift.put(itemId, drift))) {
+                observedDrift.remove(itemId);
+                log.info("재고 카운터 보정: itemId={}, drift={}", itemId, drift);
+                counter.adjust(drift);
+            }
+            if (counter.available() > 0) soldOutRegistry.clear(itemId);
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package org.portfolio.portfolio.application.stock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 상품 하나의 가용 재고를 여러 스트라이프로 나눠 들고 있는 카운터.
+ * 스레드마다 다른 스트라이프에서 CAS 로 차감하므로 단일 카운터보다 경합이 적다.
+ */
+class StripedStockCounter {
+
+    // 스트라이프 사이를 64바이트(long 8개)씩 띄워 false sharing 을 피한다
+    private static final int PAD = 8;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+
+    // 예약됐지만 아직 트랜잭션 결과가 나오지 않은 수량
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // 커밋됐지만 아직 item 테이블에 반영되지 않은 차감 수량
+    private final AtomicLong pendingWrite = new AtomicLong();
+
+    StripedStockCounter(int stripes, long initialStock) {
+        if (stripes <= 0) throw new IllegalArgumentException("스트라이프 수는 1 이상이어야 합니다.");
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PAD);
+        long share = initialStock / stripes;
+        long remainder = initialStock % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PAD, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    // 모든 연산은 중간 상태에서 (가용 + 진행 중 + 미반영) 합이 실제보다 커 보이는 순서로 갱신한다.
+    // 그래서 정산이 연산 도중의 값을 읽어도 없는 재고를 더하는 쪽(+ 오차)으로는 보이지 않는다
+    boolean tryReserve(int quantity) {
+        inFlight.addAndGet(quantity);
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            if (tryTake(((start + i) % stripes) * PAD, quantity)) {
+                return true;
+            }
+        }
+        // 잔량이 여러 스트라이프에 흩어져 있을 수 있으므로 하나로 모아 한 번 더 시도한다
+        rebalanceLock.lock();
+        try {
+            long total = drainCells();
+            if (total >= quantity) {
+                cells.addAndGet(0, total - quantity);
+                return true;
+            }
+            cells.addAndGet(0, total);
+        } finally {
+            rebalanceLock.unlock();
+        }
+        inFlight.addAndGet(-quantity);
+        return false;
+    }
+
+    // 트랜잭션 커밋: write-behind 대상으로 넘긴다
+    void confirm(int quantity) {
+        pendingWrite.addAndGet(quantity);
+        inFlight.addAndGet(-quantity);
+    }
+
+    // 트랜잭션 롤백 또는 주문 취소: 가용 재고로 되돌린다
+    void release(int quantity) {
+        cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PAD, quantity);
+        inFlight.addAndGet(-quantity);
+    }
+
+    // 커밋된 차감을 취소(결제 실패 보상): 가용 재고로 돌리고 미반영 차감분에서 뺀다.
+    // 이미 DB 에 반영된 뒤라면 pendingWrite 가 음수가 되어 다음 flush 에서 증가분으로 반영된다
+    void restock(int quantity) {
+        cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PAD, quantity);
+        pendingWrite.addAndGet(-quantity);
+    }
+
+    long drainPendingWrite() {
+        return pendingWrite.getAndSet(0);
+    }
+
+    void restorePendingWrite(long delta) {
+        pendingWrite.addAndGet(delta);
+    }
+
+    // 정산 시 계산된 오차만큼 가용 재고를 보정한다 (음수로 내려가지 않도록 0에서 자른다)
+    void adjust(long drift) {
+        rebalanceLock.lock();
+        try {
+            long total = drainCells() + drift;
+            cells.addAndGet(0, Math.max(0L, total));
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    long available() {
+        long sum = 0L;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    long pendingWrite() {
+        return pendingWrite.get();
+    }
+
+    private boolean tryTake(int index, int quantity) {
+        for (;;) {
+            long current = cells.get(index);
+            if (current < quantity) return false;
+            if (cells.compareAndSet(index, current, current - quantity)) return true;
+        }
+    }
+
+    private long drainCells() {
+        long total = 0L;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.getAndSet(i * PAD, 0L);
+        }
+        return total;
+    }
+}
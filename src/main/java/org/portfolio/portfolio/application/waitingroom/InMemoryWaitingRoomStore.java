@@ -0,0 +1,145 @@
+package org.portfolio.portfolio.application.waitingroom;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 프로세스 안에서만 유지되는 대기열.
+ * 순번은 상품별 AtomicLong 으로 발급하고, 입장 허용은 "여기까지 입장" 순번 하나로 표현한다.
+ * 입장 기록과 토큰을 순번 순서로 들고 있어, 만료는 앞에서부터 만료된 만큼만 꺼낸다 (전체 토큰을 훑지 않는다).
+ */
+@Component
+public class InMemoryWaitingRoomStore implements WaitingRoomStore {
+
+    private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+
+    @Override
+    public WaitingTicket enqueue(Long itemId, Long userId) {
+        Room room = rooms.computeIfAbsent(itemId, id -> new Room());
+        Entry entry = room.byUser.computeIfAbsent(userId, uid -> {
+            Entry e = new Entry(uid, room.lastIssued.incrementAndGet(), UUID.randomUUID().toString());
+            room.byToken.put(e.token, e);
+            room.bySequence.put(e.sequence, e);
+            return e;
+        });
+        return new WaitingTicket(itemId, userId, entry.token, entry.sequence);
+    }
+
+    @Override
+    public long position(Long itemId, String token) {
+        Room room = rooms.get(itemId);
+        Entry entry = room != null ? room.byToken.get(token) : null;
+        if (entry == null) return -1L;
+        return Math.max(0L, entry.sequence - room.admittedUpTo.get());
+    }
+
+    @Override
+    public int admit(Long itemId, int count) {
+        Room room = rooms.get(itemId);
+        if (room == null || count <= 0) return 0;
+        // 입장 기록이 순번 순서로 쌓이도록 전진과 기록을 함께 잠근다 (틱마다 한 번이라 경합은 없다)
+        synchronized (room.admissions) {
+            long current = room.admittedUpTo.get();
+            long next = Math.min(current + count, room.lastIssued.get());
+            if (next <= current) return 0;
+            room.admittedUpTo.set(next);
+            room.admissions.addLast(new Admission(next, System.currentTimeMillis()));
+            return (int) (next - current);
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(Long itemId, Long userId, String token) {
+        Room room = rooms.get(itemId);
+        Entry entry = room != null && token != null ? room.byToken.get(token) : null;
+        if (entry == null || !entry.userId.equals(userId)) return false;
+        if (entry.sequence > room.admittedUpTo.get()) return false;
+        return entry.acquiredAt.compareAndSet(0L, System.currentTimeMillis());
+    }
+
+    @Override
+    public void complete(Long itemId, String token) {
+        Room room = rooms.get(itemId);
+        if (room == null) return;
+        Entry entry = room.byToken.remove(token);
+        if (entry == null) return;
+        room.byUser.remove(entry.userId, entry);
+        room.bySequence.remove(entry.sequence, entry);
+    }
+
+    @Override
+    public void release(Long itemId, String token) {
+        Room room = rooms.get(itemId);
+        Entry entry = room != null ? room.byToken.get(token) : null;
+        if (entry != null) entry.acquiredAt.set(0L);
+    }
+
+    @Override
+    public void expireAdmitted(Long itemId, long admittedBeforeMillis) {
+        Room room = rooms.get(itemId);
+        if (room == null) return;
+        // 입장 기록은 순번과 시각이 함께 커지므로, 기준 시각 이전 기록을 앞에서부터 꺼내 그중 마지막 순번까지 만료시킨다
+        long expiredUpTo = 0L;
+        synchronized (room.admissions) {
+            while (!room.admissions.isEmpty() && room.admissions.peekFirst().at() < admittedBeforeMillis) {
+                expiredUpTo = room.admissions.pollFirst().upTo();
+            }
+        }
+        if (expiredUpTo > 0L) {
+            NavigableMap<Long, Entry> expired = room.bySequence.headMap(expiredUpTo, true);
+            room.expiring.addAll(expired.values());
+            expired.clear();
+        }
+        // 주문 중인 토큰은 잡은 지 유효 시간이 지났을 때 만료한다 (release/complete 없이 끝난 요청도 결국 정리된다)
+        room.expiring.removeIf(entry -> {
+            long acquiredAt = entry.acquiredAt.get();
+            if (acquiredAt != 0L && acquiredAt >= admittedBeforeMillis) return false;
+            room.byToken.remove(entry.token, entry);
+            room.byUser.remove(entry.userId, entry);
+            return true;
+        });
+    }
+
+    @Override
+    public void clear(Long itemId) {
+        rooms.remove(itemId);
+    }
+
+    private static final class Room {
+        private final AtomicLong lastIssued = new AtomicLong();
+        private final AtomicLong admittedUpTo = new AtomicLong();
+        private final Map<String, Entry> byToken = new ConcurrentHashMap<>();
+        private final Map<Long, Entry> byUser = new ConcurrentHashMap<>();
+        // 아직 만료되지 않은 토큰 (순번 순)
+        private final NavigableMap<Long, Entry> bySequence = new ConcurrentSkipListMap<>();
+        // 입장 기록 (이 순번까지, 입장 시각). admit/expireAdmitted 는 이 큐로 동기화한다
+        private final ArrayDeque<Admission> admissions = new ArrayDeque<>();
+        // 입장 유효 시간이 지나 만료를 기다리는 토큰 (주문 중이면 잡은 지 유효 시간이 지날 때까지 남는다)
+        private final Set<Entry> expiring = ConcurrentHashMap.newKeySet();
+    }
+
+    private record Admission(long upTo, long at) {
+    }
+
+    private static final class Entry {
+        private final Long userId;
+        private final long sequence;
+        private final String token;
+        // 주문 처리용으로 잡은 시각. 0 이면 잡혀 있지 않다
+        private final AtomicLong acquiredAt = new AtomicLong();
+
+        private Entry(Long userId, long sequence, String token) {
+            this.userId = userId;
+            this.sequence = sequence;
+            this.token = token;
+        }
+    }
+}
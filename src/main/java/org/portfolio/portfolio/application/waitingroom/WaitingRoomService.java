@@ -0,0 +1,129 @@
+package org.portfolio.portfolio.application.waitingroom;
+
+import org.portfolio.portfolio.application.exception.NotAdmittedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 선착순 딜 상품 앞에 두는 대기열.
+ * 토큰은 발급 순서대로 상품별 초당 입장 인원만큼씩 입장이 허용되고, 입장한 토큰만 주문할 수 있다.
+ */
+@Component
+public class WaitingRoomService {
+
+    private final WaitingRoomStore waitingRoomStore;
+    private final double defaultAdmitsPerSecond;
+    private final long admissionTtlMs;
+    private final long tickMs;
+    private final List<Long> preloadItemIds;
+
+    // 대기열이 켜진 상품별 입장 속도와 소수점 이하로 남은 입장분
+    private final Map<Long, Admission> admissions = new ConcurrentHashMap<>();
+
+    public WaitingRoomService(WaitingRoomStore waitingRoomStore,
+                              @Value("${timedeal.waiting-room.admits-per-second:50}") double defaultAdmitsPerSecond,
+                              @Value("${timedeal.waiting-room.admission-ttl-ms:60000}") long admissionTtlMs,
+                              @Value("${timedeal.waiting-room.tick-ms:100}") long tickMs,
+                              @Value("${timedeal.waiting-room.item-ids:}") List<Long> preloadItemIds) {
+        this.waitingRoomStore = waitingRoomStore;
+        this.defaultAdmitsPerSecond = defaultAdmitsPerSecond;
+        this.admissionTtlMs = admissionTtlMs;
+        this.tickMs = tickMs;
+        this.preloadItemIds = preloadItemIds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        preloadItemIds.forEach(this::enable);
+    }
+
+    public void enable(Long itemId) {
+        enable(itemId, defaultAdmitsPerSecond);
+    }
+
+    public void enable(Long itemId, double admitsPerSecond) {
+        if (admitsPerSecond <= 0) throw new IllegalArgumentException("초당 입장 인원은 0보다 커야 합니다.");
+        admissions.put(itemId, new Admission(admitsPerSecond));
+    }
+
+    public void disable(Long itemId) {
+        admissions.remove(itemId);
+        waitingRoomStore.clear(itemId);
+    }
+
+    public boolean isEnabled(Long itemId) {
+        return itemId != null && admissions.containsKey(itemId);
+    }
+
+    public WaitingTicket issue(Long itemId, Long userId) {
+        ensureEnabled(itemId);
+        return waitingRoomStore.enqueue(itemId, userId);
+    }
+
+    public long position(Long itemId, String token) {
+        ensureEnabled(itemId);
+        return waitingRoomStore.position(itemId, token);
+    }
+
+    // 입장한 토큰으로만 주문을 실행한다. 성공하면 토큰을 소진하고, 실패하면 같은 토큰으로 다시 시도할 수 있다
+    public <T> T runAdmitted(Long itemId, Long userId, String token, Supplier<T> order) {
+        acquire(itemId, userId, token);
+        boolean completed = false;
+        try {
+            T result = order.get();
+            completed = true;
+            return result;
+        } finally {
+            finish(itemId, token, completed);
+        }
+    }
+
+    // 비동기 접수처럼 주문이 다른 스레드에서 끝나는 경우 acquire/finish 를 나눠 호출한다
+    public void acquire(Long itemId, Long userId, String token) {
+        if (!waitingRoomStore.tryAcquire(itemId, userId, token)) {
+            throw new NotAdmittedException("대기열 입장이 허용되지 않았습니다. 순번을 확인해 주세요.");
+        }
+    }
+
+    public void finish(Long itemId, String token, boolean ordered) {
+        if (ordered) waitingRoomStore.complete(itemId, token);
+        else waitingRoomStore.release(itemId, token);
+    }
+
+    // tick 마다 (초당 입장 인원 x tick) 만큼 입장시키고, 남은 소수점은 다음 tick 으로 넘긴다
+    @Scheduled(fixedRateString = "${timedeal.waiting-room.tick-ms:100}")
+    public void admit() {
+        long expireBefore = System.currentTimeMillis() - admissionTtlMs;
+        admissions.forEach((itemId, admission) -> {
+            admission.credit += admission.admitsPerSecond * tickMs / 1000.0;
+            int count = (int) admission.credit;
+            if (count > 0) {
+                waitingRoomStore.admit(itemId, count);
+                // 대기 인원이 없을 때 입장분이 쌓여 한꺼번에 몰리지 않도록 버린다
+                admission.credit -= count;
+            }
+            waitingRoomStore.expireAdmitted(itemId, expireBefore);
+        });
+    }
+
+    private void ensureEnabled(Long itemId) {
+        if (!isEnabled(itemId)) throw new IllegalArgumentException("대기열이 운영 중인 상품이 아닙니다. id=" + itemId);
+    }
+
+    private static final class Admission {
+        private final double admitsPerSecond;
+        private double credit;
+
+        private Admission(double admitsPerSecond) {
+            this.admitsPerSecond = admitsPerSecond;
+        }
+    }
+}
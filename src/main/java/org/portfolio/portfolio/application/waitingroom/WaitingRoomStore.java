@@ -0,0 +1,31 @@
+package org.portfolio.portfolio.application.waitingroom;
+
+/**
+ * 상품별 대기열 저장소 SPI.
+ * 기본 구현은 단일 노드 메모리 저장소이며, 여러 노드가 같은 대기열을 보려면 공유 저장소 구현으로 교체한다.
+ */
+public interface WaitingRoomStore {
+
+    // 대기열 끝에 줄을 세우고 순번이 붙은 토큰을 발급한다 (같은 사용자가 다시 요청하면 기존 토큰을 돌려준다)
+    WaitingTicket enqueue(Long itemId, Long userId);
+
+    // 앞에 남은 대기 인원. 0이면 입장 허용, 알 수 없는 토큰이면 -1
+    long position(Long itemId, String token);
+
+    // 다음 순번부터 최대 count 명을 입장시키고 실제 입장 인원을 돌려준다
+    int admit(Long itemId, int count);
+
+    // 입장이 허용된 토큰을 주문 처리용으로 잡는다. 같은 토큰으로 동시에 주문할 수 없다
+    boolean tryAcquire(Long itemId, Long userId, String token);
+
+    // 주문이 끝나 토큰을 소진한다
+    void complete(Long itemId, String token);
+
+    // 주문이 실패해 입장 상태로 되돌린다 (같은 토큰으로 다시 시도 가능)
+    void release(Long itemId, String token);
+
+    // 입장 후 유효 시간이 지난 토큰을 정리한다
+    void expireAdmitted(Long itemId, long admittedBeforeMillis);
+
+    void clear(Long itemId);
+}
@@ -0,0 +1,5 @@
+package org.portfolio.portfolio.application.waitingroom;
+
+// 대기열 입장 시 발급되는 토큰과 순번
+public record WaitingTicket(Long itemId, Long userId, String token, long sequence) {
+}
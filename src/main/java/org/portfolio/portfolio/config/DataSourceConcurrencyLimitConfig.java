@@ -0,0 +1,40 @@
+package org.portfolio.portfolio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource 앞에 동시 커넥션 한도를 건다 (vthreads 프로필에서 켜진다).
+ * 한도는 따로 지정하지 않으면 Hikari 최대 풀 크기와 같다.
+ * 기본 풀(빈 이름 dataSource, timedeal.db.concurrency-limit.bean-name 으로 변경)에만 걸고 다른 DataSource 빈은 그대로 둔다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "timedeal.db.concurrency-limit.enabled", havingValue = "true")
+public class DataSourceConcurrencyLimitConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                String target = environment.getProperty("timedeal.db.concurrency-limit.bean-name", "dataSource");
+                if (!target.equals(beanName)) {
+                    return bean;
+                }
+                int poolSize = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                int maxConcurrency = environment.getProperty("timedeal.db.concurrency-limit.max-concurrency", Integer.class, poolSize);
+                long acquireTimeoutMs = environment.getProperty("timedeal.db.concurrency-limit.acquire-timeout-ms", Long.class, 3000L);
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeoutMs);
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package org.portfolio.portfolio.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.portfolio.portfolio.application.category.CategoryClosureMaintainer;
+import org.portfolio.portfolio.application.category.CategoryItemCountMaintainer;
+import org.portfolio.portfolio.application.category.CategoryTreeListener;
+import org.portfolio.portfolio.application.coupon.CouponDefinitionListener;
+import org.portfolio.portfolio.application.coupon.CouponExpiryListener;
+import org.portfolio.portfolio.application.order.ItemPricingListener;
+import org.portfolio.portfolio.application.outbox.OrderStatusChangeRecorder;
+import org.portfolio.portfolio.application.stock.ItemStockListener;
+import org.springframework.context.annotation.Configuration;
+
+// 엔티티 변경 리스너는 모두 Hibernate 이벤트 리스너로 등록한다.
+// (JPA 콜백은 다른 테이블에 쓸 수 없고, @EntityListeners 는 도메인이 application 계층을 참조하게 만든다)
+@Configuration
+@RequiredArgsConstructor
+public class HibernateEventListenerConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final OrderStatusChangeRecorder orderStatusChangeRecorder;
+    private final CategoryClosureMaintainer categoryClosureMaintainer;
+    private final ItemStockListener itemStockListener;
+    private final CategoryItemCountMaintainer categoryItemCountMaintainer;
+    private final CouponDefinitionListener couponDefinitionListener;
+    private final ItemPricingListener itemPricingListener;
+    private final CouponExpiryListener couponExpiryListener;
+    private final CategoryTreeListener categoryTreeListener;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, orderStatusChangeRecorder);
+        registry.appendListeners(EventType.POST_UPDATE, itemStockListener);
+        registry.appendListeners(EventType.POST_INSERT, categoryClosureMaintainer);
+        registry.appendListeners(EventType.POST_UPDATE, categoryClosureMaintainer);
+        registry.appendListeners(EventType.POST_DELETE, categoryClosureMaintainer);
+        registry.appendListeners(EventType.POST_INSERT, categoryItemCountMaintainer);
+        registry.appendListeners(EventType.POST_UPDATE, categoryItemCountMaintainer);
+        registry.appendListeners(EventType.POST_DELETE, categoryItemCountMaintainer);
+        registry.appendListeners(EventType.POST_INSERT, couponDefinitionListener);
+        registry.appendListeners(EventType.POST_UPDATE, couponDefinitionListener);
+        registry.appendListeners(EventType.POST_DELETE, couponDefinitionListener);
+        registry.appendListeners(EventType.POST_UPDATE, itemPricingListener);
+        registry.appendListeners(EventType.POST_DELETE, itemPricingListener);
+        registry.appendListeners(EventType.POST_INSERT, couponExpiryListener);
+        registry.appendListeners(EventType.POST_UPDATE, couponExpiryListener);
+        registry.appendListeners(EventType.POST_INSERT, categoryTreeListener);
+        registry.appendListeners(EventType.POST_UPDATE, categoryTreeListener);
+        registry.appendListeners(EventType.POST_DELETE, categoryTreeListener);
+    }
+}
@@ -0,0 +1,17 @@
+package org.portfolio.portfolio.config;
+
+import org.portfolio.portfolio.domain.common.TimeOrderedIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Hibernate 가 직접 만드는 ID 생성기에 노드 ID 설정을 넘긴다
+@Configuration
+public class IdGenerationConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer timeOrderedIdCustomizer(@Value("${timedeal.id.node-id:0}") long nodeId) {
+        return properties -> properties.put(TimeOrderedIdGenerator.NODE_ID_SETTING, nodeId);
+    }
+}
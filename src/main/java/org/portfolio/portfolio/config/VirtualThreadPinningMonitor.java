@@ -0,0 +1,61 @@
+package org.portfolio.portfolio.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 가상 스레드가 캐리어 스레드에 고정(pinning)되는 구간을 JFR 이벤트로 받아 로그로 남긴다.
+ * synchronized 블록 안에서 블로킹 I/O 를 하면 발생한다.
+ * 스택만 빠르게 보고 싶으면 -Djdk.tracePinnedThreads=short 로 실행해도 된다.
+ */
+@Slf4j
+@Component
+@Profile("vthreads")
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final int stackDepth;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${timedeal.vthreads.pinning.threshold-ms:20}") long thresholdMs,
+                                       @Value("${timedeal.vthreads.pinning.stack-depth:8}") int stackDepth) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.stackDepth = stackDepth;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) stream.close();
+    }
+
+    private void report(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String stack = frames.stream()
+                .limit(stackDepth)
+                .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+        log.warn("가상 스레드 pinning {}ms: {}", event.getDuration().toMillis(), stack);
+    }
+}
@@ -26,7 +26,8 @@ public class Category extends BaseEntity {
     @JoinColumn(name = "parent_id")
     private Category parent;
 
-    @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL, orphanRemoval = true)
+    // 부모를 바꿀 때 이전 부모 컬렉션에서 빼야 하므로 orphanRemoval 은 쓰지 않는다 (삭제는 cascade 로 전파된다)
+    @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL)
     private List<Category> children = new ArrayList<>();
 
     private Category(String name) {
@@ -42,6 +43,19 @@ public class Category extends BaseEntity {
         child.parent = this;
     }
 
+    // 부모를 바꾼다 (null 이면 최상위로). 자기 자신이나 자기 하위로는 옮길 수 없다
+    public void moveTo(Category newParent) {
+        for (Category c = newParent; c != null; c = c.parent) {
+            if (c == this || (id != null && id.equals(c.id))) {
+                throw new IllegalArgumentException("카테고리를 자기 하위로 옮길 수 없습니다.");
+            }
+        }
+        // 이전 부모 컬렉션에서 빼야 같은 영속성 컨텍스트에서 이전 부모를 지울 때 옮긴 하위 트리까지 cascade 로 지워지지 않는다
+        if (this.parent != null) this.parent.children.remove(this);
+        this.parent = newParent;
+        if (newParent != null) newParent.children.add(this);
+    }
+
     public void changeName(String newName) {
         this.name = newName;
     }
@@ -0,0 +1,46 @@
+package org.portfolio.portfolio.domain.category;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.portfolio.portfolio.domain.item.ItemStatus;
+
+import java.io.Serializable;
+
+/**
+ * 카테고리 하위 트리(자기 자신 포함)에 속한 상품 수를 상태별로 둔 집계 테이블.
+ * 행은 CategoryItemCountMaintainer 가 상품/카테고리 변경과 같은 트랜잭션에서 증감하므로 읽기 전용으로 매핑한다.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Immutable
+@IdClass(CategoryItemCount.Key.class)
+@Table(name = "category_item_count")
+public class CategoryItemCount {
+
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ItemStatus status;
+
+    @Column(name = "item_count", nullable = false)
+    private long itemCount;
+
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long categoryId;
+        private ItemStatus status;
+    }
+}
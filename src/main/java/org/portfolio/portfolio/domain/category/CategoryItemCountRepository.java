@@ -0,0 +1,35 @@
+package org.portfolio.portfolio.domain.category;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface CategoryItemCountRepository extends JpaRepository<CategoryItemCount, CategoryItemCount.Key> {
+
+    // 하위 트리 전체의 상태별 상품 수 (행이 없으면 0)
+    List<CategoryItemCount> findByCategoryId(Long categoryId);
+
+    // 상태마다 최상위 카테고리 합계 = 그 상태로 카테고리가 지정된 상품 수여야 한다 (정합성 확인용).
+    // 두 쪽을 +/- 로 합쳐 0 이 아닌 상태 수를 센다 (MySQL 에 full outer join 이 없으므로)
+    @Query(value = "select count(*) from (" +
+            "select d.status from (" +
+            "select n.status, n.item_count as delta from category_item_count n " +
+            "join category c on c.id = n.category_id where c.parent_id is null" +
+            " union all " +
+            "select i.status, -count(*) from item i where i.category_id is not null group by i.status" +
+            ") d group by d.status having sum(d.delta) <> 0) mismatched", nativeQuery = true)
+    long countMismatchedRootStatuses();
+
+    // 전체 재구성용: 상품마다 자기 카테고리의 모든 조상(자기 자신 포함)에 1씩 더한다
+    @Modifying
+    @Query(value = "delete from category_item_count", nativeQuery = true)
+    int deleteAllCounts();
+
+    @Modifying
+    @Query(value = "insert into category_item_count (category_id, status, item_count) " +
+            "select p.ancestor_id, i.status, count(*) from item i " +
+            "join category_path p on p.descendant_id = i.category_id group by p.ancestor_id, i.status", nativeQuery = true)
+    int rebuildCounts();
+}
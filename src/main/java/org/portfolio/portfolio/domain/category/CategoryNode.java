@@ -0,0 +1,5 @@
+package org.portfolio.portfolio.domain.category;
+
+// 트리 스냅샷 적재용 조회 전용 값 (최상위면 parentId 는 null)
+public record CategoryNode(Long id, Long parentId) {
+}
@@ -0,0 +1,48 @@
+package org.portfolio.portfolio.domain.category;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * 카테고리 트리의 closure table. 모든 (조상, 자손) 쌍과 그 사이 거리를 한 행씩 둔다 (자기 자신은 depth 0).
+ * 행은 CategoryClosureMaintainer 가 카테고리 저장/이동/삭제와 같은 트랜잭션에서 관리하므로 읽기 전용으로 매핑한다.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Immutable
+@IdClass(CategoryPath.Key.class)
+@Table(name = "category_path", indexes = {
+        // 조상 목록: descendant_id = ? order by depth
+        @Index(name = "idx_category_path_descendant", columnList = "descendant_id, depth")
+})
+public class CategoryPath {
+
+    // PK (ancestor_id, descendant_id) 가 하위 트리 조회 인덱스를 겸한다
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -0,0 +1,42 @@
+package org.portfolio.portfolio.domain.category;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CategoryPathRepository extends JpaRepository<CategoryPath, CategoryPath.Key> {
+
+    // 자기 자신을 포함한 하위 트리 전체
+    @Query("select p.descendantId from CategoryPath p where p.ancestorId = :ancestorId")
+    List<Long> findSubtreeIds(@Param("ancestorId") Long ancestorId);
+
+    @Query("select count(p) from CategoryPath p where p.depth = 0")
+    long countNodes();
+
+    // parent_id 로 계산한 closure 행 수. 노드마다 자기 자신과 조상 수만큼(깊이 + 1) 행이 있어야 한다
+    @Query(value = "with recursive tree (id, depth) as (" +
+            " select c.id, 0 from category c where c.parent_id is null" +
+            " union all" +
+            " select c.id, t.depth + 1 from category c join tree t on c.parent_id = t.id" +
+            ") select cast(coalesce(sum(depth + 1), 0) as signed) from tree", nativeQuery = true)
+    long countExpectedPaths();
+
+    // 전체 재구성용: 자기 자신 행을 만든 뒤 깊이별로 한 단계씩 늘려 간다
+    @Modifying
+    @Query(value = "delete from category_path", nativeQuery = true)
+    int deleteAllPaths();
+
+    @Modifying
+    @Query(value = "insert into category_path (ancestor_id, descendant_id, depth) select id, id, 0 from category",
+            nativeQuery = true)
+    int insertSelfPaths();
+
+    @Modifying
+    @Query(value = "insert into category_path (ancestor_id, descendant_id, depth) " +
+            "select p.ancestor_id, c.id, p.depth + 1 from category c " +
+            "join category_path p on p.descendant_id = c.parent_id where p.depth = :depth", nativeQuery = true)
+    int extendPaths(@Param("depth") int depth);
+}
@@ -1,9 +1,27 @@
 package org.portfolio.portfolio.domain.category;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByParent_Id(Long parentId);
+
+    // 트리 전체를 엔티티 없이 한 번에 읽는다
+    @Query("select new org.portfolio.portfolio.domain.category.CategoryNode(c.id, p.id) " +
+            "from Category c left join c.parent p")
+    List<CategoryNode> findAllNodes();
+
+    // 하위 트리(자기 자신 포함)를 재귀 CTE 한 번으로 읽는다 (MySQL 8+).
+    // path 에 지나온 ID 를 쌓아 순환 참조를 끊는다. maxDepth 보다 한 단계 더 읽어, 호출 쪽이 잘린 하위 트리를 알아챌 수 있게 한다
+    @Query(value = "with recursive subtree (id, depth, path) as (" +
+            " select c.id, 0, cast(concat(',', c.id, ',') as char(4000)) from category c where c.id = :rootId" +
+            " union all" +
+            " select c.id, s.depth + 1, concat(s.path, c.id, ',')" +
+            " from category c join subtree s on c.parent_id = s.id" +
+            " where s.depth <= :maxDepth and locate(concat(',', c.id, ','), s.path) = 0" +
+            ") select id, min(depth) as depth from subtree group by id", nativeQuery = true)
+    List<CategorySubtreeRow> findSubtreeRecursive(@Param("rootId") Long rootId, @Param("maxDepth") int maxDepth);
 }
@@ -0,0 +1,8 @@
+package org.portfolio.portfolio.domain.category;
+
+// 재귀 CTE 로 읽은 하위 트리 한 행 (네이티브 쿼리 프로젝션). depth 는 기준 카테고리에서의 거리
+public interface CategorySubtreeRow {
+    Long getId();
+
+    Integer getDepth();
+}
@@ -0,0 +1,18 @@
+package org.portfolio.portfolio.domain.common;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 시간순 64비트 ID 를 애플리케이션에서 발급한다 (TimeOrderedIdGenerator).
+ * IDENTITY 와 달리 INSERT 전에 ID 가 정해지므로 Hibernate 가 INSERT 를 모아 JDBC 배치로 보낼 수 있다.
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
@@ -7,6 +7,8 @@ import lombok.NoArgsConstructor;
 import org.portfolio.portfolio.domain.common.BaseEntity;
 import org.portfolio.portfolio.domain.common.CouponType;
 
+import java.time.LocalDateTime;
+
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
@@ -28,6 +30,17 @@ public class Coupon extends BaseEntity {
     @Column(nullable = false)
     private long discountValue;
 
+    // 선착순 발급 한도 (null 이면 무제한)
+    private Integer issueLimit;
+
+    // 발급 엔진이 write-behind 로 반영한 발급 수량 (행 락 없이 일괄 증가시킨다)
+    @Column(nullable = false)
+    private int issuedCount;
+
+    // 유효 기간 [validFrom, validUntil). null 이면 해당 방향으로 제한 없음. 발급 시 user_coupon 에 복사된다
+    private LocalDateTime validFrom;
+    private LocalDateTime validUntil;
+
     private Coupon(String name, CouponType type, long discountValue) {
         this.name = name;
         this.type = type;
@@ -42,6 +55,26 @@ public class Coupon extends BaseEntity {
         return new Coupon(name, CouponType.RATE, percent);
     }
 
+    // 선착순 N명 한정 쿠폰으로 설정한다
+    public Coupon limitIssuance(int issueLimit) {
+        if (issueLimit <= 0) throw new IllegalArgumentException("발급 한도는 1 이상이어야 합니다.");
+        this.issueLimit = issueLimit;
+        return this;
+    }
+
+    public Coupon validBetween(LocalDateTime validFrom, LocalDateTime validUntil) {
+        if (validFrom != null && validUntil != null && !validFrom.isBefore(validUntil)) {
+            throw new IllegalArgumentException("유효 기간의 시작은 종료보다 앞서야 합니다.");
+        }
+        this.validFrom = validFrom;
+        this.validUntil = validUntil;
+        return this;
+    }
+
+    public boolean isExpiredAt(LocalDateTime now) {
+        return validUntil != null && !now.isBefore(validUntil);
+    }
+
     private long validate(CouponType type, long value) {
         if (type == CouponType.FIXED) {
             if (value <= 0) throw new IllegalArgumentException("정액 할인 금액은 1 이상이어야 합니다.");
@@ -51,10 +84,11 @@ public class Coupon extends BaseEntity {
         return value;
     }
 
+    public CouponDefinition toDefinition() {
+        return new CouponDefinition(id, type, discountValue);
+    }
+
     public long calculateDiscount(long price) {
-        if (type == CouponType.FIXED) {
-            return Math.min(price, discountValue);
-        }
-        return Math.round(price * (discountValue / 100.0));
+        return toDefinition().calculateDiscount(price);
     }
 }
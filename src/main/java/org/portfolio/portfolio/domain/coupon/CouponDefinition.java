@@ -0,0 +1,17 @@
+package org.portfolio.portfolio.domain.coupon;
+
+import org.portfolio.portfolio.domain.common.CouponType;
+
+/**
+ * 할인 계산에 필요한 쿠폰 조건만 담은 불변 값.
+ * 엔티티와 달리 영속성 컨텍스트에 묶이지 않으므로 스레드 사이에서 공유해도 안전하다.
+ */
+public record CouponDefinition(Long id, CouponType type, long discountValue) {
+
+    public long calculateDiscount(long price) {
+        if (type == CouponType.FIXED) {
+            return Math.min(price, discountValue);
+        }
+        return Math.round(price * (discountValue / 100.0));
+    }
+}
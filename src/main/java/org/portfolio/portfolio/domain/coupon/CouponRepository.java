@@ -0,0 +1,20 @@
+package org.portfolio.portfolio.domain.coupon;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CouponRepository extends JpaRepository<Coupon, Long> {
+
+    // 발급 엔진의 write-behind 반영용 (한도 검증은 메모리 카운터에서 끝났다)
+    @Modifying
+    @Query("update Coupon c set c.issuedCount = c.issuedCount + :count where c.id = :id")
+    int increaseIssuedCount(@Param("id") Long id, @Param("count") int count);
+
+    // 만료 스윕 예약 대상 (유효 기간 종료 시각이 since 이후인 쿠폰)
+    List<Coupon> findByValidUntilAfter(LocalDateTime since);
+}
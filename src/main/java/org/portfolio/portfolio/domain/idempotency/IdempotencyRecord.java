@@ -0,0 +1,64 @@
+package org.portfolio.portfolio.domain.idempotency;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.portfolio.portfolio.domain.common.BaseEntity;
+
+import java.time.LocalDateTime;
+
+// 주문 생성 요청의 멱등 키와 주문 (주문과 같은 트랜잭션에서 기록되고, 주문이 취소되거나 만료 시각이 지나면 정리된다)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "idempotency_record",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_user_key", columnNames = {"user_id", "idempotency_key"}),
+        indexes = {
+                @Index(name = "idx_idempotency_expires_at", columnList = "expires_at"),
+                @Index(name = "idx_idempotency_order_id", columnList = "order_id")
+        })
+public class IdempotencyRecord extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // 같은 키로 다른 내용의 주문을 보내는 경우를 가려내기 위한 요청 지문
+    @Column(nullable = false, length = 200)
+    private String fingerprint;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "order_status", nullable = false, length = 20)
+    private String orderStatus;
+
+    @Column(name = "payment_status", length = 20)
+    private String paymentStatus;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    private IdempotencyRecord(Long userId, String idempotencyKey, String fingerprint,
+                              Long orderId, String orderStatus, String paymentStatus, LocalDateTime expiresAt) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+        this.fingerprint = fingerprint;
+        this.orderId = orderId;
+        this.orderStatus = orderStatus;
+        this.paymentStatus = paymentStatus;
+        this.expiresAt = expiresAt;
+    }
+
+    public static IdempotencyRecord of(Long userId, String idempotencyKey, String fingerprint,
+                                       Long orderId, String orderStatus, String paymentStatus, LocalDateTime expiresAt) {
+        return new IdempotencyRecord(userId, idempotencyKey, fingerprint, orderId, orderStatus, paymentStatus, expiresAt);
+    }
+}
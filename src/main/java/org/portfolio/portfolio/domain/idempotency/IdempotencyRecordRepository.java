@@ -0,0 +1,26 @@
+package org.portfolio.portfolio.domain.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    @Query("select r from IdempotencyRecord r where r.userId = :userId and r.idempotencyKey = :key and r.expiresAt > :now")
+    Optional<IdempotencyRecord> findActive(@Param("userId") Long userId, @Param("key") String key, @Param("now") LocalDateTime now);
+
+    // 주문 취소 트랜잭션 안에서 호출한다
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
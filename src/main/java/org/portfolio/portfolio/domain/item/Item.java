@@ -34,6 +34,11 @@ public class Item extends BaseEntity {
     @JoinColumn(name = "category_id")
     private Category category;
 
+    // 낙관적 락 재고 차감 전략용 버전 (벌크 UPDATE 경로도 함께 증가시킨다)
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     private Item(String name, long price, int stock, Category category) {
         this.name = name;
         this.price = price;
@@ -0,0 +1,5 @@
+package org.portfolio.portfolio.domain.item;
+
+// 견적 계산에 필요한 상품 정보만 담은 조회 전용 값 (categoryId 는 null 가능)
+public record ItemPricing(Long id, long price, Long categoryId) {
+}
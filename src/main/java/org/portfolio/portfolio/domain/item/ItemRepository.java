@@ -3,9 +3,12 @@ package org.portfolio.portfolio.domain.item;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
@@ -13,4 +16,23 @@ public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositor
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select i from Item i where i.id = :id")
     Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    // 견적용 가격/카테고리 조회 (락/엔티티 로딩 없음)
+    @Query("select new org.portfolio.portfolio.domain.item.ItemPricing(i.id, i.price, c.id) " +
+            "from Item i left join i.category c where i.id in :ids")
+    List<ItemPricing> findPricingByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select i.stock from Item i where i.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    // 재고 예약 엔진의 write-behind 반영용 (이미 메모리에서 검증된 차감분)
+    @Modifying
+    @Query("update Item i set i.stock = i.stock - :delta, i.version = i.version + 1 where i.id = :id")
+    int applyStockDelta(@Param("id") Long id, @Param("delta") int delta);
+
+    // 조건부 단일 UPDATE 차감: 반영된 행 수가 0이면 재고 부족(또는 상품 없음)
+    @Modifying
+    @Query("update Item i set i.stock = i.stock - :quantity, i.version = i.version + 1 " +
+            "where i.id = :id and i.stock >= :quantity")
+    int decreaseStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
 }
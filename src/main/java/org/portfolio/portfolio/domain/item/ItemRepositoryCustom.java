@@ -3,6 +3,11 @@ package org.portfolio.portfolio.domain.item;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.function.LongSupplier;
+
 public interface ItemRepositoryCustom {
     Page<Item> search(ItemSearchCondition condition, Pageable pageable);
+
+    // 전체 건수를 count 쿼리 대신 주어진 값(집계 테이블 등)으로 채운다
+    Page<Item> search(ItemSearchCondition condition, Pageable pageable, LongSupplier totalCount);
 }
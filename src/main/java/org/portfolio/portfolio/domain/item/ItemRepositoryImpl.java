@@ -1,15 +1,18 @@
 package org.portfolio.portfolio.domain.item;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.jpa.JPAExpressions;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
 import org.portfolio.portfolio.domain.category.QCategory;
+import org.portfolio.portfolio.domain.category.QCategoryPath;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.function.LongSupplier;
 
 import static org.portfolio.portfolio.domain.item.QItem.item;
 
@@ -21,10 +24,46 @@ public class ItemRepositoryImpl implements ItemRepositoryCustom {
 
     @Override
     public Page<Item> search(ItemSearchCondition condition, Pageable pageable) {
+        BooleanBuilder builder = where(condition);
+        List<Item> contents = fetchContents(builder, pageable);
+
+        Long total = queryFactory
+                .select(item.count())
+                .from(item)
+                .where(builder)
+                .fetchOne();
+
+        long totalCount = total != null ? total : 0L;
+        return new PageImpl<>(contents, pageable, totalCount);
+    }
+
+    @Override
+    public Page<Item> search(ItemSearchCondition condition, Pageable pageable, LongSupplier totalCount) {
+        List<Item> contents = fetchContents(where(condition), pageable);
+        return new PageImpl<>(contents, pageable, totalCount.getAsLong());
+    }
+
+    private List<Item> fetchContents(BooleanBuilder builder, Pageable pageable) {
+        return queryFactory
+                .selectFrom(item)
+                .leftJoin(item.category, QCategory.category).fetchJoin()
+                .where(builder)
+                .orderBy(item.id.desc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+
+    private BooleanBuilder where(ItemSearchCondition condition) {
         BooleanBuilder builder = new BooleanBuilder();
 
         if (condition != null) {
-            if (condition.getCategoryIds() != null && !condition.getCategoryIds().isEmpty()) {
+            if (condition.getAncestorCategoryId() != null) {
+                QCategoryPath path = QCategoryPath.categoryPath;
+                builder.and(item.category.id.in(JPAExpressions.select(path.descendantId)
+                        .from(path)
+                        .where(path.ancestorId.eq(condition.getAncestorCategoryId()))));
+            } else if (condition.getCategoryIds() != null && !condition.getCategoryIds().isEmpty()) {
                 builder.and(item.category.id.in(condition.getCategoryIds()));
             } else if (condition.getCategoryId() != null) {
                 builder.and(item.category.id.eq(condition.getCategoryId()));
@@ -39,23 +78,6 @@ public class ItemRepositoryImpl implements ItemRepositoryCustom {
                 builder.and(item.status.eq(condition.getStatus()));
             }
         }
-
-        List<Item> contents = queryFactory
-                .selectFrom(item)
-                .leftJoin(item.category, QCategory.category).fetchJoin()
-                .where(builder)
-                .orderBy(item.id.desc())
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetch();
-
-        Long total = queryFactory
-                .select(item.count())
-                .from(item)
-                .where(builder)
-                .fetchOne();
-
-        long totalCount = total != null ? total : 0L;
-        return new PageImpl<>(contents, pageable, totalCount);
+        return builder;
     }
 }
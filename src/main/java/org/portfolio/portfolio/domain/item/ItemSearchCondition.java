@@ -15,6 +15,8 @@ public class ItemSearchCondition {
     // 단일 카테고리 필터 또는 다중 카테고리 필터(자식 포함 조회 등)에 사용
     private Long categoryId;
     private List<Long> categoryIds;
+    // 이 카테고리와 그 하위 전체 (category_path 로 걸러 ID 목록을 미리 만들지 않는다)
+    private Long ancestorCategoryId;
     private Long minPrice;
     private Long maxPrice;
     private ItemStatus status;
@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.portfolio.portfolio.domain.common.BaseEntity;
 import org.portfolio.portfolio.domain.common.OrderStatus;
+import org.portfolio.portfolio.domain.common.TimeOrderedId;
 import org.portfolio.portfolio.domain.item.Item;
 import org.portfolio.portfolio.domain.payment.Payment;
 import org.portfolio.portfolio.domain.user.User;
@@ -17,7 +18,7 @@ import org.portfolio.portfolio.domain.user.User;
 public class Order extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -41,6 +42,10 @@ public class Order extends BaseEntity {
     @OneToOne(mappedBy = "order", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private Payment payment;
 
+    // 이 주문에 사용된 유저 쿠폰 (결제 실패 보상 시 복구 대상)
+    @Column(name = "user_coupon_id")
+    private Long userCouponId;
+
     private Order(User user, Item item, int quantity) {
         if (quantity <= 0) throw new IllegalArgumentException("수량은 1 이상이어야 합니다.");
         this.user = user;
@@ -72,6 +77,10 @@ public class Order extends BaseEntity {
         this.status = OrderStatus.CANCELLED;
     }
 
+    public void applyCoupon(Long userCouponId) {
+        this.userCouponId = userCouponId;
+    }
+
     public void attachPayment(Payment payment) {
         this.payment = payment;
         payment.setOrderInternal(this);
@@ -1,11 +1,15 @@
 package org.portfolio.portfolio.domain.order;
 
+import jakarta.persistence.LockModeType;
+import org.portfolio.portfolio.domain.common.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +22,11 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             "where o.id = :id")
     Optional<Order> findByIdWithUserItemPayment(@Param("id") Long id);
 
+    // 확정/보상/복구가 같은 주문을 동시에 전이시키지 않도록 주문 행만 잠근다 (상품 행까지 잠그지 않게 fetch join 없이)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
     @Query("select distinct o from Order o " +
             "join fetch o.user u " +
             "join fetch o.item i " +
@@ -32,4 +41,23 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             "where u.id = :userId order by o.id desc",
             countQuery = "select count(o) from Order o join o.user u where u.id = :userId")
     Page<Order> findPageByUserIdWithItemPayment(@Param("userId") Long userId, Pageable pageable);
+
+    // 첫 구매 할인 판단용 (취소된 주문은 구매로 보지 않는다)
+    @Query("select count(o) > 0 from Order o where o.user.id = :userId " +
+            "and o.status <> org.portfolio.portfolio.domain.common.OrderStatus.CANCELLED")
+    boolean existsActiveOrderByUserId(@Param("userId") Long userId);
+
+    @Query("select o.item.id from Order o where o.id = :id")
+    Optional<Long> findItemIdById(@Param("id") Long id);
+
+    // 락 없이 상태만 읽는다 (대기 주문 복구의 사전 확인용)
+    @Query("select o.status from Order o where o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") Long id);
+
+    // 예약은 됐지만 승인 결과가 반영되지 않은 채 남은 주문
+    @Query("select o.id from Order o join o.payment p " +
+            "where o.status = org.portfolio.portfolio.domain.common.OrderStatus.CREATED " +
+            "and p.status = org.portfolio.portfolio.domain.common.PaymentStatus.PENDING " +
+            "and o.createdAt < :cutoff")
+    List<Long> findStalePendingOrderIds(@Param("cutoff") LocalDateTime cutoff);
 }
@@ -0,0 +1,54 @@
+package org.portfolio.portfolio.domain.outbox;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 주문/결제 상태 변경과 같은 트랜잭션에 기록되는 이벤트 (릴레이가 발행하면 published_at 이 채워진다).
+// 구독자가 실패하면 next_attempt_at 까지 미루고, 최대 시도 횟수를 넘기면 dead_at 을 채워 발행 대상에서 뺀다
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_published_id", columnList = "published_at, id"),
+        @Index(name = "idx_outbox_aggregate", columnList = "aggregate_id, published_at, id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 30)
+    private String aggregateType;
+
+    // 같은 값끼리는 기록 순서대로 발행된다 (결제 이벤트도 주문 ID 로 묶는다)
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // 이 시각 전에는 다시 발행하지 않는다 (null 이면 바로)
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    // 최대 시도 횟수를 넘겨 발행을 포기한 시각 (수동 처리 대상)
+    @Column(name = "dead_at")
+    private LocalDateTime deadAt;
+}
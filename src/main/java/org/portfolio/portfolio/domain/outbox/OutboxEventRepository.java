@@ -0,0 +1,41 @@
+package org.portfolio.portfolio.domain.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // 지금 발행할 수 있는 이벤트. 재시도를 기다리는 이벤트와, 그보다 뒤에 기록된 같은 주문의 이벤트는 건너뛴다
+    // (실패한 이벤트가 묶음 앞자리를 계속 차지하지 않게 하면서 주문 단위 순서는 지킨다). 포기한 이벤트는 더 막지 않는다
+    @Query("select e from OutboxEvent e where e.publishedAt is null and e.deadAt is null " +
+            "and (e.nextAttemptAt is null or e.nextAttemptAt <= :now) " +
+            "and not exists (select 1 from OutboxEvent b where b.aggregateId = e.aggregateId and b.id < e.id " +
+            "and b.publishedAt is null and b.deadAt is null and b.nextAttemptAt > :now) " +
+            "order by e.id")
+    List<OutboxEvent> findUnpublished(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :now where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, e.deadAt = :deadAt " +
+            "where e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("deadAt") LocalDateTime deadAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.portfolio.portfolio.domain.common.BaseEntity;
 import org.portfolio.portfolio.domain.common.PaymentStatus;
+import org.portfolio.portfolio.domain.common.TimeOrderedId;
 import org.portfolio.portfolio.domain.order.Order;
 
 @Getter
@@ -15,7 +16,7 @@ import org.portfolio.portfolio.domain.order.Order;
 public class Payment extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
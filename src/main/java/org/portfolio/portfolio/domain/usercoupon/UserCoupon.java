@@ -5,17 +5,32 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.portfolio.portfolio.domain.common.BaseEntity;
+import org.portfolio.portfolio.domain.common.TimeOrderedId;
 import org.portfolio.portfolio.domain.coupon.Coupon;
 import org.portfolio.portfolio.domain.user.User;
 
+import java.time.LocalDateTime;
+
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
-@Table(name = "user_coupon")
+@Table(name = "user_coupon", indexes = {
+        // 쿠폰함 키셋 페이지네이션 (전체): user_id = ? and id < ? order by id desc
+        @Index(name = "idx_user_coupon_user_id", columnList = "user_id, id"),
+        // 사용 가능/만료 쿠폰: user_id = ? and used = false and expired = ? and id < ? order by id desc,
+        // expires_at/valid_from 은 인덱스 항목에서 거른다
+        @Index(name = "idx_user_coupon_usable", columnList = "user_id, used, expired, id, expires_at, valid_from"),
+        // 만료 스윕: coupon_id = ? and expired = false and used = false and expires_at <= ? (LIMIT 으로 나눠 갱신)
+        @Index(name = "idx_user_coupon_expiry", columnList = "coupon_id, expired, used, expires_at")
+})
 public class UserCoupon extends BaseEntity {
 
+    // 기간 제한이 없을 때 쓰는 경계값. null 대신 써서 유효성 조건이 인덱스 범위 조건 하나로 끝나게 한다
+    public static final LocalDateTime NOT_BEFORE_ANY = LocalDateTime.of(2000, 1, 1, 0, 0);
+    public static final LocalDateTime NO_EXPIRY = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,23 +44,51 @@ public class UserCoupon extends BaseEntity {
     @Column(nullable = false)
     private boolean used;
 
-    private UserCoupon(User user, Coupon coupon) {
+    // 발급 시점의 쿠폰 유효 기간 [validFrom, expiresAt)
+    @Column(nullable = false, columnDefinition = "datetime(6) not null default '2000-01-01 00:00:00'")
+    private LocalDateTime validFrom;
+
+    @Column(nullable = false, columnDefinition = "datetime(6) not null default '9999-12-31 23:59:59'")
+    private LocalDateTime expiresAt;
+
+    // 만료 스윕이 일괄로 표시한다. 표시 전이라도 expiresAt 이 지났으면 사용할 수 없다
+    @Column(nullable = false)
+    private boolean expired;
+
+    private UserCoupon(User user, Coupon coupon, LocalDateTime validFrom, LocalDateTime validUntil) {
         this.user = user;
         this.coupon = coupon;
         this.used = false;
+        this.validFrom = validFrom != null ? validFrom : NOT_BEFORE_ANY;
+        this.expiresAt = validUntil != null ? validUntil : NO_EXPIRY;
     }
 
     public static UserCoupon issueTo(User user, Coupon coupon) {
-        UserCoupon uc = new UserCoupon(user, coupon);
+        UserCoupon uc = new UserCoupon(user, coupon, coupon.getValidFrom(), coupon.getValidUntil());
         user.addUserCoupon(uc);
         return uc;
     }
 
+    // 대량 발급용: 사용자 컬렉션을 초기화하지 않도록 연관관계 편의 메서드를 거치지 않는다.
+    // 참조 프록시를 넘길 수 있도록 유효 기간은 호출 측에서 따로 받는다
+    public static UserCoupon issueWithoutLoading(User user, Coupon coupon, LocalDateTime validFrom, LocalDateTime validUntil) {
+        return new UserCoupon(user, coupon, validFrom, validUntil);
+    }
+
+    public boolean isWithinValidity(LocalDateTime now) {
+        return !expired && !now.isBefore(validFrom) && now.isBefore(expiresAt);
+    }
+
     public void use() {
         if (used) throw new IllegalStateException("이미 사용된 쿠폰입니다.");
         this.used = true;
     }
 
+    // 결제 실패 보상 시 사용 처리를 되돌린다
+    public void restore() {
+        this.used = false;
+    }
+
     // 양방향 편의
     public void setUserInternal(User user) {
         this.user = user;
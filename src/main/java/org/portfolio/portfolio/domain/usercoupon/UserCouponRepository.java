@@ -1,6 +1,50 @@
 package org.portfolio.portfolio.domain.usercoupon;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface UserCouponRepository extends JpaRepository<UserCoupon, Long> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserCouponRepository extends JpaRepository<UserCoupon, Long>, UserCouponRepositoryCustom {
+
+    // 발급 엔진 적재 시 중복 발급 방지용
+    @Query("select uc.user.id from UserCoupon uc where uc.coupon.id = :couponId")
+    List<Long> findUserIdsByCouponId(@Param("couponId") Long couponId);
+
+    // 소유자/미사용/유효 기간 확인과 사용 처리를 한 문장으로 끝낸다. 0이면 없거나 남의 쿠폰이거나 이미 사용됐거나 기간 밖
+    @Modifying
+    @Query("update UserCoupon uc set uc.used = true " +
+            "where uc.id = :id and uc.user.id = :userId and uc.used = false and uc.expired = false " +
+            "and uc.validFrom <= :now and uc.expiresAt > :now")
+    int claim(@Param("id") Long id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // 만료 스윕: 한 번에 limit 건까지만 갱신해 긴 범위 락을 잡지 않는다 (idx_user_coupon_expiry 사용)
+    @Modifying
+    @Query(value = "update user_coupon set expired = true " +
+            "where coupon_id = :couponId and expired = false and used = false and expires_at <= :now " +
+            "limit :limit", nativeQuery = true)
+    int expireBatch(@Param("couponId") Long couponId, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // 쿠폰 유효 기간 변경을 아직 쓰지 않은 발급분에 옮긴다. 만료 스윕과 같이 limit 건씩 나눠 갱신한다
+    @Modifying
+    @Query(value = "update user_coupon set valid_from = :validFrom, expires_at = :expiresAt " +
+            "where coupon_id = :couponId and expired = false and used = false " +
+            "and (valid_from <> :validFrom or expires_at <> :expiresAt) " +
+            "limit :limit", nativeQuery = true)
+    int rescheduleBatch(@Param("couponId") Long couponId, @Param("validFrom") LocalDateTime validFrom,
+                        @Param("expiresAt") LocalDateTime expiresAt, @Param("limit") int limit);
+
+    // 견적용 조회 (사용 처리하지 않는다)
+    @Query("select new org.portfolio.portfolio.domain.usercoupon.UserCouponView(" +
+            "uc.id, uc.user.id, uc.coupon.id, uc.used, uc.expired, uc.validFrom, uc.expiresAt) " +
+            "from UserCoupon uc where uc.id in :ids")
+    List<UserCouponView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select uc.coupon.id from UserCoupon uc where uc.id = :id")
+    Optional<Long> findCouponIdById(@Param("id") Long id);
 }
@@ -0,0 +1,9 @@
+package org.portfolio.portfolio.domain.usercoupon;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UserCouponRepositoryCustom {
+    // 키셋 페이지네이션: id 가 cursor 보다 작은 행을 id 내림차순으로 최대 limit 건 (cursor 가 null 이면 처음부터)
+    List<WalletCoupon> findWallet(Long userId, WalletFilter filter, Long cursor, int limit, LocalDateTime now);
+}
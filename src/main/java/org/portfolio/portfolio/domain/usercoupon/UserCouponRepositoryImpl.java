@@ -0,0 +1,74 @@
+package org.portfolio.portfolio.domain.usercoupon;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.portfolio.portfolio.domain.coupon.QCoupon.coupon;
+import static org.portfolio.portfolio.domain.usercoupon.QUserCoupon.userCoupon;
+
+@Repository
+@RequiredArgsConstructor
+public class UserCouponRepositoryImpl implements UserCouponRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    @Override
+    public List<WalletCoupon> findWallet(Long userId, WalletFilter filter, Long cursor, int limit, LocalDateTime now) {
+        BooleanBuilder builder = new BooleanBuilder(userCoupon.user.id.eq(userId));
+        if (cursor != null) {
+            builder.and(userCoupon.id.lt(cursor));
+        }
+        if (filter == WalletFilter.USABLE) {
+            // idx_user_coupon_usable(user_id, used, expired, id, expires_at, valid_from) 에서 id 순서로 읽고
+            // 기간 조건은 인덱스 항목으로 걸러 테이블을 읽지 않는다
+            builder.and(userCoupon.used.isFalse())
+                    .and(userCoupon.expired.isFalse())
+                    .and(userCoupon.validFrom.loe(now))
+                    .and(userCoupon.expiresAt.gt(now));
+        } else if (filter == WalletFilter.EXPIRED) {
+            // expired OR (미사용 AND 기간 경과) 는 한 인덱스 범위로 id 순서를 유지할 수 없어 두 키셋 범위로 나눠 읽는다.
+            // 만료 스윕은 미사용 쿠폰만 표시하고 사용은 미만료 쿠폰만 가능하므로 expired = true 이면 used = false 다
+            BooleanBuilder swept = new BooleanBuilder(builder)
+                    .and(userCoupon.used.isFalse())
+                    .and(userCoupon.expired.isTrue());
+            BooleanBuilder lapsed = new BooleanBuilder(builder)
+                    .and(userCoupon.used.isFalse())
+                    .and(userCoupon.expired.isFalse())
+                    .and(userCoupon.expiresAt.loe(now));
+            List<WalletCoupon> merged = new ArrayList<>(fetchPage(swept, limit));
+            merged.addAll(fetchPage(lapsed, limit));
+            merged.sort(Comparator.comparing(WalletCoupon::userCouponId).reversed());
+            return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+        }
+        return fetchPage(builder, limit);
+    }
+
+    // 오프셋/카운트 쿼리 없이 인덱스의 (user_id, ..., id) 범위만 읽으므로 쿠폰 수와 관계없이 비용이 일정하다
+    private List<WalletCoupon> fetchPage(BooleanBuilder where, int limit) {
+        return queryFactory
+                .select(Projections.constructor(WalletCoupon.class,
+                        userCoupon.id,
+                        coupon.id,
+                        coupon.name,
+                        coupon.type,
+                        coupon.discountValue,
+                        userCoupon.used,
+                        userCoupon.expired,
+                        userCoupon.validFrom,
+                        userCoupon.expiresAt))
+                .from(userCoupon)
+                .join(userCoupon.coupon, coupon)
+                .where(where)
+                .orderBy(userCoupon.id.desc())
+                .limit(limit)
+                .fetch();
+    }
+}
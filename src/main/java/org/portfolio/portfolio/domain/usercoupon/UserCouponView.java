@@ -0,0 +1,12 @@
+package org.portfolio.portfolio.domain.usercoupon;
+
+import java.time.LocalDateTime;
+
+// 견적 계산용 유저 쿠폰 조회 값 (엔티티/연관 로딩 없이 소유자, 사용 여부, 유효 기간만 확인한다)
+public record UserCouponView(Long id, Long userId, Long couponId, boolean used,
+                             boolean expired, LocalDateTime validFrom, LocalDateTime expiresAt) {
+
+    public boolean isWithinValidity(LocalDateTime now) {
+        return !expired && !now.isBefore(validFrom) && now.isBefore(expiresAt);
+    }
+}
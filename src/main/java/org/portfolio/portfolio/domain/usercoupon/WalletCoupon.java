@@ -0,0 +1,17 @@
+package org.portfolio.portfolio.domain.usercoupon;
+
+import org.portfolio.portfolio.domain.common.CouponType;
+
+import java.time.LocalDateTime;
+
+// 쿠폰함 조회용 프로젝션 (엔티티/영속성 컨텍스트를 거치지 않는다)
+public record WalletCoupon(Long userCouponId,
+                           Long couponId,
+                           String name,
+                           CouponType type,
+                           long discountValue,
+                           boolean used,
+                           boolean expired,
+                           LocalDateTime validFrom,
+                           LocalDateTime expiresAt) {
+}
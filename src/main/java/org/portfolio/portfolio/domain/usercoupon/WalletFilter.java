@@ -0,0 +1,7 @@
+package org.portfolio.portfolio.domain.usercoupon;
+
+public enum WalletFilter {
+    ALL,
+    USABLE,   // 미사용 + 유효 기간 안
+    EXPIRED   // 만료 표시됐거나, 아직 표시 전이지만 유효 기간이 지난 미사용 쿠폰
+}
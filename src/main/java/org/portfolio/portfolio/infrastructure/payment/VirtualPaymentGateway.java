@@ -1,26 +1,181 @@
 package org.portfolio.portfolio.infrastructure.payment;
 
+import jakarta.annotation.PreDestroy;
+import org.portfolio.portfolio.application.payment.PaymentAuthorization;
 import org.portfolio.portfolio.application.payment.PaymentGateway;
 import org.portfolio.portfolio.application.payment.PaymentResult;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.SecureRandom;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * 가상 PG 시뮬레이터.
+ * 지연 분포(고정/균등/로그정규), 승인 거절률, 통신 오류율, 응답이 멈추는 stall 을 설정으로 흉내 낸다.
+ * 응답은 스케줄러가 지연 후 완료시키므로 비동기 호출은 대기 중에 스레드를 점유하지 않는다.
+ * 주문마다 처음 정해진 승인/거절 결과를 기억해 같은 orderId 의 재시도(헤지)에는 같은 결과를 돌려준다.
+ * 통신 오류는 PG 가 요청을 처리하지 못한 것으로 보고 기억하지 않는다.
+ */
 @Component
 public class VirtualPaymentGateway implements PaymentGateway {
 
-    private final SecureRandom random = new SecureRandom();
+    public enum LatencyDistribution {
+        FIXED, UNIFORM, LOG_NORMAL
+    }
+
+    private static final int MAX_REMEMBERED_ORDERS = 100_000;
+
+    private final Random random;
+    private final LatencyDistribution distribution;
+    // FIXED: 고정 지연, UNIFORM: 하한, LOG_NORMAL: 중앙값
+    private final long roundTripLatencyMs;
+    // UNIFORM: 하한 위로 더해지는 최대 폭
+    private final long latencySpreadMs;
+    // LOG_NORMAL: 로그 표준편차. 클수록 꼬리 지연이 길어진다
+    private final double latencySigma;
+    private final long perItemLatencyMs;
+    private final double declineRate;
+    private final double errorRate;
+    private final double stallRate;
+    private final long stallMs;
+    // 주문별로 정해진 결과. 오래된 주문부터 잊어 메모리를 제한한다
+    private final Map<String, PaymentResult> decisions = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PaymentResult> eldest) {
+            return size() > MAX_REMEMBERED_ORDERS;
+        }
+    });
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "virtual-pg-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public VirtualPaymentGateway(@Value("${timedeal.payment.virtual.latency-distribution:FIXED}") LatencyDistribution distribution,
+                                 @Value("${timedeal.payment.virtual.round-trip-latency-ms:0}") long roundTripLatencyMs,
+                                 @Value("${timedeal.payment.virtual.latency-spread-ms:0}") long latencySpreadMs,
+                                 @Value("${timedeal.payment.virtual.latency-sigma:0.5}") double latencySigma,
+                                 @Value("${timedeal.payment.virtual.per-item-latency-ms:0}") long perItemLatencyMs,
+                                 @Value("${timedeal.payment.virtual.decline-rate:0.10}") double declineRate,
+                                 @Value("${timedeal.payment.virtual.error-rate:0.0}") double errorRate,
+                                 @Value("${timedeal.payment.virtual.stall-rate:0.0}") double stallRate,
+                                 @Value("${timedeal.payment.virtual.stall-ms:30000}") long stallMs,
+                                 @Value("${timedeal.payment.virtual.seed:-1}") long seed) {
+        this.distribution = distribution;
+        this.roundTripLatencyMs = roundTripLatencyMs;
+        this.latencySpreadMs = latencySpreadMs;
+        this.latencySigma = latencySigma;
+        this.perItemLatencyMs = perItemLatencyMs;
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+        this.stallRate = stallRate;
+        this.stallMs = stallMs;
+        // 시드를 주면 같은 순서의 지연/결과가 재현된다 (오프라인 벤치마크용)
+        this.random = seed >= 0 ? new Random(seed) : new Random();
+    }
 
     @Override
     public PaymentResult authorize(long amount, String orderId) {
-        // 10% 확률로 실패 시뮬레이션
-        int r = random.nextInt(100);
-        if (r < 10) {
+        return join(authorizeAsync(amount, orderId, Runnable::run));
+    }
+
+    @Override
+    public CompletableFuture<PaymentResult> authorizeAsync(long amount, String orderId, Executor executor) {
+        return respondAfter(sampleLatencyMs(1), () -> decide(amount, orderId));
+    }
+
+    // 묶음 승인은 왕복 지연을 한 번만 치르고, 건별 결과는 단건과 같은 확률로 정한다
+    @Override
+    public List<PaymentResult> authorizeBatch(List<PaymentAuthorization> authorizations) {
+        return join(respondAfter(sampleLatencyMs(authorizations.size()), () -> {
+            List<PaymentResult> results = new ArrayList<>(authorizations.size());
+            for (PaymentAuthorization authorization : authorizations) {
+                results.add(decide(authorization.amount(), authorization.orderId()));
+            }
+            return results;
+        }));
+    }
+
+    @Override
+    public boolean voidAuthorization(String orderId) {
+        decisions.remove(orderId);
+        return true;
+    }
+
+    @Override
+    public boolean supportsIdempotentRetry() {
+        return true;
+    }
+
+    private <T> CompletableFuture<T> respondAfter(long delayMs, Supplier<T> response) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable complete = () -> {
+            try {
+                future.complete(response.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        };
+        if (delayMs <= 0) complete.run();
+        else timer.schedule(complete, delayMs, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    private PaymentResult decide(long amount, String orderId) {
+        // 통신 오류는 computeIfAbsent 밖으로 던져져 기억되지 않는다
+        return decisions.computeIfAbsent(orderId, id -> roll(amount, id));
+    }
+
+    private PaymentResult roll(long amount, String orderId) {
+        double r = random.nextDouble();
+        if (r < errorRate) {
+            throw new IllegalStateException("VIRTUAL_GATEWAY_ERROR");
+        }
+        if (r < errorRate + declineRate) {
             return PaymentResult.failure("VIRTUAL_GATEWAY_RANDOM_FAIL");
         }
-        // 성공
-        String txId = "VT-" + UUID.randomUUID();
+        // 같은 주문의 재시도는 같은 거래로 승인된다
+        String txId = "VT-" + UUID.nameUUIDFromBytes(orderId.getBytes(StandardCharsets.UTF_8));
         return PaymentResult.success(txId, amount);
     }
+
+    private long sampleLatencyMs(int items) {
+        if (stallRate > 0 && random.nextDouble() < stallRate) {
+            return stallMs;
+        }
+        long base = switch (distribution) {
+            case FIXED -> roundTripLatencyMs;
+            case UNIFORM -> roundTripLatencyMs + (latencySpreadMs > 0 ? (long) (random.nextDouble() * latencySpreadMs) : 0L);
+            case LOG_NORMAL -> Math.round(roundTripLatencyMs * Math.exp(random.nextGaussian() * latencySigma));
+        };
+        return base + perItemLatencyMs * items;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
 }
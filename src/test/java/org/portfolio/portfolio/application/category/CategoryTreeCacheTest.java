@@ -0,0 +1,87 @@
+package org.portfolio.portfolio.application.category;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.domain.category.CategoryNode;
+import org.portfolio.portfolio.domain.category.CategoryRepository;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryTreeCacheTest {
+
+    private static final List<CategoryNode> ONE = List.of(new CategoryNode(1L, null));
+    private static final List<CategoryNode> TWO = List.of(new CategoryNode(1L, null), new CategoryNode(2L, 1L));
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final CategoryTreeCache cache = new CategoryTreeCache(categoryRepository, new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("The snapshot is reused until invalidated, then rebuilt once")
+    void invalidate_triggers_one_rebuild() {
+        when(categoryRepository.findAllNodes()).thenReturn(ONE).thenReturn(TWO);
+
+        CategoryTreeSnapshot first = cache.current();
+        Assertions.assertSame(first, cache.current());
+
+        cache.invalidate();
+        CategoryTreeSnapshot second = cache.current();
+
+        Assertions.assertTrue(second.version() > first.version());
+        Assertions.assertEquals(2, second.size());
+        verify(categoryRepository, times(2)).findAllNodes();
+    }
+
+    @Test
+    @DisplayName("While one thread rebuilds, other readers get the previous snapshot without waiting")
+    void readers_do_not_wait_for_rebuild() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(categoryRepository.findAllNodes()).thenReturn(ONE).thenAnswer(inv -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return TWO;
+        });
+        CategoryTreeSnapshot previous = cache.current();
+        cache.invalidate();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<CategoryTreeSnapshot> rebuilding = executor.submit(cache::current);
+        Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        Assertions.assertSame(previous, cache.current());
+
+        release.countDown();
+        Assertions.assertEquals(2, rebuilding.get(5, TimeUnit.SECONDS).size());
+        executor.shutdown();
+        Assertions.assertEquals(2, cache.current().size());
+    }
+
+    @Test
+    @DisplayName("Under continuous changes the rebuild gives up after MAX_RELOAD_ATTEMPTS reads")
+    void rebuild_retries_are_capped() {
+        when(categoryRepository.findAllNodes()).thenReturn(ONE);
+        cache.current();
+        when(categoryRepository.findAllNodes()).thenAnswer(inv -> {
+            cache.invalidate();         // 읽을 때마다 변경이 커밋된다
+            return TWO;
+        });
+        cache.invalidate();
+
+        CategoryTreeSnapshot snapshot = cache.current();
+
+        Assertions.assertEquals(2, snapshot.size());
+        verify(categoryRepository, times(1 + CategoryTreeCache.MAX_RELOAD_ATTEMPTS)).findAllNodes();
+    }
+}
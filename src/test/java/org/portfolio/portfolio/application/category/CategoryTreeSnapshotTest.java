@@ -0,0 +1,107 @@
+package org.portfolio.portfolio.application.category;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.domain.category.CategoryNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+class CategoryTreeSnapshotTest {
+
+    @Test
+    @DisplayName("Each root owns only its own subtree, sorted and including itself")
+    void multiple_roots_are_separate_subtrees() {
+        // 1 ─ 2 ─ 4      3 ─ 5
+        //   └ 6
+        CategoryTreeSnapshot snapshot = CategoryTreeSnapshot.of(7, List.of(
+                new CategoryNode(4L, 2L), new CategoryNode(5L, 3L), new CategoryNode(1L, null),
+                new CategoryNode(6L, 1L), new CategoryNode(3L, null), new CategoryNode(2L, 1L)));
+
+        Assertions.assertEquals(7, snapshot.version());
+        Assertions.assertEquals(6, snapshot.size());
+        Assertions.assertArrayEquals(new long[]{1, 2, 4, 6}, snapshot.descendantIds(1));
+        Assertions.assertArrayEquals(new long[]{2, 4}, snapshot.descendantIds(2));
+        Assertions.assertArrayEquals(new long[]{3, 5}, snapshot.descendantIds(3));
+        Assertions.assertArrayEquals(new long[]{4}, snapshot.descendantIds(4));
+        Assertions.assertTrue(snapshot.isDescendant(1, 4));
+        Assertions.assertTrue(snapshot.isDescendant(1, 1));
+        Assertions.assertFalse(snapshot.isDescendant(1, 5));
+        Assertions.assertFalse(snapshot.isDescendant(4, 2));
+    }
+
+    @Test
+    @DisplayName("A node whose parent is missing is treated as a root")
+    void orphan_becomes_root() {
+        CategoryTreeSnapshot snapshot = CategoryTreeSnapshot.of(1, List.of(
+                new CategoryNode(10L, 99L), new CategoryNode(11L, 10L), new CategoryNode(1L, null)));
+
+        Assertions.assertArrayEquals(new long[]{10, 11}, snapshot.descendantIds(10));
+        Assertions.assertArrayEquals(new long[]{1}, snapshot.descendantIds(1));
+        Assertions.assertFalse(snapshot.contains(99));
+    }
+
+    @Test
+    @DisplayName("Nodes in a cycle, and nodes hanging off it, only contain themselves")
+    void cycle_nodes_contain_only_themselves() {
+        // 20 <-> 21 순환, 22 는 순환에 매달림, 23 은 자기 자신이 부모
+        CategoryTreeSnapshot snapshot = CategoryTreeSnapshot.of(1, List.of(
+                new CategoryNode(20L, 21L), new CategoryNode(21L, 20L), new CategoryNode(22L, 20L),
+                new CategoryNode(23L, 23L), new CategoryNode(1L, null), new CategoryNode(2L, 1L)));
+
+        Assertions.assertArrayEquals(new long[]{20}, snapshot.descendantIds(20));
+        Assertions.assertArrayEquals(new long[]{21}, snapshot.descendantIds(21));
+        Assertions.assertArrayEquals(new long[]{22}, snapshot.descendantIds(22));
+        Assertions.assertArrayEquals(new long[]{23}, snapshot.descendantIds(23));
+        Assertions.assertFalse(snapshot.isDescendant(20, 22));
+        // 정상 트리는 영향을 받지 않는다
+        Assertions.assertArrayEquals(new long[]{1, 2}, snapshot.descendantIds(1));
+    }
+
+    @Test
+    @DisplayName("A deep chain is built without recursion and every level sees the rest of the chain")
+    void deep_chain() {
+        int depth = 2_000;
+        List<CategoryNode> nodes = new ArrayList<>();
+        for (long id = 1; id <= depth; id++) nodes.add(new CategoryNode(id, id == 1 ? null : id - 1));
+        Collections.shuffle(nodes, new Random(42));
+
+        CategoryTreeSnapshot snapshot = CategoryTreeSnapshot.of(1, nodes);
+
+        Assertions.assertEquals(depth, snapshot.descendantCount(1));
+        Assertions.assertEquals(1, snapshot.descendantCount(depth));
+        Assertions.assertEquals(depth - 999, snapshot.descendantCount(1_000));
+        long[] fromMiddle = snapshot.descendantIds(1_000);
+        Assertions.assertEquals(1_000, fromMiddle[0]);
+        Assertions.assertEquals(depth, fromMiddle[fromMiddle.length - 1]);
+        Assertions.assertTrue(snapshot.isDescendant(1, depth));
+        Assertions.assertFalse(snapshot.isDescendant(depth, 1));
+    }
+
+    @Test
+    @DisplayName("Unknown ids and an empty tree return nothing")
+    void unknown_ids_return_empty() {
+        CategoryTreeSnapshot snapshot = CategoryTreeSnapshot.of(1, List.of(new CategoryNode(1L, null)));
+        CategoryTreeSnapshot empty = CategoryTreeSnapshot.of(1, List.of());
+
+        Assertions.assertArrayEquals(new long[0], snapshot.descendantIds(5));
+        Assertions.assertEquals(0, snapshot.descendantCount(5));
+        Assertions.assertFalse(snapshot.isDescendant(5, 1));
+        Assertions.assertEquals(0, empty.size());
+        Assertions.assertArrayEquals(new long[0], empty.descendantIds(1));
+    }
+
+    @Test
+    @DisplayName("Callers cannot modify the snapshot through the returned array")
+    void returned_array_is_a_copy() {
+        CategoryTreeSnapshot snapshot = CategoryTreeSnapshot.of(1, List.of(
+                new CategoryNode(1L, null), new CategoryNode(2L, 1L)));
+
+        snapshot.descendantIds(1)[1] = 99;
+
+        Assertions.assertArrayEquals(new long[]{1, 2}, snapshot.descendantIds(1));
+    }
+}
@@ -0,0 +1,48 @@
+package org.portfolio.portfolio.application.category;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.domain.category.CategoryRepository;
+import org.portfolio.portfolio.domain.category.CategorySubtreeRow;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecursiveCteCategoryDescendantResolverTest {
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final RecursiveCteCategoryDescendantResolver resolver = new RecursiveCteCategoryDescendantResolver(categoryRepository, 2);
+
+    @Test
+    @DisplayName("Nodes within max-depth are returned")
+    void nodes_within_depth_are_returned() {
+        when(categoryRepository.findSubtreeRecursive(1L, 2)).thenReturn(List.of(row(1L, 0), row(2L, 1), row(3L, 2)));
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), resolver.resolve(1L));
+    }
+
+    @Test
+    @DisplayName("The extra level read past max-depth only marks truncation and is left out")
+    void level_past_max_depth_is_left_out() {
+        when(categoryRepository.findSubtreeRecursive(1L, 2)).thenReturn(List.of(row(1L, 0), row(2L, 1), row(3L, 2), row(4L, 3)));
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), resolver.resolve(1L));
+    }
+
+    private static CategorySubtreeRow row(Long id, int depth) {
+        return new CategorySubtreeRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getDepth() {
+                return depth;
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package org.portfolio.portfolio.application.coupon;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.application.exception.NotFoundException;
+import org.portfolio.portfolio.domain.coupon.Coupon;
+import org.portfolio.portfolio.domain.coupon.CouponRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CouponDefinitionCacheTest {
+
+    private final CouponRepository couponRepository = mock(CouponRepository.class);
+    private final CouponDefinitionCache cache =
+            new CouponDefinitionCache(couponRepository, new SimpleMeterRegistry(), 2, false);
+
+    @Test
+    @DisplayName("When full, the least recently read definition is evicted")
+    void evicts_least_recently_used() {
+        Coupon first = coupon(1L, 1_000);
+        Coupon second = coupon(2L, 2_000);
+        cache.put(first);
+        cache.put(second);
+        cache.get(1L);                  // 1 을 최근에 읽었으므로 2 가 가장 오래됐다
+        cache.put(coupon(3L, 3_000));
+
+        Assertions.assertEquals(2, cache.size());
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(first));
+        when(couponRepository.findById(2L)).thenReturn(Optional.of(second));
+        Assertions.assertEquals(1_000, cache.get(1L).discountValue());
+        Assertions.assertEquals(2_000, cache.get(2L).discountValue());
+        verify(couponRepository, never()).findById(1L);
+        verify(couponRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("A value loaded while an invalidation happened is returned but not cached")
+    void load_racing_invalidation_is_not_cached() {
+        Coupon coupon = coupon(1L, 1_000);
+        when(couponRepository.findById(1L)).thenAnswer(inv -> {
+            cache.invalidate(1L);       // 조회 도중 쿠폰이 수정됐다
+            return Optional.of(coupon);
+        });
+
+        Assertions.assertEquals(1_000, cache.get(1L).discountValue());
+        Assertions.assertEquals(0, cache.size());
+        cache.get(1L);
+        verify(couponRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("An invalidated coupon is read from the repository again")
+    void invalidate_forces_reload() {
+        cache.put(coupon(1L, 1_000));
+        Coupon updated = coupon(1L, 5_000);
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(updated));
+
+        Assertions.assertEquals(1_000, cache.get(1L).discountValue());
+        cache.invalidate(1L);
+        Assertions.assertEquals(5_000, cache.get(1L).discountValue());
+        Assertions.assertEquals(5_000, cache.get(1L).discountValue());
+        verify(couponRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("A missing coupon throws NotFoundException and is not cached")
+    void missing_coupon_throws() {
+        Assertions.assertThrows(NotFoundException.class, () -> cache.get(9L));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    private static Coupon coupon(Long id, long amount) {
+        Coupon coupon = Coupon.fixed("쿠폰-" + id, amount);
+        ReflectionTestUtils.setField(coupon, "id", id);
+        return coupon;
+    }
+}
@@ -0,0 +1,96 @@
+package org.portfolio.portfolio.application.coupon;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class HashedTimingWheelTest {
+
+    // 틱 100ms, 슬롯 4개 -> 한 바퀴 400ms. 시각은 휠 시작(0) 기준 ms
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 4, 0);
+
+    @Test
+    @DisplayName("A task is due on the first tick at or after its deadline, never before")
+    void task_due_on_deadline_tick() {
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 300);
+
+        Assertions.assertEquals(List.of(), wheel.advance(299));
+        Assertions.assertEquals(List.of("a", "b"), wheel.advance(300));
+        Assertions.assertEquals(List.of(), wheel.advance(1_000));
+    }
+
+    @Test
+    @DisplayName("A deadline several rotations away waits out its rounds")
+    void multi_round_task_waits_for_its_rounds() {
+        wheel.schedule("far", 1_000);   // 10틱 뒤: 같은 슬롯을 두 번 지나친 뒤 만료
+
+        Assertions.assertEquals(List.of(), wheel.advance(200));
+        Assertions.assertEquals(List.of(), wheel.advance(600));
+        Assertions.assertEquals(List.of(), wheel.advance(999));
+        Assertions.assertEquals(List.of("far"), wheel.advance(1_000));
+    }
+
+    @Test
+    @DisplayName("Rounds are counted from the current tick for tasks added after the wheel moved")
+    void rounds_counted_from_current_tick() {
+        wheel.advance(550);             // 다음 틱은 6
+        wheel.schedule("later", 1_000); // 틱 10: 슬롯 2 를 틱 6 에서 한 번 지나친다
+
+        Assertions.assertEquals(List.of(), wheel.advance(900));
+        Assertions.assertEquals(List.of("later"), wheel.advance(1_000));
+    }
+
+    @Test
+    @DisplayName("Advancing several rotations at once still expires every task once")
+    void long_jump_expires_all_once() {
+        wheel.schedule("x", 150);
+        wheel.schedule("y", 1_750);
+        wheel.schedule("z", 3_000);
+
+        Assertions.assertEquals(List.of("x", "y"), wheel.advance(2_000));
+        Assertions.assertEquals(List.of("z"), wheel.advance(5_000));
+    }
+
+    @Test
+    @DisplayName("A deadline already in the past is due on the next advance")
+    void past_deadline_is_due_immediately() {
+        wheel.advance(1_000);
+        wheel.schedule("late", 500);
+
+        Assertions.assertEquals(List.of("late"), wheel.advance(1_000));
+    }
+
+    @Test
+    @DisplayName("A cancelled task never fires, whether still pending or already in a slot")
+    void cancelled_task_never_fires() {
+        HashedTimingWheel.Timeout<String> pending = wheel.schedule("pending", 300);
+        Assertions.assertTrue(pending.cancel());
+        Assertions.assertEquals(List.of(), wheel.advance(500));
+
+        HashedTimingWheel.Timeout<String> slotted = wheel.schedule("slotted", 1_500);
+        wheel.advance(600);             // 슬롯으로 옮겨졌다
+        Assertions.assertTrue(slotted.cancel());
+        Assertions.assertTrue(slotted.isCancelled());
+        Assertions.assertEquals(List.of(), wheel.advance(3_000));
+    }
+
+    @Test
+    @DisplayName("A task cannot be cancelled after it expired")
+    void cancel_after_expiry_fails() {
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("done", 100);
+        Assertions.assertEquals(List.of("done"), wheel.advance(100));
+
+        Assertions.assertTrue(timeout.isExpired());
+        Assertions.assertFalse(timeout.cancel());
+    }
+
+    @Test
+    @DisplayName("The wheel size must be a power of two")
+    void wheel_size_must_be_power_of_two() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<>(100, 6, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<>(0, 4, 0));
+    }
+}
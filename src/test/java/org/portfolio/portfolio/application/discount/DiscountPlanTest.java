@@ -0,0 +1,144 @@
+package org.portfolio.portfolio.application.discount;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.domain.common.CouponType;
+import org.portfolio.portfolio.domain.coupon.CouponDefinition;
+
+import java.util.List;
+
+import static org.portfolio.portfolio.application.discount.DiscountPlan.COUPON_FIXED;
+import static org.portfolio.portfolio.application.discount.DiscountPlan.COUPON_RATE;
+import static org.portfolio.portfolio.application.discount.DiscountPlan.NO_CATEGORY;
+import static org.portfolio.portfolio.application.discount.DiscountPlan.NO_COUPON;
+
+class DiscountPlanTest {
+
+    private static final long CATEGORY = 3L;
+
+    @Test
+    @DisplayName("Rules apply in priority order and a rate applies to what is left")
+    void rules_apply_in_priority_order() {
+        DiscountRule fixed = DiscountRule.categoryFixed(CATEGORY, 1_000, 1);
+        DiscountRule rate = DiscountRule.categoryRate(CATEGORY, 10, 2);
+
+        // 정액 1,000 먼저 -> 남은 9,000 의 10%
+        Assertions.assertEquals(1_900, DiscountPlan.compile(List.of(rate, fixed))
+                .evaluate(10_000, CATEGORY, false, NO_COUPON, 0));
+        // 정률 먼저 -> 10,000 의 10% + 정액 1,000
+        DiscountRule rateFirst = DiscountRule.categoryRate(CATEGORY, 10, 0);
+        Assertions.assertEquals(2_000, DiscountPlan.compile(List.of(fixed, rateFirst))
+                .evaluate(10_000, CATEGORY, false, NO_COUPON, 0));
+    }
+
+    @Test
+    @DisplayName("Only the first matching rule of an exclusive group applies")
+    void exclusive_group_applies_first_match_only() {
+        DiscountPlan plan = DiscountPlan.compile(List.of(
+                DiscountRule.firstPurchaseRate(10, 1).exclusiveIn(1),
+                DiscountRule.categoryFixed(CATEGORY, 2_000, 2).exclusiveIn(1),
+                DiscountRule.coupon(3)));
+
+        // 첫 구매가 먼저 맞으므로 카테고리 할인은 건너뛰고, 그룹 밖의 쿠폰은 적용된다
+        Assertions.assertEquals(1_000 + 500, plan.evaluate(10_000, CATEGORY, true, COUPON_FIXED, 500));
+        // 첫 구매가 아니면 같은 그룹의 카테고리 할인이 적용된다
+        Assertions.assertEquals(2_000, plan.evaluate(10_000, CATEGORY, false, NO_COUPON, 0));
+        // 어느 조건도 맞지 않으면 할인 없음
+        Assertions.assertEquals(0, plan.evaluate(10_000, NO_CATEGORY, false, NO_COUPON, 0));
+    }
+
+    @Test
+    @DisplayName("A non-matching rule does not claim its exclusive group")
+    void unmatched_rule_does_not_claim_group() {
+        DiscountPlan plan = DiscountPlan.compile(List.of(
+                DiscountRule.categoryFixed(99L, 5_000, 1).exclusiveIn(2),
+                DiscountRule.categoryRate(CATEGORY, 20, 2).exclusiveIn(2)));
+
+        Assertions.assertEquals(2_000, plan.evaluate(10_000, CATEGORY, false, NO_COUPON, 0));
+    }
+
+    @Test
+    @DisplayName("CAP clips the discount accumulated so far")
+    void cap_clips_accumulated_discount() {
+        DiscountPlan plan = DiscountPlan.compile(List.of(
+                DiscountRule.cap(4_000),
+                DiscountRule.firstPurchaseRate(50, 1),
+                DiscountRule.coupon(2)));
+
+        Assertions.assertEquals(4_000, plan.evaluate(10_000, NO_CATEGORY, true, COUPON_FIXED, 3_000));
+        // 상한 아래면 그대로
+        Assertions.assertEquals(3_000, plan.evaluate(10_000, NO_CATEGORY, false, COUPON_FIXED, 3_000));
+    }
+
+    @Test
+    @DisplayName("Rules after a CAP can still add discount")
+    void rules_after_cap_still_apply() {
+        DiscountPlan plan = DiscountPlan.compile(List.of(
+                DiscountRule.firstPurchaseRate(50, 1),
+                new DiscountRule("mid-cap", DiscountRuleType.CAP, 1_000, DiscountCondition.ALWAYS, 0L, 2, 0),
+                DiscountRule.coupon(3)));
+
+        Assertions.assertEquals(1_000 + 500, plan.evaluate(10_000, NO_CATEGORY, true, COUPON_FIXED, 500));
+    }
+
+    @Test
+    @DisplayName("The total discount never exceeds the order amount")
+    void discount_never_exceeds_total() {
+        DiscountPlan plan = DiscountPlan.compile(List.of(
+                DiscountRule.categoryFixed(CATEGORY, 8_000, 1),
+                DiscountRule.coupon(2)));
+
+        Assertions.assertEquals(10_000, plan.evaluate(10_000, CATEGORY, false, COUPON_FIXED, 5_000));
+        Assertions.assertEquals(0, plan.evaluate(0, CATEGORY, false, COUPON_FIXED, 5_000));
+    }
+
+    @Test
+    @DisplayName("The default coupon-only plan matches CouponDefinition")
+    void default_plan_matches_coupon_definition() {
+        DiscountPlan plan = DiscountPlan.compile(DiscountEngine.DEFAULT_RULES);
+        long[] prices = {1, 999, 9_999, 12_345, 1_000_000};
+        for (long price : prices) {
+            for (int percent : new int[]{1, 15, 33, 100}) {
+                long expected = new CouponDefinition(1L, CouponType.RATE, percent).calculateDiscount(price);
+                Assertions.assertEquals(expected, plan.evaluate(price, NO_CATEGORY, false, COUPON_RATE, percent));
+            }
+            long expected = new CouponDefinition(1L, CouponType.FIXED, 3_000).calculateDiscount(price);
+            Assertions.assertEquals(expected, plan.evaluate(price, NO_CATEGORY, false, COUPON_FIXED, 3_000));
+        }
+        Assertions.assertEquals(0, plan.evaluate(10_000, NO_CATEGORY, false, NO_COUPON, 0));
+    }
+
+    @Test
+    @DisplayName("Compiling keeps the rules sorted by priority and flags first-purchase lookups")
+    void compile_sorts_rules_and_flags_first_purchase() {
+        DiscountRule coupon = DiscountRule.coupon(5);
+        DiscountRule category = DiscountRule.categoryFixed(CATEGORY, 1_000, 1);
+        DiscountPlan plan = DiscountPlan.compile(List.of(coupon, category));
+
+        Assertions.assertEquals(List.of(category, coupon), plan.rules());
+        Assertions.assertFalse(plan.requiresFirstPurchase());
+        Assertions.assertTrue(DiscountPlan.compile(List.of(DiscountRule.firstPurchaseRate(10, 1))).requiresFirstPurchase());
+    }
+
+    @Test
+    @DisplayName("Installing a rule set swaps the plan the engine evaluates")
+    void engine_install_swaps_plan() {
+        DiscountEngine engine = new DiscountEngine();
+        CouponDefinition coupon = new CouponDefinition(1L, CouponType.FIXED, 1_000);
+        Assertions.assertEquals(1_000, engine.calculate(10_000, CATEGORY, true, coupon));
+
+        engine.install(List.of(DiscountRule.firstPurchaseRate(10, 1), DiscountRule.coupon(2), DiscountRule.cap(1_500)));
+        Assertions.assertTrue(engine.requiresFirstPurchase());
+        Assertions.assertEquals(1_500, engine.calculate(10_000, CATEGORY, true, coupon));
+        Assertions.assertEquals(1_000, engine.calculate(10_000, null, false, coupon));
+        Assertions.assertEquals(0, engine.calculate(10_000, null, false, null));
+    }
+
+    @Test
+    @DisplayName("Invalid rules are rejected")
+    void invalid_rules_rejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DiscountRule.categoryRate(CATEGORY, 101, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DiscountRule.coupon(1).exclusiveIn(64));
+    }
+}
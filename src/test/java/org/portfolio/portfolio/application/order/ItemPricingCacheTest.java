@@ -0,0 +1,83 @@
+package org.portfolio.portfolio.application.order;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.domain.item.ItemPricing;
+import org.portfolio.portfolio.domain.item.ItemRepository;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemPricingCacheTest {
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemPricingCache cache = new ItemPricingCache(itemRepository, 100);
+
+    @Test
+    @DisplayName("Cached prices are served without another query")
+    void cached_prices_skip_query() {
+        when(itemRepository.findPricingByIdIn(anyCollection())).thenReturn(List.of(new ItemPricing(1L, 10_000, 3L)));
+
+        Assertions.assertEquals(10_000, cache.getAll(List.of(1L)).get(1L).price());
+        Assertions.assertEquals(10_000, cache.getAll(List.of(1L)).get(1L).price());
+        verify(itemRepository, times(1)).findPricingByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("A price read while the item was evicted is returned but not cached")
+    void load_racing_eviction_is_not_cached() {
+        when(itemRepository.findPricingByIdIn(anyCollection())).thenAnswer(inv -> {
+            cache.evict(1L);            // 조회 도중 가격 변경이 커밋됐다
+            return List.of(new ItemPricing(1L, 10_000, 3L));
+        });
+
+        Assertions.assertEquals(10_000, cache.getAll(List.of(1L)).get(1L).price());
+        cache.getAll(List.of(1L));
+        verify(itemRepository, times(2)).findPricingByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("An evicted item is read again with its new price")
+    void evict_forces_reload() {
+        when(itemRepository.findPricingByIdIn(anyCollection()))
+                .thenReturn(List.of(new ItemPricing(1L, 10_000, 3L)))
+                .thenReturn(List.of(new ItemPricing(1L, 8_000, 3L)));
+
+        Assertions.assertEquals(10_000, cache.getAll(List.of(1L)).get(1L).price());
+        cache.evict(1L);
+        Assertions.assertEquals(8_000, cache.getAll(List.of(1L)).get(1L).price());
+    }
+
+    @Test
+    @DisplayName("Over the size bound the least recently read item is evicted")
+    void evicts_least_recently_read_item() {
+        ItemPricingCache small = new ItemPricingCache(itemRepository, 2);
+        when(itemRepository.findPricingByIdIn(List.of(1L))).thenReturn(List.of(new ItemPricing(1L, 10_000, 3L)));
+        when(itemRepository.findPricingByIdIn(List.of(2L))).thenReturn(List.of(new ItemPricing(2L, 20_000, 3L)));
+        when(itemRepository.findPricingByIdIn(List.of(3L))).thenReturn(List.of(new ItemPricing(3L, 30_000, 3L)));
+
+        small.getAll(List.of(1L));
+        small.getAll(List.of(2L));
+        small.getAll(List.of(1L));      // 1번을 다시 읽어 2번이 가장 오래됐다
+        small.getAll(List.of(3L));
+        small.getAll(List.of(1L));
+        small.getAll(List.of(2L));
+
+        verify(itemRepository, times(1)).findPricingByIdIn(List.of(1L));
+        verify(itemRepository, times(2)).findPricingByIdIn(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("Unknown items are left out of the result")
+    void unknown_items_are_omitted() {
+        when(itemRepository.findPricingByIdIn(anyCollection())).thenReturn(List.of());
+
+        Assertions.assertTrue(cache.getAll(List.of(9L)).isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package org.portfolio.portfolio.application.order;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.application.exception.IntakeQueueFullException;
+import org.portfolio.portfolio.application.idempotency.IdempotencyService;
+import org.portfolio.portfolio.application.stock.StockDecrementStrategyResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIntakeServiceTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+
+    private OrderIntakeService intake(long shutdownTimeoutMillis) {
+        return new OrderIntakeService(orderService, mock(OrderBatchProcessor.class), mock(StockDecrementStrategyResolver.class),
+                new OrderTicketRegistry(60_000), mock(IdempotencyService.class), 100, 1, 50, shutdownTimeoutMillis);
+    }
+
+    // 상품마다 한 건씩이라 묶음 처리 없이 주문 서비스로 바로 간다
+    private static List<OrderTicket> submitThree(OrderIntakeService intake) {
+        List<OrderTicket> tickets = new ArrayList<>();
+        for (long itemId = 1; itemId <= 3; itemId++) {
+            tickets.add(intake.submit(new OrderCommand(1L, itemId, 1, null, 1000L), null, null, null));
+        }
+        return tickets;
+    }
+
+    @Test
+    @DisplayName("Shutdown lets the workers finish every ticket already accepted")
+    void shutdown_drains_buffer() {
+        when(orderService.createOrder(any(OrderCommand.class))).thenReturn(100L);
+        OrderIntakeService intake = intake(5_000);
+        List<OrderTicket> tickets = submitThree(intake);
+        intake.start();
+
+        intake.shutdown();
+
+        tickets.forEach(t -> Assertions.assertEquals(OrderTicketStatus.COMPLETED, t.getStatus()));
+        Assertions.assertEquals(0, intake.queuedCount());
+    }
+
+    @Test
+    @DisplayName("Tickets that could not be processed before the timeout end as failed, not queued")
+    void leftover_tickets_fail() {
+        // 작업자를 띄우지 않아 버퍼가 그대로 남는다
+        OrderIntakeService intake = intake(50);
+        List<OrderTicket> tickets = submitThree(intake);
+
+        intake.shutdown();
+
+        tickets.forEach(t -> {
+            Assertions.assertEquals(OrderTicketStatus.FAILED, t.getStatus());
+            Assertions.assertNotNull(t.getFailureReason());
+        });
+        verify(orderService, never()).createOrder(any(OrderCommand.class));
+    }
+
+    @Test
+    @DisplayName("New submissions are rejected once shutdown started")
+    void submit_after_shutdown_rejected() {
+        OrderIntakeService intake = intake(50);
+        intake.shutdown();
+
+        Assertions.assertThrows(IntakeQueueFullException.class,
+                () -> intake.submit(new OrderCommand(1L, 1L, 1, null, 1000L), null, null, null));
+    }
+}
@@ -0,0 +1,85 @@
+package org.portfolio.portfolio.application.outbox;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.domain.outbox.OutboxEvent;
+import org.portfolio.portfolio.domain.outbox.OutboxEventRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final List<Long> handled = new ArrayList<>();
+    // 주문 1 의 이벤트만 계속 실패하는 구독자
+    private final OutboxSubscriber failingForOrder1 = message -> {
+        if (message.aggregateId() == 1L) throw new IllegalStateException("subscriber down");
+        handled.add(message.id());
+    };
+    private final OutboxRelay relay = new OutboxRelay(repository, List.of(failingForOrder1), 200, 72, MAX_ATTEMPTS, 1_000, 60_000);
+
+    @Test
+    @DisplayName("A failing event is deferred with backoff and later events of the same order wait, other orders are published")
+    void failing_event_is_deferred() {
+        OutboxEvent poison = event(10L, 1L, 0);
+        OutboxEvent sameOrder = event(11L, 1L, 0);
+        OutboxEvent otherOrder = event(12L, 2L, 0);
+        when(repository.findUnpublished(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(poison, sameOrder, otherOrder));
+
+        Assertions.assertEquals(1, relay.relay());
+
+        Assertions.assertEquals(List.of(12L), handled);
+        verify(repository).markPublished(eq(List.of(12L)), any(LocalDateTime.class));
+        verify(repository).recordFailure(eq(10L), notNull(), isNull());
+        verify(repository, never()).recordFailure(eq(11L), any(), any());
+    }
+
+    @Test
+    @DisplayName("An event that keeps failing is parked after max-attempts and no longer retried")
+    void event_is_parked_after_max_attempts() {
+        OutboxEvent poison = event(10L, 1L, MAX_ATTEMPTS - 1);
+        when(repository.findUnpublished(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(poison));
+
+        Assertions.assertEquals(0, relay.relay());
+
+        verify(repository).recordFailure(eq(10L), isNull(), notNull());
+        verify(repository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    @DisplayName("The retry delay doubles per attempt and stops at max-backoff-ms")
+    void backoff_doubles_and_caps() {
+        Assertions.assertEquals(1_000, relay.backoff(1));
+        Assertions.assertEquals(2_000, relay.backoff(2));
+        Assertions.assertEquals(8_000, relay.backoff(4));
+        Assertions.assertEquals(60_000, relay.backoff(10));
+        Assertions.assertEquals(60_000, relay.backoff(Integer.MAX_VALUE));
+    }
+
+    private static OutboxEvent event(Long id, Long aggregateId, int attempts) {
+        OutboxEvent event = mock(OutboxEvent.class);
+        when(event.getId()).thenReturn(id);
+        when(event.getAggregateId()).thenReturn(aggregateId);
+        when(event.getAggregateType()).thenReturn("ORDER");
+        when(event.getEventType()).thenReturn("ORDER_STATUS_CHANGED");
+        when(event.getPayload()).thenReturn("{}");
+        when(event.getAttempts()).thenReturn(attempts);
+        return event;
+    }
+}
@@ -0,0 +1,77 @@
+package org.portfolio.portfolio.application.payment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.infrastructure.payment.VirtualPaymentGateway;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class PaymentAuthorizationClientTest {
+
+    private static final long DEADLINE_MS = 200;
+
+    // 모든 호출이 5초 동안 응답하지 않는 PG
+    private final VirtualPaymentGateway stalled = new VirtualPaymentGateway(
+            VirtualPaymentGateway.LatencyDistribution.FIXED, 0, 0, 0.5, 0, 0.0, 0.0, 1.0, 5_000, 1);
+    // 결과 대기 시간(10초)은 데드라인보다 길다
+    private final PaymentAuthorizationClient client = new PaymentAuthorizationClient(stalled,
+            new PaymentCircuitBreaker(new SimpleMeterRegistry(), 20, 10, 0.5, 5000, 3, 64, 0),
+            true, 50, 2, 4, 10_000, DEADLINE_MS, false, 200, 2, 64);
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        stalled.shutdown();
+    }
+
+    @Test
+    @DisplayName("A micro-batched authorization against a stalled gateway is unknown within the deadline")
+    void queued_batch_is_unknown_at_deadline() {
+        long start = System.nanoTime();
+        PaymentResult result = client.authorize(1000L, "order-1");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assertions.assertTrue(result.isUnknown());
+        Assertions.assertEquals(PaymentAuthorizationClient.TIMEOUT_REASON, result.getFailureReason());
+        Assertions.assertTrue(elapsedMs < 2_000, "waited " + elapsedMs + "ms");
+    }
+
+    @Test
+    @DisplayName("Grouped authorizations against a stalled gateway are all unknown within the deadline")
+    void grouped_batch_is_unknown_at_deadline() {
+        long start = System.nanoTime();
+        List<PaymentResult> results = client.authorizeAll(List.of(
+                new PaymentAuthorization(1000L, "order-1"),
+                new PaymentAuthorization(2000L, "order-2")));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assertions.assertEquals(2, results.size());
+        Assertions.assertTrue(results.stream().allMatch(PaymentResult::isUnknown));
+        Assertions.assertTrue(elapsedMs < 2_000, "waited " + elapsedMs + "ms");
+    }
+
+    @Test
+    @DisplayName("Grouped authorizations that answer in time keep their request order")
+    void grouped_batch_returns_results_in_order() {
+        VirtualPaymentGateway healthy = new VirtualPaymentGateway(
+                VirtualPaymentGateway.LatencyDistribution.FIXED, 10, 0, 0.5, 0, 0.0, 0.0, 0.0, 0, 1);
+        PaymentAuthorizationClient fast = new PaymentAuthorizationClient(healthy,
+                new PaymentCircuitBreaker(new SimpleMeterRegistry(), 20, 10, 0.5, 5000, 3, 64, 0),
+                true, 50, 2, 4, 10_000, DEADLINE_MS, false, 200, 2, 64);
+        try {
+            List<PaymentResult> results = fast.authorizeAll(List.of(
+                    new PaymentAuthorization(1000L, "order-1"),
+                    new PaymentAuthorization(2000L, "order-2")));
+
+            Assertions.assertEquals(1000L, results.get(0).getApprovedAmount());
+            Assertions.assertEquals(2000L, results.get(1).getApprovedAmount());
+        } finally {
+            fast.shutdown();
+            healthy.shutdown();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.portfolio.portfolio.application.waitingroom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class InMemoryWaitingRoomStoreTest {
+
+    private static final Long ITEM = 1L;
+
+    private final InMemoryWaitingRoomStore store = new InMemoryWaitingRoomStore();
+
+    @Test
+    @DisplayName("Tokens are admitted strictly in issue order")
+    void admits_in_issue_order() {
+        WaitingTicket[] tickets = new WaitingTicket[5];
+        for (int i = 0; i < tickets.length; i++) {
+            tickets[i] = store.enqueue(ITEM, 100L + i);
+            Assertions.assertEquals(i + 1, tickets[i].sequence());
+        }
+
+        Assertions.assertEquals(2, store.admit(ITEM, 2));
+
+        Assertions.assertEquals(0, store.position(ITEM, tickets[0].token()));
+        Assertions.assertEquals(0, store.position(ITEM, tickets[1].token()));
+        Assertions.assertEquals(1, store.position(ITEM, tickets[2].token()));
+        Assertions.assertEquals(3, store.position(ITEM, tickets[4].token()));
+        Assertions.assertTrue(store.tryAcquire(ITEM, 100L, tickets[0].token()));
+        Assertions.assertFalse(store.tryAcquire(ITEM, 102L, tickets[2].token()));
+
+        // 대기 인원보다 많이 입장시켜도 발급된 순번을 넘지 않는다
+        Assertions.assertEquals(3, store.admit(ITEM, 10));
+        Assertions.assertEquals(0, store.admit(ITEM, 1));
+        Assertions.assertTrue(store.tryAcquire(ITEM, 104L, tickets[4].token()));
+    }
+
+    @Test
+    @DisplayName("Re-queueing returns the same token and a token only works for its owner")
+    void same_user_gets_same_token() {
+        WaitingTicket first = store.enqueue(ITEM, 7L);
+        WaitingTicket again = store.enqueue(ITEM, 7L);
+        Assertions.assertEquals(first.token(), again.token());
+        Assertions.assertEquals(first.sequence(), again.sequence());
+
+        store.admit(ITEM, 1);
+        Assertions.assertFalse(store.tryAcquire(ITEM, 8L, first.token()));
+        Assertions.assertFalse(store.tryAcquire(ITEM, 7L, "unknown-token"));
+        Assertions.assertEquals(-1, store.position(ITEM, "unknown-token"));
+    }
+
+    @Test
+    @DisplayName("A released token can be reused, a held one cannot, a completed one is gone")
+    void token_reuse_and_completion() {
+        WaitingTicket ticket = store.enqueue(ITEM, 1L);
+        store.admit(ITEM, 1);
+
+        Assertions.assertTrue(store.tryAcquire(ITEM, 1L, ticket.token()));
+        // 같은 토큰으로 동시에 주문할 수 없다
+        Assertions.assertFalse(store.tryAcquire(ITEM, 1L, ticket.token()));
+
+        store.release(ITEM, ticket.token());
+        Assertions.assertTrue(store.tryAcquire(ITEM, 1L, ticket.token()));
+
+        store.complete(ITEM, ticket.token());
+        Assertions.assertFalse(store.tryAcquire(ITEM, 1L, ticket.token()));
+        Assertions.assertEquals(-1, store.position(ITEM, ticket.token()));
+        // 주문을 마친 사용자는 새 순번으로 다시 줄을 선다
+        Assertions.assertNotEquals(ticket.token(), store.enqueue(ITEM, 1L).token());
+    }
+
+    @Test
+    @DisplayName("Admitted tokens expire after the TTL, tokens still waiting do not")
+    void admitted_tokens_expire() {
+        WaitingTicket admitted = store.enqueue(ITEM, 1L);
+        WaitingTicket waiting = store.enqueue(ITEM, 2L);
+        store.admit(ITEM, 1);
+
+        store.expireAdmitted(ITEM, System.currentTimeMillis() + 1);
+
+        Assertions.assertEquals(-1, store.position(ITEM, admitted.token()));
+        Assertions.assertFalse(store.tryAcquire(ITEM, 1L, admitted.token()));
+        Assertions.assertEquals(1, store.position(ITEM, waiting.token()));
+    }
+
+    @Test
+    @DisplayName("Only admissions older than the cutoff expire; later admissions stay")
+    void expiry_stops_at_first_fresh_admission() throws InterruptedException {
+        WaitingTicket[] tickets = new WaitingTicket[4];
+        for (int i = 0; i < tickets.length; i++) tickets[i] = store.enqueue(ITEM, 10L + i);
+        store.admit(ITEM, 1);
+        store.admit(ITEM, 1);
+        Thread.sleep(5);
+        long cutoff = System.currentTimeMillis();
+        Thread.sleep(5);
+        store.admit(ITEM, 1);
+        store.complete(ITEM, tickets[1].token());
+
+        store.expireAdmitted(ITEM, cutoff);
+
+        Assertions.assertEquals(-1, store.position(ITEM, tickets[0].token()));
+        Assertions.assertEquals(-1, store.position(ITEM, tickets[1].token()));
+        Assertions.assertEquals(0, store.position(ITEM, tickets[2].token()));
+        Assertions.assertTrue(store.tryAcquire(ITEM, 12L, tickets[2].token()));
+        Assertions.assertEquals(1, store.position(ITEM, tickets[3].token()));
+
+        // 나중에 기준 시각이 지나면 남은 입장분도 만료된다 (잡힌 토큰은 잡은 시각 기준)
+        store.expireAdmitted(ITEM, Long.MAX_VALUE);
+        Assertions.assertEquals(-1, store.position(ITEM, tickets[2].token()));
+        Assertions.assertEquals(1, store.position(ITEM, tickets[3].token()));
+    }
+
+    @Test
+    @DisplayName("A held token survives expiry while fresh and is dropped once held past the TTL")
+    void held_token_expires_by_age() throws InterruptedException {
+        WaitingTicket ticket = store.enqueue(ITEM, 1L);
+        store.admit(ITEM, 1);
+        Thread.sleep(5);
+        long beforeAcquire = System.currentTimeMillis();
+        Assertions.assertTrue(store.tryAcquire(ITEM, 1L, ticket.token()));
+
+        // 입장 유효 시간은 지났지만 방금 잡은 토큰은 남긴다
+        store.expireAdmitted(ITEM, beforeAcquire);
+        Assertions.assertEquals(0, store.position(ITEM, ticket.token()));
+
+        // release 를 부르지 않은 채 잡은 지 유효 시간이 지나면 정리된다
+        store.expireAdmitted(ITEM, Long.MAX_VALUE);
+        Assertions.assertEquals(-1, store.position(ITEM, ticket.token()));
+        store.release(ITEM, ticket.token());
+        Assertions.assertFalse(store.tryAcquire(ITEM, 1L, ticket.token()));
+    }
+}
@@ -0,0 +1,57 @@
+package org.portfolio.portfolio.application.waitingroom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.application.exception.NotAdmittedException;
+
+import java.util.List;
+
+class WaitingRoomServiceTest {
+
+    private static final Long ITEM = 1L;
+
+    // 초당 10명, tick 100ms -> tick 마다 1명씩 입장
+    private final WaitingRoomService service =
+            new WaitingRoomService(new InMemoryWaitingRoomStore(), 10, 60_000, 100, List.of());
+
+    @Test
+    @DisplayName("Each tick admits admits-per-second x tick, in issue order")
+    void tick_admits_in_order() {
+        service.enable(ITEM);
+        WaitingTicket first = service.issue(ITEM, 1L);
+        WaitingTicket second = service.issue(ITEM, 2L);
+
+        Assertions.assertEquals(1, service.position(ITEM, first.token()));
+        service.admit();
+        Assertions.assertEquals(0, service.position(ITEM, first.token()));
+        Assertions.assertEquals(1, service.position(ITEM, second.token()));
+
+        Assertions.assertThrows(NotAdmittedException.class,
+                () -> service.runAdmitted(ITEM, 2L, second.token(), () -> 1L));
+        service.admit();
+        Assertions.assertEquals(2L, service.runAdmitted(ITEM, 2L, second.token(), () -> 2L));
+    }
+
+    @Test
+    @DisplayName("A failed order keeps the token usable, a successful one consumes it")
+    void failed_order_releases_token() {
+        service.enable(ITEM);
+        WaitingTicket ticket = service.issue(ITEM, 1L);
+        service.admit();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> service.runAdmitted(ITEM, 1L, ticket.token(), () -> {
+            throw new IllegalStateException("결제 실패");
+        }));
+        Assertions.assertEquals(10L, service.runAdmitted(ITEM, 1L, ticket.token(), () -> 10L));
+        Assertions.assertThrows(NotAdmittedException.class,
+                () -> service.runAdmitted(ITEM, 1L, ticket.token(), () -> 11L));
+    }
+
+    @Test
+    @DisplayName("Items without a waiting room reject tokens")
+    void disabled_item_rejects() {
+        Assertions.assertFalse(service.isEnabled(ITEM));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> service.issue(ITEM, 1L));
+    }
+}
@@ -0,0 +1,126 @@
+package org.portfolio.portfolio.domain.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class TimeOrderedIdGeneratorTest {
+
+    private static final long START = TimeOrderedIdGenerator.EPOCH_MILLIS + 1_000_000L;
+    private static final int SEQUENCE_PER_MILLI = 1 << TimeOrderedIdGenerator.SEQUENCE_BITS;
+
+    @Test
+    @DisplayName("Ids strictly increase and stay within 53 bits")
+    void ids_strictly_increase() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(3);
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            Assertions.assertTrue(id > previous, "ids must increase");
+            Assertions.assertTrue(id < (1L << 53), "id must fit in 53 bits");
+            Assertions.assertEquals(3L, (id >>> TimeOrderedIdGenerator.SEQUENCE_BITS) & TimeOrderedIdGenerator.MAX_NODE_ID);
+            previous = id;
+        }
+    }
+
+    @Test
+    @DisplayName("Ids are unique across threads")
+    void ids_unique_across_threads() throws Exception {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(0);
+        int threads = 8;
+        int perThread = 5_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    @DisplayName("When the clock steps back, ids keep increasing from the last one issued")
+    void clock_regression_keeps_increasing() {
+        AtomicLong clock = new AtomicLong(START);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(0, clock::get);
+        clock.set(START + 2_000);       // 시작 시 앞당긴 구간을 지나 현재 시각으로 발급된다
+        long beforeRegression = generator.nextId();
+
+        clock.set(START + 1_500);       // 시계가 0.5초 뒤로 간다
+        long afterRegression = generator.nextId();
+
+        Assertions.assertEquals(beforeRegression + 1, afterRegression);
+    }
+
+    @Test
+    @DisplayName("Borrowing beyond MAX_BORROW_MILLIS waits for the clock to catch up")
+    void borrowing_is_bounded() throws Exception {
+        AtomicLong clock = new AtomicLong(START);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(0, clock::get);
+        // 시작 구간(START + MAX_BORROW_MILLIS)의 시퀀스를 다 쓴다
+        for (int i = 0; i < SEQUENCE_PER_MILLI; i++) {
+            generator.nextId();
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Long> blocked = executor.submit(generator::nextId);
+        Thread.sleep(100);
+        Assertions.assertFalse(blocked.isDone(), "must wait while the borrow limit is reached");
+
+        clock.incrementAndGet();
+        long id = blocked.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        long timestamp = (id >>> (TimeOrderedIdGenerator.NODE_BITS + TimeOrderedIdGenerator.SEQUENCE_BITS))
+                + TimeOrderedIdGenerator.EPOCH_MILLIS;
+        Assertions.assertEquals(START + 1 + TimeOrderedIdGenerator.MAX_BORROW_MILLIS, timestamp);
+    }
+
+    @Test
+    @DisplayName("A restarted generator never reissues ids the previous one borrowed")
+    void restart_skips_borrowed_window() {
+        AtomicLong clock = new AtomicLong(START);
+        TimeOrderedIdGenerator before = new TimeOrderedIdGenerator(0, clock::get);
+        long lastBefore = 0;
+        // 시계가 멈춘 채로 한도까지 앞당겨 쓴다
+        for (int i = 0; i < SEQUENCE_PER_MILLI; i++) {
+            lastBefore = before.nextId();
+        }
+
+        clock.incrementAndGet();        // 1ms 뒤 재기동
+        TimeOrderedIdGenerator after = new TimeOrderedIdGenerator(0, clock::get);
+
+        Assertions.assertTrue(after.nextId() > lastBefore);
+    }
+
+    @Test
+    @DisplayName("Node ids outside 0-31 are rejected")
+    void node_id_out_of_range_rejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(-1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID + 1));
+    }
+}
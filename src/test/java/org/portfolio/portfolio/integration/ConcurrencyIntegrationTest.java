@@ -4,15 +4,27 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.application.coupon.CouponIssuanceEngine;
+import org.portfolio.portfolio.application.idempotency.IdempotencyService;
+import org.portfolio.portfolio.application.order.OrderBatchAggregator;
+import org.portfolio.portfolio.application.order.OrderCommand;
+import org.portfolio.portfolio.application.order.OrderIntakeService;
+import org.portfolio.portfolio.application.order.OrderReceipt;
 import org.portfolio.portfolio.application.order.OrderService;
+import org.portfolio.portfolio.application.order.OrderTicket;
+import org.portfolio.portfolio.application.order.OrderTicketStatus;
 import org.portfolio.portfolio.application.payment.PaymentGateway;
 import org.portfolio.portfolio.application.payment.PaymentResult;
 import org.portfolio.portfolio.domain.category.Category;
 import org.portfolio.portfolio.domain.category.CategoryRepository;
+import org.portfolio.portfolio.domain.coupon.Coupon;
+import org.portfolio.portfolio.domain.coupon.CouponRepository;
 import org.portfolio.portfolio.domain.item.Item;
 import org.portfolio.portfolio.domain.item.ItemRepository;
 import org.portfolio.portfolio.domain.user.User;
 import org.portfolio.portfolio.domain.user.UserRepository;
+import org.portfolio.portfolio.domain.usercoupon.UserCoupon;
+import org.portfolio.portfolio.domain.usercoupon.UserCouponRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -25,6 +37,9 @@ import jakarta.persistence.PersistenceContext;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -50,6 +65,18 @@ class ConcurrencyIntegrationTest {
 
     @Autowired
     private OrderService orderService;
+    @Autowired
+    private OrderBatchAggregator orderBatchAggregator;
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+    @Autowired
+    private CouponIssuanceEngine couponIssuanceEngine;
+    @Autowired
+    private CouponRepository couponRepository;
+    @Autowired
+    private UserCouponRepository userCouponRepository;
 
     @Autowired
     private ItemRepository itemRepository;
@@ -82,9 +109,187 @@ class ConcurrencyIntegrationTest {
 
     @Test
     void stock10_concurrent100_only10_success_and_stock0() throws InterruptedException {
-        // given
+        // given & when
+        long success = runConcurrentOrders(100);
+
+        // then
+        Item refreshed = itemRepository.findById(itemId).orElseThrow();
+        Assertions.assertEquals(10, success, "정확히 10건만 성공해야 합니다.");
+        Assertions.assertEquals(0, refreshed.getStock(), "남은 재고가 0이어야 합니다.");
+    }
+
+    @Test
+    void groupCommit_stock10_concurrent100_only10_success_and_stock0() throws InterruptedException {
+        // given: 같은 상품 주문을 배치로 묶어 처리
+        orderBatchAggregator.enable(itemId);
+
+        long success = runConcurrentOrders(100);
+
+        // then: 배치 안에서 재고를 넘는 요청은 각자 실패해야 한다
+        Item refreshed = itemRepository.findById(itemId).orElseThrow();
+        Assertions.assertEquals(10, success, "정확히 10건만 성공해야 합니다.");
+        Assertions.assertEquals(0, refreshed.getStock(), "남은 재고가 0이어야 합니다.");
+    }
+
+    @Test
+    void asyncIntake_stock10_submit100_only10_completed_and_stock0() throws InterruptedException {
+        // given & when: 접수는 바로 끝나고 작업자가 버퍼를 비우며 처리한다
+        List<OrderTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tickets.add(orderIntakeService.submit(new OrderCommand(userId, itemId, 1, null, 1000L), null, null, null));
+        }
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline && tickets.stream().anyMatch(t ->
+                t.getStatus() == OrderTicketStatus.QUEUED || t.getStatus() == OrderTicketStatus.PROCESSING)) {
+            Thread.sleep(50);
+        }
+
+        // then
+        long completed = tickets.stream().filter(t -> t.getStatus() == OrderTicketStatus.COMPLETED).count();
+        long failed = tickets.stream().filter(t -> t.getStatus() == OrderTicketStatus.FAILED).count();
+        Item refreshed = itemRepository.findById(itemId).orElseThrow();
+        Assertions.assertEquals(10, completed, "정확히 10건만 완료되어야 합니다.");
+        Assertions.assertEquals(90, failed, "나머지는 실패 상태로 끝나야 합니다.");
+        Assertions.assertEquals(0, refreshed.getStock(), "남은 재고가 0이어야 합니다.");
+    }
+
+    @Test
+    void sameIdempotencyKey_sync_then_async_single_order() throws InterruptedException {
+        // given: 동기 주문에 쓴 멱등 키로 비동기 접수를 다시 보낸다
+        String key = "both-" + java.util.UUID.randomUUID();
+        String fingerprint = itemId + ":1:null:1000";
+        OrderReceipt first = idempotencyService.execute(userId, key, fingerprint, claim ->
+                new OrderReceipt(orderService.createOrder(new OrderCommand(userId, itemId, 1, null, 1000L, claim)), null, null));
+
+        // when: 같은 키를 비동기 경로로 두 번 보낸다 (두 번째는 같은 티켓)
+        OrderTicket ticket = orderIntakeService.submit(new OrderCommand(userId, itemId, 1, null, 1000L), key, fingerprint, null);
+        Assertions.assertSame(ticket, orderIntakeService.submit(new OrderCommand(userId, itemId, 1, null, 1000L), key, fingerprint, null));
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline && (ticket.getStatus() == OrderTicketStatus.QUEUED
+                || ticket.getStatus() == OrderTicketStatus.PROCESSING)) {
+            Thread.sleep(50);
+        }
+
+        // then: 비동기 티켓은 동기 주문과 같은 주문으로 끝나고 재고는 한 번만 차감된다
+        Assertions.assertEquals(OrderTicketStatus.COMPLETED, ticket.getStatus());
+        Assertions.assertEquals(first.orderId(), ticket.getOrderId());
+        Assertions.assertEquals(9, itemRepository.findById(itemId).orElseThrow().getStock());
+    }
+
+    @Test
+    void couponIssue_limit10_30users_twice_each_only10_issued_once_per_user() throws InterruptedException {
+        // given: 선착순 10명 한정 쿠폰과 30명의 사용자 (각자 두 번씩 동시에 요청)
+        Coupon coupon = couponRepository.save(Coupon.fixed("first-10", 1000).limitIssuance(10));
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            String email = "coupon+" + i + "+" + java.util.UUID.randomUUID() + "@test.local";
+            userIds.add(userRepository.save(User.create(email, "C" + i)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(60);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(60);
+        AtomicInteger issued = new AtomicInteger();
+        for (int i = 0; i < 60; i++) {
+            Long uid = userIds.get(i % 30);
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    couponIssuanceEngine.issue(coupon.getId(), uid);
+                    issued.incrementAndGet();
+                } catch (Exception ignored) {
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await(30, TimeUnit.SECONDS);
+        executor.shutdownNow();
+        couponIssuanceEngine.flush();
+
+        // then: 정확히 10건만 발급되고, 한 사용자에게 두 번 발급되지 않는다
+        List<Long> holders = userCouponRepository.findUserIdsByCouponId(coupon.getId());
+        Assertions.assertEquals(10, issued.get(), "정확히 10건만 발급되어야 합니다.");
+        Assertions.assertEquals(10, holders.size(), "user_coupon 행도 10건이어야 합니다.");
+        Assertions.assertEquals(10, Set.copyOf(holders).size(), "사용자별로 한 번만 발급되어야 합니다.");
+        Assertions.assertEquals(10, couponRepository.findById(coupon.getId()).orElseThrow().getIssuedCount());
+    }
+
+    @Test
+    void sameIdempotencyKey_concurrent20_single_order_and_stock9() throws InterruptedException {
+        // given: 같은 멱등 키로 동시에 재시도하는 클라이언트
+        String key = "retry-" + java.util.UUID.randomUUID();
+        int threadCount = 20;
+        AtomicInteger executions = new AtomicInteger();
+        Set<Long> orderIds = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    OrderReceipt receipt = idempotencyService.execute(userId, key, itemId + ":1", claim -> {
+                        executions.incrementAndGet();
+                        Long orderId = orderService.createOrder(new OrderCommand(userId, itemId, 1, null, 1000L, claim));
+                        return new OrderReceipt(orderId, "PAID", "SUCCESS");
+                    });
+                    orderIds.add(receipt.orderId());
+                } catch (Exception ignored) {
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await(30, TimeUnit.SECONDS);
+        executor.shutdownNow();
+
+        // then: 주문은 한 번만 실행되고 모두 같은 주문 ID 를 받는다
+        Item refreshed = itemRepository.findById(itemId).orElseThrow();
+        Assertions.assertEquals(1, executions.get(), "주문은 한 번만 실행되어야 합니다.");
+        Assertions.assertEquals(1, orderIds.size(), "모든 재시도가 같은 주문 결과를 받아야 합니다.");
+        Assertions.assertEquals(9, refreshed.getStock(), "재고는 한 번만 차감되어야 합니다.");
+    }
+
+    @Test
+    void sameUserCoupon_concurrent20_only1_order_and_coupon_used_once() throws InterruptedException {
+        // given: 한 장의 500원 할인 쿠폰으로 동시에 20번 주문
+        Coupon coupon = couponRepository.save(Coupon.fixed("fix-500", 500));
+        User user = userRepository.findById(userId).orElseThrow();
+        Long userCouponId = userCouponRepository.save(UserCoupon.issueTo(user, coupon)).getId();
+        int threadCount = 20;
+        AtomicInteger success = new AtomicInteger();
 
-        int threadCount = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    orderService.createOrder(userId, itemId, 1, userCouponId, 500L);
+                    success.incrementAndGet();
+                } catch (Exception ignored) {
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await(30, TimeUnit.SECONDS);
+        executor.shutdownNow();
+
+        // then: 조건부 UPDATE 를 선점한 한 건만 성공하고, 나머지는 롤백되어 재고가 한 번만 차감된다
+        Item refreshed = itemRepository.findById(itemId).orElseThrow();
+        Assertions.assertEquals(1, success.get(), "쿠폰은 한 번만 사용되어야 합니다.");
+        Assertions.assertTrue(userCouponRepository.findById(userCouponId).orElseThrow().isUsed());
+        Assertions.assertEquals(9, refreshed.getStock(), "재고는 한 번만 차감되어야 합니다.");
+    }
+
+    private long runConcurrentOrders(int threadCount) throws InterruptedException {
         ExecutorService executor = Executors.newFixedThreadPool(threadCount);
         CountDownLatch ready = new CountDownLatch(threadCount);
         CountDownLatch start = new CountDownLatch(1);
@@ -117,11 +322,6 @@ class ConcurrencyIntegrationTest {
         done.await(30, TimeUnit.SECONDS);
         executor.shutdownNow();
 
-        long success = results.stream().filter(b -> b).count();
-
-        // then
-        Item refreshed = itemRepository.findById(itemId).orElseThrow();
-        Assertions.assertEquals(10, success, "정확히 10건만 성공해야 합니다.");
-        Assertions.assertEquals(0, refreshed.getStock(), "남은 재고가 0이어야 합니다.");
+        return results.stream().filter(b -> b).count();
     }
 }
@@ -9,6 +9,10 @@ import org.portfolio.portfolio.domain.category.Category;
 import org.portfolio.portfolio.domain.category.CategoryRepository;
 import org.portfolio.portfolio.domain.item.Item;
 import org.portfolio.portfolio.domain.item.ItemRepository;
+import org.portfolio.portfolio.domain.order.Order;
+import org.portfolio.portfolio.domain.order.OrderRepository;
+import org.portfolio.portfolio.domain.outbox.OutboxEvent;
+import org.portfolio.portfolio.domain.outbox.OutboxEventRepository;
 import org.portfolio.portfolio.domain.user.User;
 import org.portfolio.portfolio.domain.user.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,11 +20,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @SpringBootTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class PaymentRollbackIntegrationTest {
@@ -48,6 +56,10 @@ class PaymentRollbackIntegrationTest {
     private UserRepository userRepository;
     @Autowired
     private CategoryRepository categoryRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
 
     @PersistenceContext
     private EntityManager em;
@@ -73,4 +85,27 @@ class PaymentRollbackIntegrationTest {
         Item refreshed = itemRepository.findById(item.getId()).orElseThrow();
         Assertions.assertEquals(5, refreshed.getStock(), "롤백 후 재고가 원복되어야 합니다.");
     }
+
+    @Test
+    void payment_failure_should_record_outbox_events_with_compensation() {
+        // given
+        String email = "outbox+" + System.currentTimeMillis() + "+" + java.util.UUID.randomUUID() + "@test.local";
+        User user = userRepository.save(User.create(email, "Outbox User"));
+        Category category = categoryRepository.save(Category.createRoot("root"));
+        Item item = itemRepository.save(Item.create("상품C", 1000L, 3, category));
+        em.clear();
+
+        // when
+        Assertions.assertThrows(Exception.class, () ->
+                orderService.createOrder(user.getId(), item.getId(), 1, null, 1000L));
+
+        // then: 보상 트랜잭션과 같은 트랜잭션에서 결제 실패/주문 취소 이벤트가 기록되어야 한다
+        Order order = orderRepository.findPageByUserIdWithItemPayment(user.getId(), PageRequest.of(0, 1))
+                .getContent().get(0);
+        Set<String> eventTypes = outboxEventRepository.findAll().stream()
+                .filter(e -> e.getAggregateId().equals(order.getId()))
+                .map(OutboxEvent::getEventType)
+                .collect(Collectors.toSet());
+        Assertions.assertEquals(Set.of("PAYMENT_FAILED", "ORDER_CANCELLED"), eventTypes);
+    }
 }
@@ -1,16 +1,28 @@
 package org.portfolio.portfolio.integration;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.hibernate.SessionFactory;
 import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.portfolio.portfolio.application.discount.DiscountPolicyFactory;
+import org.portfolio.portfolio.application.category.CategoryDescendantMode;
+import org.portfolio.portfolio.application.category.CategoryQueryService;
+import org.portfolio.portfolio.application.discount.DiscountEngine;
+import org.portfolio.portfolio.application.order.OrderBatchAggregator;
 import org.portfolio.portfolio.application.order.OrderService;
+import org.portfolio.portfolio.application.payment.PaymentAuthorization;
+import org.portfolio.portfolio.application.payment.PaymentAuthorizationClient;
+import org.portfolio.portfolio.application.payment.PaymentCircuitBreaker;
 import org.portfolio.portfolio.application.payment.PaymentGateway;
 import org.portfolio.portfolio.application.payment.PaymentResult;
+import org.portfolio.portfolio.application.stock.StockDecrementMode;
+import org.portfolio.portfolio.application.stock.StockDecrementStrategyResolver;
+import org.portfolio.portfolio.application.stock.StockReservationEngine;
 import org.portfolio.portfolio.domain.category.Category;
+import org.portfolio.portfolio.domain.common.TimeOrderedIdGenerator;
+import org.portfolio.portfolio.infrastructure.payment.VirtualPaymentGateway;
 import org.portfolio.portfolio.domain.coupon.Coupon;
 import org.portfolio.portfolio.domain.item.Item;
 import org.portfolio.portfolio.domain.item.ItemRepository;
@@ -29,25 +41,39 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * PerformanceComparisonTest
  * 
  * 시나리오 1~5에 대해 BEFORE와 AFTER를 비교한다:
- * - 시나리오 1: 동시성 환경에서의 데이터 일관성 (no lock vs 비관적 락)
+ * - 시나리오 1: 동시성 환경에서의 데이터 일관성 (no lock vs 비관적 락 vs 메모리 재고 예약 엔진)
+ * - 시나리오 1b: 단일 인기 상품 처리량 (비관적 락 단건 처리 vs group-commit 배치)
+ * - 시나리오 1c: 재고 차감 전략별 처리량/지연 (비관적 락 vs 조건부 UPDATE vs 낙관적 락 vs 예약 엔진)
+ * - 시나리오 1d: 느린 PG 에서 락을 잡은 채 승인 vs 예약/승인/확정 분리
  * - 시나리오 3 & 4: N+1 vs 패치 조인(fetch join) + batch size (쿼리 수와 시간)
  * - 시나리오 2 & 5: 로직 분리 영향 (단일 서비스 vs OrderService + OrderValidator)
+ * - 시나리오 6: INSERT 처리량 (IDENTITY 키 vs 시간순 ID + JDBC 배치)
+ *
+ * - 시나리오 7: 하위 카테고리 조회 (노드별 N 쿼리 vs 재귀 CTE vs closure table vs 메모리 스냅샷)
  *
  * 마지막에 통합된 [성능 벤치마크 보고서]를 출력한다.
  */
@@ -59,9 +85,9 @@ class PerformanceComparisonTest {
     static class TestBeansConfig {
         @Bean
         @Primary
-        public PaymentGateway testPaymentGateway() {
+        public DelayedPaymentGateway testPaymentGateway() {
             // 성능 수치를 안정적으로 얻기 위한 결정적 성공 게이트웨이
-            return (amount, orderId) -> PaymentResult.success("TEST-TX-" + orderId, amount);
+            return new DelayedPaymentGateway();
         }
 
         // BEFORE: 비관적 락 없이, OrderValidator 분리 없이 동작하는 단순 서비스
@@ -72,9 +98,45 @@ class PerformanceComparisonTest {
                 UserCouponRepository userCouponRepository,
                 OrderRepository orderRepository,
                 PaymentGateway paymentGateway,
-                DiscountPolicyFactory discountPolicyFactory
+                DiscountEngine discountEngine
         ) {
-            return new NaiveOrderServiceWithoutLock(userRepository, itemRepository, userCouponRepository, orderRepository, paymentGateway, discountPolicyFactory);
+            return new NaiveOrderServiceWithoutLock(userRepository, itemRepository, userCouponRepository, orderRepository, paymentGateway, discountEngine);
+        }
+    }
+
+    // 항상 성공하되, 필요한 시나리오에서만 PG 지연을 흉내 낸다
+    static class DelayedPaymentGateway implements PaymentGateway {
+        private volatile long delayMs;
+
+        void setDelayMs(long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public PaymentResult authorize(long amount, String orderId) {
+            if (delayMs > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return PaymentResult.success("TEST-TX-" + orderId, amount);
+        }
+
+        // 묶음 승인은 왕복 지연을 한 번만 치른다
+        @Override
+        public List<PaymentResult> authorizeBatch(List<PaymentAuthorization> authorizations) {
+            if (delayMs > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return authorizations.stream()
+                    .map(a -> PaymentResult.success("TEST-TX-" + a.orderId(), a.amount()))
+                    .toList();
         }
     }
 
@@ -84,20 +146,20 @@ class PerformanceComparisonTest {
         private final UserCouponRepository userCouponRepository;
         private final OrderRepository orderRepository;
         private final PaymentGateway paymentGateway;
-        private final DiscountPolicyFactory discountPolicyFactory; // 계산 일관성을 위해 기존 정책을 그대로 재사용한다
+        private final DiscountEngine discountEngine; // 계산 일관성을 위해 주문과 같은 할인 규칙을 재사용한다
 
         public NaiveOrderServiceWithoutLock(UserRepository userRepository,
                                             ItemRepository itemRepository,
                                             UserCouponRepository userCouponRepository,
                                             OrderRepository orderRepository,
                                             PaymentGateway paymentGateway,
-                                            DiscountPolicyFactory discountPolicyFactory) {
+                                            DiscountEngine discountEngine) {
             this.userRepository = userRepository;
             this.itemRepository = itemRepository;
             this.userCouponRepository = userCouponRepository;
             this.orderRepository = orderRepository;
             this.paymentGateway = paymentGateway;
-            this.discountPolicyFactory = discountPolicyFactory;
+            this.discountEngine = discountEngine;
         }
 
         @Transactional
@@ -119,8 +181,8 @@ class PerformanceComparisonTest {
                     throw new IllegalStateException("쿠폰 사용 불가");
                 }
                 Coupon coupon = userCoupon.getCoupon();
-                // 정책을 통해 바로 할인 금액을 계산한다
-                discount = discountPolicyFactory.getPolicy(coupon.getType()).calculateDiscount(originalTotal, coupon);
+                // 할인 규칙으로 바로 할인 금액을 계산한다 (첫 구매/카테고리 규칙은 보지 않는다)
+                discount = discountEngine.calculate(originalTotal, null, false, coupon.toDefinition());
                 if (discount < 0) discount = 0;
                 if (discount > originalTotal) discount = originalTotal;
                 userCoupon.use();
@@ -156,6 +218,18 @@ class PerformanceComparisonTest {
     private OrderService orderService; // AFTER
     @Autowired
     private NaiveOrderServiceWithoutLock naiveService; // BEFORE
+    @Autowired
+    private StockReservationEngine stockReservationEngine;
+    @Autowired
+    private OrderBatchAggregator orderBatchAggregator;
+    @Autowired
+    private StockDecrementStrategyResolver stockDecrementStrategyResolver;
+    @Autowired
+    private DelayedPaymentGateway delayedPaymentGateway;
+    @Autowired
+    private PaymentAuthorizationClient paymentAuthorizationClient;
+    @Autowired
+    private CategoryQueryService categoryQueryService;
 
     @Autowired private UserRepository userRepository;
     @Autowired private ItemRepository itemRepository;
@@ -167,6 +241,7 @@ class PerformanceComparisonTest {
 
     @Autowired private org.portfolio.portfolio.domain.category.CategoryRepository categoryRepository;
     @Autowired private TransactionTemplate tx;
+    @Autowired private JdbcTemplate jdbcTemplate;
 
     // 영속 작업을 트랜잭션으로 안전하게 수행하기 위한 시드 헬퍼들
     private User seedUser(String email, String name) {
@@ -199,6 +274,12 @@ class PerformanceComparisonTest {
 
     private record RunResult(long elapsedMs, long successCount, int finalStock, long queryCount, long preparedCount) {}
 
+    private record ThroughputResult(long elapsedMs, long successCount, int finalStock, long p50Micros, long p99Micros) {
+        double ordersPerSecond() {
+            return elapsedMs == 0 ? successCount : successCount * 1000.0 / elapsedMs;
+        }
+    }
+
     @Test
     @DisplayName("Performance comparison across scenarios 1~5 (Before vs After)")
     void performance_comparison_report() throws Exception {
@@ -219,6 +300,72 @@ class PerformanceComparisonTest {
 
         RunResult s1After = runConcurrencyScenario(user.getId(), itemAfter.getId(), false);
 
+        // Scenario 1 — Concurrency: AFTER (in-memory reservation engine + write-behind)
+        Item itemReserved = seedItem("S1-Item-R", 1000L, 10, category);
+        em.clear();
+        stockReservationEngine.enable(itemReserved.getId());
+
+        RunResult s1Reserved = runConcurrencyScenario(user.getId(), itemReserved.getId(), false);
+
+        // Scenario 1b — Hot item throughput: pessimistic lock per order vs group-commit batches
+        Item itemSingle = seedItem("S1b-Item", 1000L, 300, category);
+        Item itemBatched = seedItem("S1b-Item-G", 1000L, 300, category);
+        em.clear();
+        ThroughputResult tSingle = runThroughputScenario(user.getId(), itemSingle.getId(), 30, 10);
+        orderBatchAggregator.enable(itemBatched.getId());
+        ThroughputResult tBatched = runThroughputScenario(user.getId(), itemBatched.getId(), 30, 10);
+
+        // Scenario 1c — Stock decrement strategies side by side (same load per strategy)
+        List<String> strategyLabels = new ArrayList<>();
+        List<ThroughputResult> strategyResults = new ArrayList<>();
+        for (StockDecrementMode mode : StockDecrementMode.values()) {
+            Item strategyItem = seedItem("S1c-" + mode.name(), 1000L, 300, category);
+            em.clear();
+            stockDecrementStrategyResolver.select(strategyItem.getId(), mode);
+            strategyLabels.add(mode.name());
+            strategyResults.add(runThroughputScenario(user.getId(), strategyItem.getId(), 30, 10));
+        }
+
+        // Scenario 1d — Slow gateway (20ms): authorize while holding the row lock vs reserve/authorize/confirm
+        Item itemLocked = seedItem("S1d-Item-L", 1000L, 300, category);
+        Item itemSplit = seedItem("S1d-Item-S", 1000L, 300, category);
+        em.clear();
+        delayedPaymentGateway.setDelayMs(20);
+        ThroughputResult tLocked = runThroughputScenario(itemLocked.getId(), 30, 5,
+                () -> authorizeInsideLock(user.getId(), itemLocked.getId()));
+        ThroughputResult tSplit = runThroughputScenario(user.getId(), itemSplit.getId(), 30, 5);
+
+        // Scenario 1e — Slow gateway (20ms): one authorize call per order vs micro-batched authorizeBatch
+        Item itemPerCall = seedItem("S1e-Item-P", 1000L, 300, category);
+        Item itemMicroBatch = seedItem("S1e-Item-B", 1000L, 300, category);
+        em.clear();
+        ThroughputResult tPerCall = runThroughputScenario(user.getId(), itemPerCall.getId(), 30, 5);
+        paymentAuthorizationClient.setBatching(true);
+        ThroughputResult tMicroBatch = runThroughputScenario(user.getId(), itemMicroBatch.getId(), 30, 5);
+        paymentAuthorizationClient.setBatching(false);
+        delayedPaymentGateway.setDelayMs(0);
+
+        // Scenario 1f — Tail latency against a simulated PG (log-normal 5ms, 2% stalls): deadline only vs hedged
+        Item itemTail = seedItem("S1f-Item", 1000L, 300, category);
+        em.clear();
+        List<ThroughputResult> tailResults = new ArrayList<>();
+        for (boolean hedge : new boolean[]{false, true}) {
+            VirtualPaymentGateway simulator = new VirtualPaymentGateway(VirtualPaymentGateway.LatencyDistribution.LOG_NORMAL,
+                    5, 0, 0.5, 0, 0.0, 0.0, 0.02, 1000, 42);
+            PaymentCircuitBreaker breaker = new PaymentCircuitBreaker(new SimpleMeterRegistry(), 20, 10, 0.5, 5000, 3, 64, 0);
+            PaymentAuthorizationClient client = new PaymentAuthorizationClient(simulator, breaker, false, 50, 2, 4, 10000,
+                    300, hedge, 20, 2, 64);
+            try {
+                tailResults.add(runThroughputScenario(itemTail.getId(), 30, 10, () -> {
+                    PaymentResult r = client.authorize(1000L, java.util.UUID.randomUUID().toString());
+                    if (!r.isSuccess()) throw new IllegalStateException(r.getFailureReason());
+                }));
+            } finally {
+                client.shutdown();
+                simulator.shutdown();
+            }
+        }
+
         // Scenario 2 & 5 — Monolithic vs Validator/Strategy (throughput over N orders)
         // Prepare coupons
         Coupon fixed = seedFixedCoupon("Fixed1000", 1000);
@@ -236,8 +383,51 @@ class PerformanceComparisonTest {
         QueryStats qBefore = runQueryOrdersBefore(user.getId(), category);
         QueryStats qAfter = runQueryOrdersAfter(user.getId());
 
+        // Scenario 6 — Insert throughput: IDENTITY keys (one INSERT per row, key read back) vs assigned time-ordered ids (JDBC batch)
+        QueryStats insertIdentity = runIdStrategyInserts(user.getId(), fixed.getId(), 500, true);
+        QueryStats insertAssigned = runIdStrategyInserts(user.getId(), fixed.getId(), 500, false);
+
+        // Scenario 7 — Category descendants on trees 5/10/20 levels deep (2000 nodes each), every mode on the same root
+        List<String> descendantLabels = new ArrayList<>();
+        List<QueryStats> descendantResults = new ArrayList<>();
+        for (int depth : new int[]{5, 10, 20}) {
+            Long rootId = seedCategoryTree("S7-D" + depth, depth, 2000);
+            for (CategoryDescendantMode mode : CategoryDescendantMode.values()) {
+                descendantLabels.add("depth=" + depth + " " + mode.name());
+                descendantResults.add(runDescendantLookups(rootId, mode, 5));
+            }
+        }
+
         // 통합 보고서를 출력한다
-        printReport(s1Before, s1After, s2Before, s2After, qBefore, qAfter);
+        printReport(s1Before, s1After, s1Reserved, s2Before, s2After, qBefore, qAfter);
+        printInsertReport(insertIdentity, insertAssigned);
+        printDescendantReport(descendantLabels, descendantResults);
+        printThroughputReport("Scenario 1b — Hot Item Throughput (single vs group-commit)",
+                List.of("pessimistic", "group-commit"), List.of(tSingle, tBatched));
+        printThroughputReport("Scenario 1c — Stock Decrement Strategies", strategyLabels, strategyResults);
+        printThroughputReport("Scenario 1d — Slow Gateway (authorize in lock vs split)",
+                List.of("lock-held", "reserve/confirm"), List.of(tLocked, tSplit));
+        printThroughputReport("Scenario 1e — Slow Gateway (per-call vs micro-batched authorize)",
+                List.of("per-call", "micro-batch"), List.of(tPerCall, tMicroBatch));
+        printThroughputReport("Scenario 1f — Simulated PG Tail Latency (deadline 300ms vs hedged after 20ms)",
+                List.of("deadline-only", "hedged"), tailResults);
+    }
+
+    // BEFORE(시나리오 1d): 행 락과 커넥션을 잡은 채 PG 승인까지 한 트랜잭션에서 처리한다
+    private void authorizeInsideLock(Long userId, Long itemId) {
+        tx.executeWithoutResult(status -> {
+            User user = userRepository.findById(userId).orElseThrow();
+            Item item = itemRepository.findByIdForUpdate(itemId).orElseThrow();
+            if (item.getStock() < 1) throw new IllegalStateException("재고가 부족합니다.");
+            item.decreaseStock(1);
+            Order order = Order.create(user, item, 1);
+            Payment payment = Payment.prepareFor(order, item.getPrice());
+            order.attachPayment(payment);
+            orderRepository.save(order);
+            PaymentResult result = delayedPaymentGateway.authorize(item.getPrice(), String.valueOf(order.getId()));
+            if (!result.isSuccess()) throw new IllegalStateException("결제 실패");
+            payment.markSuccess();
+        });
     }
 
     private RunResult runConcurrencyScenario(Long userId, Long itemId, boolean before) throws InterruptedException {
@@ -277,11 +467,66 @@ class PerformanceComparisonTest {
         long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
         executor.shutdownNow();
 
+        // 예약 엔진 대상 상품은 write-behind 차감분을 반영한 뒤 DB 재고를 확인한다
+        stockReservationEngine.flush();
         long success = results.stream().filter(b -> b).count();
         int finalStock = itemRepository.findById(itemId).orElseThrow().getStock();
         return new RunResult(elapsedMs, success, finalStock, 0, 0);
     }
 
+    // 스레드마다 같은 상품을 연속 주문하면서 주문 1건당 지연 시간을 함께 기록한다
+    private ThroughputResult runThroughputScenario(Long userId, Long itemId, int threads, int ordersPerThread) throws InterruptedException {
+        return runThroughputScenario(itemId, threads, ordersPerThread,
+                () -> orderService.createOrder(userId, itemId, 1, null, 1000L));
+    }
+
+    private ThroughputResult runThroughputScenario(Long itemId, int threads, int ordersPerThread, Runnable placeOrder) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] latencies = new long[threads * ordersPerThread];
+        AtomicLong success = new AtomicLong();
+
+        for (int i = 0; i < threads; i++) {
+            final int base = i * ordersPerThread;
+            executor.submit(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    for (int j = 0; j < ordersPerThread; j++) {
+                        long s = System.nanoTime();
+                        try {
+                            placeOrder.run();
+                            success.incrementAndGet();
+                        } catch (Exception e) {
+                            System.out.println("[DEBUG_LOG] Throughput order error: " + e.getClass().getSimpleName() + " - " + e.getMessage());
+                        }
+                        latencies[base + j] = System.nanoTime() - s;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        ready.await(5, TimeUnit.SECONDS);
+        long t0 = System.nanoTime();
+        start.countDown();
+        done.await(60, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        executor.shutdownNow();
+
+        stockReservationEngine.flush();
+        Arrays.sort(latencies);
+        long p50 = TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length / 2]);
+        long p99 = TimeUnit.NANOSECONDS.toMicros(latencies[(int) Math.min(latencies.length - 1, Math.ceil(latencies.length * 0.99) - 1)]);
+        int finalStock = itemRepository.findById(itemId).orElseThrow().getStock();
+        return new ThroughputResult(elapsedMs, success.get(), finalStock, p50, p99);
+    }
+
     private RunResult runBulkOrdersMonolith(Long userId, Long itemId, Long userCouponId, int n) {
         long t0 = System.nanoTime();
         long success = 0;
@@ -322,6 +567,100 @@ class PerformanceComparisonTest {
 
     private record QueryStats(long timeMs, long queryExecutionCount, long preparedStatementCount, int rows) {}
 
+    // user_coupon 과 같은 컬럼의 표 두 개에 n건씩 한 트랜잭션으로 넣는다. 다른 점은 ID 전략뿐이다
+    // - IDENTITY: AUTO_INCREMENT 키를 돌려받아야 하므로 건마다 INSERT 한다 (Hibernate 가 IDENTITY 에서 하는 일)
+    // - 시간순 ID: 미리 발급한 ID 로 50건씩 JDBC 배치를 보낸다 (hibernate.jdbc.batch_size 와 같다)
+    private QueryStats runIdStrategyInserts(Long userId, Long couponId, int n, boolean identity) {
+        String table = identity ? "bench_insert_identity" : "bench_insert_assigned";
+        jdbcTemplate.execute("drop table if exists " + table);
+        jdbcTemplate.execute("create table " + table + " (id bigint " + (identity ? "auto_increment " : "") + "primary key, " +
+                "user_id bigint not null, coupon_id bigint not null, used bit not null, expired bit not null, " +
+                "valid_from datetime(6) not null, expires_at datetime(6) not null, created_at datetime(6))");
+        String columns = "user_id, coupon_id, used, expired, valid_from, expires_at, created_at";
+        Timestamp validFrom = Timestamp.valueOf(UserCoupon.NOT_BEFORE_ANY);
+        Timestamp expiresAt = Timestamp.valueOf(UserCoupon.NO_EXPIRY);
+        // 애플리케이션 생성기(노드 0)와 겹치지 않도록 다른 노드 ID 를 쓴다
+        TimeOrderedIdGenerator ids = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID);
+        int batchSize = 50;
+        try {
+            long t0 = System.nanoTime();
+            int roundTrips = tx.execute(status -> {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                if (identity) {
+                    String sql = "insert into " + table + " (" + columns + ") values (?, ?, false, false, ?, ?, ?)";
+                    for (int i = 0; i < n; i++) {
+                        KeyHolder key = new GeneratedKeyHolder();
+                        jdbcTemplate.update(con -> {
+                            PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                            ps.setLong(1, userId);
+                            ps.setLong(2, couponId);
+                            ps.setTimestamp(3, validFrom);
+                            ps.setTimestamp(4, expiresAt);
+                            ps.setTimestamp(5, now);
+                            return ps;
+                        }, key);
+                        key.getKey();
+                    }
+                    return n;
+                }
+                String sql = "insert into " + table + " (id, " + columns + ") values (?, ?, ?, false, false, ?, ?, ?)";
+                List<Long> rowIds = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    rowIds.add(ids.nextId());
+                }
+                return jdbcTemplate.batchUpdate(sql, rowIds, batchSize, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setLong(2, userId);
+                    ps.setLong(3, couponId);
+                    ps.setTimestamp(4, validFrom);
+                    ps.setTimestamp(5, expiresAt);
+                    ps.setTimestamp(6, now);
+                }).length;
+            });
+            long timeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+            Integer rows = jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+            return new QueryStats(timeMs, n, roundTrips, rows != null ? rows : 0);
+        } finally {
+            jdbcTemplate.execute("drop table if exists " + table);
+        }
+    }
+
+    // depth 단계, 총 nodes 개의 트리를 만든다. 각 단계의 노드는 바로 윗 단계 노드 중 하나를 부모로 삼는다
+    private Long seedCategoryTree(String name, int depth, int nodes) {
+        java.util.Random random = new java.util.Random(depth);
+        int perLevel = Math.max(1, (nodes - 1) / (depth - 1));
+        return tx.execute(status -> {
+            Category root = Category.createRoot(name);
+            em.persist(root);
+            List<Category> upper = List.of(root);
+            for (int level = 1; level < depth; level++) {
+                List<Category> current = new ArrayList<>(perLevel);
+                for (int i = 0; i < perLevel; i++) {
+                    Category child = Category.createRoot(name + "-" + level + "-" + i);
+                    upper.get(random.nextInt(upper.size())).addChild(child);
+                    em.persist(child);
+                    current.add(child);
+                }
+                upper = current;
+            }
+            em.flush();
+            em.clear();
+            return root.getId();
+        });
+    }
+
+    // 같은 루트의 하위 트리를 n 번 조회한다. 첫 조회(스냅샷 적재 등)는 측정에서 뺀다
+    private QueryStats runDescendantLookups(Long rootId, CategoryDescendantMode mode, int n) {
+        int rows = categoryQueryService.collectDescendantIds(rootId, mode).size();
+        Statistics st = enableAndClearStats();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            categoryQueryService.collectDescendantIds(rootId, mode);
+        }
+        long timeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        return new QueryStats(timeMs, st.getQueryExecutionCount(), st.getPrepareStatementCount(), rows);
+    }
+
     private QueryStats runQueryOrdersBefore(Long userId, Category category) {
         // Seed 100 orders for the user with associated item/payment
         Item seedItem = seedItem("Q-Item", 2000L, 200, category);
@@ -369,7 +708,7 @@ class PerformanceComparisonTest {
         return new QueryStats(elapsedMs, qExec, prepared, page.getNumberOfElements());
     }
 
-    private void printReport(RunResult s1Before, RunResult s1After,
+    private void printReport(RunResult s1Before, RunResult s1After, RunResult s1Reserved,
                              RunResult s2Before, RunResult s2After,
                              QueryStats qBefore, QueryStats qAfter) {
         String nl = System.lineSeparator();
@@ -381,6 +720,8 @@ class PerformanceComparisonTest {
                 s1Before.elapsedMs(), s1Before.successCount(), s1Before.finalStock()));
         sb.append(String.format("After : time=%dms, success=%d, finalStock=%d (pessimistic lock)\n",
                 s1After.elapsedMs(), s1After.successCount(), s1After.finalStock()));
+        sb.append(String.format("After : time=%dms, success=%d, finalStock=%d (reservation engine)\n",
+                s1Reserved.elapsedMs(), s1Reserved.successCount(), s1Reserved.finalStock()));
         sb.append("\n");
 
         sb.append("Scenario 3 & 4 — Query Optimization (N+1 vs Fetch-Join + Batch)\n");
@@ -400,6 +741,8 @@ class PerformanceComparisonTest {
         sb.append("|---------|------------------:|----------------:|---------------:|--------------:|-------|\n");
         sb.append(String.format("| S1 Concurrency | %6d | %6d | %3d | %3d | stock(Before)=%d, stock(After)=%d |\n",
                 s1Before.elapsedMs(), s1After.elapsedMs(), s1Before.successCount(), s1After.successCount(), s1Before.finalStock(), s1After.finalStock()));
+        sb.append(String.format("| S1 Reservation | %6d | %6d | %3d | %3d | stock(Lock)=%d, stock(Engine)=%d |\n",
+                s1After.elapsedMs(), s1Reserved.elapsedMs(), s1After.successCount(), s1Reserved.successCount(), s1After.finalStock(), s1Reserved.finalStock()));
         sb.append(String.format("| S3&4 Queries   | %6d | %6d |  -  |  -  | q(Before)=%d, q(After)=%d |\n",
                 qBefore.timeMs(), qAfter.timeMs(), qBefore.queryExecutionCount(), qAfter.queryExecutionCount()));
         sb.append(String.format("| S2&5 Service   | %6d | %6d | %3d | %3d | validator+strategy |\n",
@@ -407,4 +750,44 @@ class PerformanceComparisonTest {
 
         System.out.println(sb.toString());
     }
+
+    private void printInsertReport(QueryStats identity, QueryStats assigned) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n[Scenario 6 — Inserts by Id Strategy (IDENTITY vs time-ordered ids)]\n");
+        sb.append("| Mode | Rows | Time (ms) | Inserts/s | Round Trips |\n");
+        sb.append("|------|-----:|----------:|----------:|------------:|\n");
+        for (var row : List.of(java.util.Map.entry("identity", identity), java.util.Map.entry("time-ordered", assigned))) {
+            QueryStats q = row.getValue();
+            double perSecond = q.timeMs() == 0 ? q.rows() : q.rows() * 1000.0 / q.timeMs();
+            sb.append(String.format("| %s | %4d | %6d | %8.1f | %6d |\n",
+                    row.getKey(), q.rows(), q.timeMs(), perSecond, q.preparedStatementCount()));
+        }
+        System.out.println(sb);
+    }
+
+    private void printDescendantReport(List<String> labels, List<QueryStats> results) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n[Scenario 7 — Category Descendants (5 lookups per mode)]\n");
+        sb.append("| Tree / Mode | Nodes | Time (ms) | Avg (us) | Prepared Statements |\n");
+        sb.append("|-------------|------:|----------:|---------:|--------------------:|\n");
+        for (int i = 0; i < labels.size(); i++) {
+            QueryStats q = results.get(i);
+            sb.append(String.format("| %s | %5d | %6d | %8d | %6d |\n",
+                    labels.get(i), q.rows(), q.timeMs(), q.timeMs() * 1000 / 5, q.preparedStatementCount()));
+        }
+        System.out.println(sb);
+    }
+
+    private void printThroughputReport(String title, List<String> labels, List<ThroughputResult> results) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n[").append(title).append("]\n");
+        sb.append("| Mode | Time (ms) | Success | Orders/s | p50 (us) | p99 (us) | Final Stock |\n");
+        sb.append("|------|----------:|--------:|---------:|---------:|---------:|------------:|\n");
+        for (int i = 0; i < labels.size(); i++) {
+            ThroughputResult r = results.get(i);
+            sb.append(String.format("| %s | %6d | %4d | %8.1f | %8d | %8d | %4d |\n",
+                    labels.get(i), r.elapsedMs(), r.successCount(), r.ordersPerSecond(), r.p50Micros(), r.p99Micros(), r.finalStock()));
+        }
+        System.out.println(sb);
+    }
 }
@@ -5,8 +5,17 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.application.category.CategoryDescendantMode;
+import org.portfolio.portfolio.application.category.CategoryQueryService;
+import org.portfolio.portfolio.application.coupon.CouponExpirySweeper;
+import org.portfolio.portfolio.application.exception.InvalidCouponException;
+import org.portfolio.portfolio.application.exception.PaymentFailedException;
 import org.portfolio.portfolio.application.exception.PriceTamperedException;
 import org.portfolio.portfolio.application.order.OrderService;
+import org.portfolio.portfolio.application.order.PriceQuoteService;
+import org.portfolio.portfolio.application.order.Quote;
+import org.portfolio.portfolio.application.order.QuoteLine;
+import org.portfolio.portfolio.application.payment.PaymentCircuitBreaker;
 import org.portfolio.portfolio.application.payment.PaymentGateway;
 import org.portfolio.portfolio.application.payment.PaymentResult;
 import org.portfolio.portfolio.domain.category.Category;
@@ -21,6 +30,9 @@ import org.portfolio.portfolio.domain.order.OrderRepository;
 import org.portfolio.portfolio.domain.payment.Payment;
 import org.portfolio.portfolio.domain.user.User;
 import org.portfolio.portfolio.domain.usercoupon.UserCoupon;
+import org.portfolio.portfolio.domain.usercoupon.UserCouponRepository;
+import org.portfolio.portfolio.domain.usercoupon.WalletCoupon;
+import org.portfolio.portfolio.domain.usercoupon.WalletFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -33,8 +45,12 @@ import org.springframework.test.annotation.DirtiesContext;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -57,7 +73,7 @@ class ScenarioVerificationTest {
      * 테스트용으로 동작 모드를 전환할 수 있는 PaymentGateway
      */
     static class SwitchableTestPaymentGateway implements PaymentGateway {
-        enum Mode { SUCCESS_MATCH, SUCCESS_MISMATCH, ALWAYS_FAIL }
+        enum Mode { SUCCESS_MATCH, SUCCESS_MISMATCH, ALWAYS_FAIL, ERROR }
         private volatile Mode mode = Mode.SUCCESS_MATCH;
         private volatile Long forcedApprovedAmount; // 설정되면 해당 금액을 사용한다
 
@@ -66,6 +82,9 @@ class ScenarioVerificationTest {
 
         @Override
         public PaymentResult authorize(long amount, String orderId) {
+            if (mode == Mode.ERROR) {
+                throw new IllegalStateException("TEST_GATEWAY_DOWN");
+            }
             if (mode == Mode.ALWAYS_FAIL) {
                 return PaymentResult.failure("TEST_FAIL");
             }
@@ -80,6 +99,18 @@ class ScenarioVerificationTest {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private PriceQuoteService priceQuoteService;
+
+    @Autowired
+    private CategoryQueryService categoryQueryService;
+
+    @Autowired
+    private CouponExpirySweeper couponExpirySweeper;
+
+    @Autowired
+    private UserCouponRepository userCouponRepository;
+
     @Autowired
     private ItemRepository itemRepository;
 
@@ -89,6 +120,9 @@ class ScenarioVerificationTest {
     @Autowired
     private SwitchableTestPaymentGateway gateway;
 
+    @Autowired
+    private PaymentCircuitBreaker paymentCircuitBreaker;
+
     @PersistenceContext
     private EntityManager em;
 
@@ -192,6 +226,166 @@ class ScenarioVerificationTest {
         Assertions.assertEquals(9000L, order2.getPayment().getAmount());
     }
 
+    @Test
+    @DisplayName("Scenario 2-1: Price quote — quoted final amounts are accepted as clientPayAmount without consuming the coupon")
+    void scenario2_quote_matches_order_amount() {
+        // given
+        Item item = Item.create("Q-Item", 10000L, 5, category);
+        em.persist(item);
+        Coupon rate15 = Coupon.rate("15% off", 15);
+        em.persist(rate15);
+        em.flush();
+        UserCoupon ucRate = UserCoupon.issueTo(user, rate15);
+        em.persist(ucRate);
+        em.flush();
+        em.clear();
+
+        // when: 쿠폰 적용/미적용 두 줄과 없는 상품 한 줄을 함께 견적
+        List<Quote> quotes = priceQuoteService.quote(user.getId(), List.of(
+                new QuoteLine(item.getId(), 2, ucRate.getId()),
+                new QuoteLine(item.getId(), 1, null),
+                new QuoteLine(-1L, 1, null)));
+
+        // then: 20000 - 15% = 17000, 10000, 없는 상품은 거절 사유만 돌려준다
+        Assertions.assertEquals(17000L, quotes.get(0).finalAmount());
+        Assertions.assertEquals(3000L, quotes.get(0).discountAmount());
+        Assertions.assertEquals(10000L, quotes.get(1).finalAmount());
+        Assertions.assertFalse(quotes.get(2).isPriced());
+
+        // 견적은 쿠폰을 쓰지 않으므로 견적 금액 그대로 주문할 수 있다
+        gateway.setMode(SwitchableTestPaymentGateway.Mode.SUCCESS_MATCH);
+        Long orderId = orderService.createOrder(user.getId(), item.getId(), 2, ucRate.getId(), quotes.get(0).finalAmount());
+        Order order = orderRepository.findByIdWithUserItemPayment(orderId).orElseThrow();
+        Assertions.assertEquals(17000L, order.getPayment().getAmount());
+    }
+
+    @Test
+    @DisplayName("Scenario 2-2: Validity window — expired coupons are rejected by the claim and swept in batches")
+    void scenario2_expired_coupon_rejected_and_swept() {
+        // given: 어제 끝난 쿠폰
+        Item item = Item.create("E-Item", 10000L, 5, category);
+        em.persist(item);
+        Coupon expired = Coupon.fixed("expired 1k", 1000)
+                .validBetween(LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        em.persist(expired);
+        em.flush();
+        UserCoupon uc = UserCoupon.issueTo(user, expired);
+        em.persist(uc);
+        em.flush();
+        em.clear();
+
+        // when & then: 스윕 전이라도 선점 UPDATE 가 expires_at 을 비교해 거절한다
+        Assertions.assertThrows(InvalidCouponException.class,
+                () -> orderService.createOrder(user.getId(), item.getId(), 1, uc.getId(), 9000L));
+
+        // 스윕은 사용하지 않은 발급분을 만료로 표시한다
+        Assertions.assertEquals(1, couponExpirySweeper.sweep(expired.getId()));
+        Assertions.assertTrue(userCouponRepository.findById(uc.getId()).orElseThrow().isExpired());
+    }
+
+    @Test
+    @DisplayName("Scenario 2-2b: Validity window — changing a coupon's window moves unused issued coupons to it")
+    void scenario2_validity_change_propagates_to_issued() {
+        // given: 다음 주에 끝나는 쿠폰 2장 발급, 1장은 사용
+        LocalDateTime from = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime until = LocalDateTime.now().plusDays(7).truncatedTo(ChronoUnit.SECONDS);
+        Coupon coupon = Coupon.fixed("window 1k", 1000).validBetween(from, until);
+        em.persist(coupon);
+        em.flush();
+        UserCoupon unused = UserCoupon.issueTo(user, coupon);
+        UserCoupon used = UserCoupon.issueTo(user, coupon);
+        used.use();
+        em.persist(unused);
+        em.persist(used);
+        em.flush();
+        em.clear();
+
+        // when: 종료를 하루 앞당긴다 (리스너가 커밋 뒤 반영을 요청하고, 틱에서 발급분을 옮긴다)
+        LocalDateTime newUntil = until.minusDays(1);
+        em.find(Coupon.class, coupon.getId()).validBetween(from, newUntil);
+        em.flush();
+        em.clear();
+
+        // then: 미사용 발급분만 새 기간으로 옮겨진다
+        Assertions.assertEquals(1, couponExpirySweeper.applyWindowChanges());
+        Assertions.assertEquals(newUntil, userCouponRepository.findById(unused.getId()).orElseThrow().getExpiresAt());
+        Assertions.assertEquals(until, userCouponRepository.findById(used.getId()).orElseThrow().getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Scenario 2-3: Coupon wallet — keyset pages cover every coupon once and the usable filter skips used ones")
+    void scenario2_coupon_wallet_keyset() {
+        // given: 쿠폰 5장 중 1장 사용
+        List<Long> issued = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Coupon c = Coupon.fixed("w" + i, 100 + i);
+            em.persist(c);
+            UserCoupon uc = UserCoupon.issueTo(user, c);
+            if (i == 0) uc.use();
+            em.persist(uc);
+            em.flush();
+            issued.add(uc.getId());
+        }
+        em.clear();
+        LocalDateTime now = LocalDateTime.now();
+
+        // when: 2건씩 키셋으로 끝까지 넘긴다
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        List<WalletCoupon> page;
+        do {
+            page = userCouponRepository.findWallet(user.getId(), WalletFilter.ALL, cursor, 2, now);
+            page.forEach(c -> seen.add(c.userCouponId()));
+            cursor = page.isEmpty() ? null : page.get(page.size() - 1).userCouponId();
+        } while (page.size() == 2);
+
+        // then: 최신순으로 모두 한 번씩, 사용 가능 필터는 사용한 1장을 뺀 4장
+        List<Long> expected = new ArrayList<>(issued);
+        java.util.Collections.reverse(expected);
+        Assertions.assertEquals(expected, seen);
+        Assertions.assertEquals(4, userCouponRepository.findWallet(user.getId(), WalletFilter.USABLE, null, 10, now).size());
+        Assertions.assertTrue(userCouponRepository.findWallet(user.getId(), WalletFilter.EXPIRED, null, 10, now).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Scenario 2-3b: Coupon wallet — the expired filter merges swept and lapsed coupons newest first")
+    void scenario2_coupon_wallet_expired_merges_scans() {
+        // given: 기간이 지난 쿠폰 4장 중 2장(0, 2번)만 스윕으로 표시, 사용 가능한 쿠폰 1장
+        LocalDateTime from = LocalDateTime.now().minusDays(2).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime until = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> lapsed = new ArrayList<>();
+        List<Long> couponIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Coupon c = Coupon.fixed("e" + i, 100).validBetween(from, until);
+            em.persist(c);
+            UserCoupon uc = UserCoupon.issueTo(user, c);
+            em.persist(uc);
+            em.flush();
+            lapsed.add(uc.getId());
+            couponIds.add(c.getId());
+        }
+        Coupon live = Coupon.fixed("live", 100);
+        em.persist(live);
+        em.persist(UserCoupon.issueTo(user, live));
+        em.flush();
+        LocalDateTime now = LocalDateTime.now();
+        userCouponRepository.expireBatch(couponIds.get(0), now, 10);
+        userCouponRepository.expireBatch(couponIds.get(2), now, 10);
+        em.clear();
+
+        // when: 3건씩 두 페이지
+        List<WalletCoupon> first = userCouponRepository.findWallet(user.getId(), WalletFilter.EXPIRED, null, 3, now);
+        List<WalletCoupon> second = userCouponRepository.findWallet(
+                user.getId(), WalletFilter.EXPIRED, first.get(first.size() - 1).userCouponId(), 3, now);
+
+        // then: 표시 여부와 관계없이 최신순으로 한 번씩, 사용 가능한 쿠폰은 빠진다
+        Assertions.assertEquals(List.of(lapsed.get(3), lapsed.get(2), lapsed.get(1)),
+                first.stream().map(WalletCoupon::userCouponId).toList());
+        Assertions.assertEquals(List.of(lapsed.get(0)), second.stream().map(WalletCoupon::userCouponId).toList());
+        Assertions.assertTrue(first.get(1).expired());
+        Assertions.assertFalse(first.get(0).expired());
+    }
+
     @Test
     @DisplayName("Scenario 3: Dynamic search — filter by category, price and status")
     void scenario3_dynamic_search() {
@@ -225,6 +419,123 @@ class ScenarioVerificationTest {
         Assertions.assertFalse(names.contains("Case"));
     }
 
+    @Test
+    @DisplayName("Scenario 3-1: Category tree — closure table follows addChild and moveTo, subtree search is one query")
+    void scenario3_category_closure_subtree_search() {
+        // given: root > child > grandchild, 별도 최상위 other
+        Category root = Category.createRoot("Tree-Root");
+        Category child = Category.createRoot("Tree-Child");
+        Category grandchild = Category.createRoot("Tree-Grand");
+        Category other = Category.createRoot("Tree-Other");
+        root.addChild(child);
+        child.addChild(grandchild);
+        em.persist(root);
+        em.persist(other);
+        Item rootItem = Item.create("T-Root", 1000L, 1, root);
+        em.persist(rootItem);
+        em.persist(Item.create("T-Child", 1000L, 1, child));
+        Item grandItem = Item.create("T-Grand", 1000L, 1, grandchild);
+        em.persist(grandItem);
+        em.flush();
+        em.clear();
+
+        Pageable pageable = PageRequest.of(0, 10);
+        List<String> underRoot = itemRepository.search(ItemSearchCondition.builder().ancestorCategoryId(root.getId()).build(), pageable)
+                .getContent().stream().map(Item::getName).toList();
+        Assertions.assertEquals(3, underRoot.size());
+
+        // when: child 하위 트리를 other 아래로 옮긴다
+        Category movedChild = em.find(Category.class, child.getId());
+        movedChild.moveTo(em.find(Category.class, other.getId()));
+        em.flush();
+        em.clear();
+
+        // then: root 아래에는 root 상품만, other 아래에는 child/grandchild 상품이 보인다
+        List<String> rootAfter = itemRepository.search(ItemSearchCondition.builder().ancestorCategoryId(root.getId()).build(), pageable)
+                .getContent().stream().map(Item::getName).toList();
+        List<String> otherAfter = itemRepository.search(ItemSearchCondition.builder().ancestorCategoryId(other.getId()).build(), pageable)
+                .getContent().stream().map(Item::getName).toList();
+        Assertions.assertEquals(List.of("T-Root"), rootAfter);
+        Assertions.assertTrue(otherAfter.containsAll(List.of("T-Child", "T-Grand")));
+        Assertions.assertEquals(2, otherAfter.size());
+
+        // 메모리 트리 스냅샷도 이동을 반영한다
+        Assertions.assertEquals(List.of(root.getId()), categoryQueryService.collectDescendantIds(root.getId()));
+        Assertions.assertEquals(3, categoryQueryService.descendantIds(other.getId()).length);
+
+        // 재귀 CTE / 노드별 조회도 같은 하위 트리를 돌려준다
+        Set<Long> expected = Set.of(other.getId(), child.getId(), grandchild.getId());
+        Assertions.assertEquals(expected, Set.copyOf(categoryQueryService.collectDescendantIds(other.getId(), CategoryDescendantMode.RECURSIVE_CTE)));
+        Assertions.assertEquals(expected, Set.copyOf(categoryQueryService.collectDescendantIds(other.getId(), CategoryDescendantMode.LEVEL_WALK)));
+
+        // 카테고리별 상품 수 집계도 이동과 상태 변경을 따라간다 (조상까지 합산)
+        Assertions.assertEquals(1L, categoryQueryService.countItems(root.getId()));
+        Assertions.assertEquals(2L, categoryQueryService.countItems(other.getId()));
+        em.find(Item.class, grandItem.getId()).deactivate();
+        em.flush();
+        em.clear();
+        Map<ItemStatus, Long> otherCounts = categoryQueryService.itemCounts(other.getId());
+        Assertions.assertEquals(1L, otherCounts.get(ItemStatus.AVAILABLE));
+        Assertions.assertEquals(1L, otherCounts.get(ItemStatus.INACTIVE));
+        Assertions.assertEquals(1L, categoryQueryService.itemCounts(grandchild.getId()).get(ItemStatus.INACTIVE));
+
+        // 상품의 카테고리를 바꾸면 이전 조상에서 빠지고 새 조상에 더해진다
+        em.find(Item.class, rootItem.getId()).changeCategory(em.find(Category.class, grandchild.getId()));
+        em.flush();
+        em.clear();
+        Assertions.assertEquals(0L, categoryQueryService.countItems(root.getId()));
+        Map<ItemStatus, Long> otherAfterChange = categoryQueryService.itemCounts(other.getId());
+        Assertions.assertEquals(2L, otherAfterChange.get(ItemStatus.AVAILABLE));
+        Assertions.assertEquals(1L, otherAfterChange.get(ItemStatus.INACTIVE));
+        Assertions.assertEquals(1L, categoryQueryService.itemCounts(grandchild.getId()).get(ItemStatus.AVAILABLE));
+
+        // 카테고리와 상태를 한 번에 바꿔도 (이전 카테고리, 이전 상태)에서 빼고 새 값에 더한다
+        Item grandAgain = em.find(Item.class, grandItem.getId());
+        grandAgain.changeCategory(em.find(Category.class, root.getId()));
+        grandAgain.activate();
+        em.flush();
+        em.clear();
+        Assertions.assertEquals(1L, categoryQueryService.itemCounts(root.getId()).get(ItemStatus.AVAILABLE));
+        Assertions.assertEquals(0L, categoryQueryService.itemCounts(other.getId()).get(ItemStatus.INACTIVE));
+        Assertions.assertEquals(2L, categoryQueryService.countItems(other.getId()));
+
+        // 자기 하위로는 옮길 수 없다
+        Category movedGrand = em.find(Category.class, grandchild.getId());
+        Category childAgain = em.find(Category.class, child.getId());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> childAgain.moveTo(movedGrand));
+    }
+
+    @Test
+    @DisplayName("Scenario 3-2: Category move — deleting the old parent in the same persistence context keeps the moved subtree")
+    void scenario3_move_then_delete_old_parent() {
+        // given: old > moved > leaf, new
+        Category oldParent = Category.createRoot("M-Old");
+        Category newParent = Category.createRoot("M-New");
+        Category moved = Category.createRoot("M-Moved");
+        Category leaf = Category.createRoot("M-Leaf");
+        oldParent.addChild(moved);
+        moved.addChild(leaf);
+        em.persist(oldParent);
+        em.persist(newParent);
+        em.flush();
+        em.clear();
+
+        // when: moved 를 new 아래로 옮기고, 같은 영속성 컨텍스트에서 old 를 지운다
+        Category old = em.find(Category.class, oldParent.getId());
+        Category movedNode = em.find(Category.class, moved.getId());
+        movedNode.moveTo(em.find(Category.class, newParent.getId()));
+        Assertions.assertFalse(old.getChildren().contains(movedNode));
+        em.remove(old);
+        em.flush();
+        em.clear();
+
+        // then: 옮긴 하위 트리는 cascade 로 지워지지 않고 closure table 도 new 아래로 이어진다
+        Assertions.assertNull(em.find(Category.class, oldParent.getId()));
+        Assertions.assertNotNull(em.find(Category.class, leaf.getId()));
+        Assertions.assertEquals(Set.of(newParent.getId(), moved.getId(), leaf.getId()),
+                Set.copyOf(categoryQueryService.collectDescendantIds(newParent.getId(), CategoryDescendantMode.CLOSURE_TABLE)));
+    }
+
     @Test
     @DisplayName("Scenario 4: Fetch-join read — order detail and user orders are loaded without N+1")
     void scenario4_fetch_join_read() {
@@ -290,4 +601,31 @@ class ScenarioVerificationTest {
         Item after2 = itemRepository.findById(item.getId()).orElseThrow();
         Assertions.assertEquals(1, after2.getStock(), "On mismatch, rollback should restore stock");
     }
+
+    @Test
+    @DisplayName("Scenario 5: Gateway outage opens the circuit -> orders fail fast before stock is reserved")
+    void scenario5_circuit_breaker_fast_fail() {
+        Item item = Item.create("CB-Item", 10000L, 50, category);
+        em.persist(item);
+        em.flush();
+        em.clear();
+
+        // PG 예외가 minimum-calls(기본 10)건 쌓이면 서킷이 열린다. 실패한 주문은 모두 보상된다
+        gateway.setMode(SwitchableTestPaymentGateway.Mode.ERROR);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertThrows(PaymentFailedException.class, () ->
+                    orderService.createOrder(user.getId(), item.getId(), 1, null, 10000L));
+        }
+        Assertions.assertEquals(PaymentCircuitBreaker.State.OPEN, paymentCircuitBreaker.getState());
+        Assertions.assertEquals(50, itemRepository.findById(item.getId()).orElseThrow().getStock());
+
+        // 서킷이 열린 동안은 PG 가 회복돼도 주문을 만들지 않고 바로 거절한다
+        gateway.setMode(SwitchableTestPaymentGateway.Mode.SUCCESS_MATCH);
+        long ordersBefore = orderRepository.count();
+        PaymentFailedException fastFail = Assertions.assertThrows(PaymentFailedException.class, () ->
+                orderService.createOrder(user.getId(), item.getId(), 1, null, 10000L));
+        Assertions.assertTrue(fastFail.getMessage().contains("결제 시스템 장애"));
+        Assertions.assertEquals(ordersBefore, orderRepository.count(), "fast-fail must not create an order");
+        Assertions.assertEquals(50, itemRepository.findById(item.getId()).orElseThrow().getStock());
+    }
 }
@@ -0,0 +1,150 @@
+package org.portfolio.portfolio.integration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.portfolio.portfolio.application.order.OrderService;
+import org.portfolio.portfolio.application.payment.PaymentGateway;
+import org.portfolio.portfolio.application.payment.PaymentResult;
+import org.portfolio.portfolio.application.stock.SoldOutRegistry;
+import org.portfolio.portfolio.config.ConcurrencyLimitedDataSource;
+import org.portfolio.portfolio.domain.category.Category;
+import org.portfolio.portfolio.domain.category.CategoryRepository;
+import org.portfolio.portfolio.domain.item.Item;
+import org.portfolio.portfolio.domain.item.ItemRepository;
+import org.portfolio.portfolio.domain.user.User;
+import org.portfolio.portfolio.domain.user.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 5천 명이 동시에 같은 상품을 주문할 때 플랫폼 스레드 풀(Tomcat 기본 200) 과 가상 스레드를 비교한다.
+ * 두 경우 모두 DB 동시 사용 한도(ConcurrencyLimitedDataSource)를 켠 상태로 실행한다.
+ * 두 실행 모델 모두 재고 정합성을 확인하고, 소요 시간과 p50/p99 지연을 표로 출력한다.
+ */
+@SpringBootTest(properties = {
+        "timedeal.db.concurrency-limit.enabled=true",
+        "timedeal.db.concurrency-limit.acquire-timeout-ms=60000"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class VirtualThreadBenchmarkTest {
+
+    private static final int BUYERS = 5_000;
+    private static final int STOCK = 1_000;
+    private static final int PLATFORM_THREADS = 200;
+
+    @TestConfiguration
+    static class SlowGatewayConfig {
+        @Bean
+        @Primary
+        public PaymentGateway paymentGateway() {
+            // 외부 PG 응답 지연(20ms)을 흉내 낸다
+            return (amount, orderId) -> {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return PaymentResult.success("TEST-TX-" + orderId, amount);
+            };
+        }
+    }
+
+    @Autowired private OrderService orderService;
+    @Autowired private SoldOutRegistry soldOutRegistry;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ItemRepository itemRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private DataSource dataSource;
+
+    private record BenchResult(long elapsedMs, long success, int finalStock, long p50Micros, long p99Micros) {}
+
+    @Test
+    @DisplayName("5k concurrent buyers: platform thread pool vs virtual threads")
+    void platform_vs_virtual_threads_5k_buyers() throws Exception {
+        // 한도는 기본 풀에만 걸린다
+        Assertions.assertInstanceOf(ConcurrencyLimitedDataSource.class, dataSource);
+
+        String email = "vt+" + System.currentTimeMillis() + "+" + java.util.UUID.randomUUID() + "@test.local";
+        User user = userRepository.save(User.create(email, "VT"));
+        Category category = categoryRepository.save(Category.createRoot("VtCat"));
+        Item platformItem = itemRepository.save(Item.create("VT-Platform", 1000L, STOCK, category));
+        Item virtualItem = itemRepository.save(Item.create("VT-Virtual", 1000L, STOCK, category));
+
+        BenchResult platform = run(Executors.newFixedThreadPool(PLATFORM_THREADS), user.getId(), platformItem.getId());
+        // 실행 모델과 관계없이 재고 정합성은 같아야 한다
+        Assertions.assertEquals(STOCK, platform.success());
+        Assertions.assertEquals(0, platform.finalStock());
+
+        BenchResult virtual = run(Executors.newVirtualThreadPerTaskExecutor(), user.getId(), virtualItem.getId());
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n[Virtual Threads — ").append(BUYERS).append(" buyers, stock ").append(STOCK).append(", gateway 20ms]\n");
+        sb.append("| Executor | Time (ms) | Success | p50 (us) | p99 (us) | Final Stock |\n");
+        sb.append("|----------|----------:|--------:|---------:|---------:|------------:|\n");
+        sb.append(row("platform(" + PLATFORM_THREADS + ")", platform));
+        sb.append(row("virtual", virtual));
+        System.out.println(sb);
+
+        Assertions.assertEquals(STOCK, virtual.success());
+        Assertions.assertEquals(0, virtual.finalStock());
+    }
+
+    private BenchResult run(ExecutorService executor, Long userId, Long itemId) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(BUYERS);
+        long[] latencies = new long[BUYERS];
+        AtomicLong success = new AtomicLong();
+
+        for (int i = 0; i < BUYERS; i++) {
+            final int idx = i;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    long s = System.nanoTime();
+                    try {
+                        orderService.createOrder(userId, itemId, 1, null, 1000L);
+                        success.incrementAndGet();
+                    } catch (Exception ignored) {
+                        // 품절/재고 부족은 정상적인 거절
+                    }
+                    latencies[idx] = System.nanoTime() - s;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        done.await(5, TimeUnit.MINUTES);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        executor.shutdownNow();
+
+        Arrays.sort(latencies);
+        long p50 = TimeUnit.NANOSECONDS.toMicros(latencies[BUYERS / 2]);
+        long p99 = TimeUnit.NANOSECONDS.toMicros(latencies[(int) Math.ceil(BUYERS * 0.99) - 1]);
+        int finalStock = itemRepository.findById(itemId).orElseThrow().getStock();
+        soldOutRegistry.clear(itemId);
+        return new BenchResult(elapsedMs, success.get(), finalStock, p50, p99);
+    }
+
+    private static String row(String label, BenchResult r) {
+        return String.format("| %s | %6d | %4d | %8d | %8d | %4d |\n",
+                label, r.elapsedMs(), r.success(), r.p50Micros(), r.p99Micros(), r.finalStock());
+    }
+}